@@ -0,0 +1,21 @@
+#!/usr/bin/env sh
+# Launches the application from the extracted layout produced by `mvn -Pcds package`,
+# using the trained CDS archive and the AOT-generated bean definitions.
+#
+# Usage: scripts/run-cds.sh [extra java args...]
+
+set -eu
+
+CDS_DIR=${CDS_DIR:-"$(dirname "$0")/../target/cds"}
+
+if [ ! -f "$CDS_DIR/application.jsa" ]; then
+  echo "No CDS archive in $CDS_DIR; build it with: sh mvnw -Pcds -DskipTests package" >&2
+  exit 1
+fi
+
+exec java \
+  -XX:SharedArchiveFile="$CDS_DIR/application.jsa" \
+  -Xshare:auto \
+  -Dspring.aot.enabled=true \
+  "$@" \
+  -jar "$CDS_DIR/application.jar"
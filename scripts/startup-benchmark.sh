@@ -0,0 +1,102 @@
+#!/usr/bin/env sh
+# Cold-start benchmark: launches the packaged app, measures time until /health
+# answers 200, time until the first /api/auth/login completes and the resident
+# set size after a short warm-up.
+#
+# Usage: scripts/startup-benchmark.sh [extra java/app args...]
+#   RUNS=5 PORT=8099 scripts/startup-benchmark.sh -Xmx256m
+#
+# Env:
+#   JAR         path to the boot jar (default target/fitnessapp-0.0.1-SNAPSHOT.jar)
+#   LAUNCH      full launch command; overrides "java <args> -jar $JAR"
+#   RUNS        number of cold starts to average (default 3)
+#   PORT        port used for the benchmark instance (default 8099)
+#   WARMUP_REQ  /health requests issued before sampling RSS (default 200)
+#   TIMEOUT_S   seconds to wait for /health (default 120)
+#   LOGIN_TIMEOUT_S
+#               max seconds for the login probe (default TIMEOUT_S)
+#   LOGIN_EMAIL / LOGIN_PASSWORD
+#               credentials for the first-login probe (default bench@example.com /
+#               bench; any HTTP status counts as a completed login round trip)
+
+set -eu
+
+JAR=${JAR:-target/fitnessapp-0.0.1-SNAPSHOT.jar}
+RUNS=${RUNS:-3}
+PORT=${PORT:-8099}
+WARMUP_REQ=${WARMUP_REQ:-200}
+TIMEOUT_S=${TIMEOUT_S:-120}
+LOGIN_TIMEOUT_S=${LOGIN_TIMEOUT_S:-$TIMEOUT_S}
+LOGIN_EMAIL=${LOGIN_EMAIL:-bench@example.com}
+LOGIN_PASSWORD=${LOGIN_PASSWORD:-bench}
+
+if [ -z "${LAUNCH:-}" ] && [ ! -f "$JAR" ]; then
+  echo "Jar $JAR not found, building..." >&2
+  sh mvnw -q -DskipTests package
+fi
+
+now_ms() {
+  date +%s%3N
+}
+
+rss_kb() {
+  if [ -r "/proc/$1/status" ]; then
+    awk '/VmRSS/ {print $2}' "/proc/$1/status"
+  else
+    ps -o rss= -p "$1" | tr -d ' '
+  fi
+}
+
+total_ready=0
+total_login=0
+total_rss=0
+run=1
+while [ "$run" -le "$RUNS" ]; do
+  start=$(now_ms)
+  if [ -n "${LAUNCH:-}" ]; then
+    PORT=$PORT sh -c "exec $LAUNCH $*" >"/tmp/fitnessapp-bench-$run.log" 2>&1 &
+  else
+    PORT=$PORT java "$@" -jar "$JAR" >"/tmp/fitnessapp-bench-$run.log" 2>&1 &
+  fi
+  pid=$!
+
+  ready=""
+  deadline=$(( $(date +%s) + TIMEOUT_S ))
+  while [ "$(date +%s)" -lt "$deadline" ]; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/health" || true)
+    if [ "$code" = "200" ]; then
+      ready=$(( $(now_ms) - start ))
+      break
+    fi
+    sleep 0.05
+  done
+
+  if [ -z "$ready" ]; then
+    echo "run $run: /health not ready after ${TIMEOUT_S}s, see /tmp/fitnessapp-bench-$run.log" >&2
+    kill "$pid" 2>/dev/null || true
+    exit 1
+  fi
+
+  curl -s -o /dev/null -m "$LOGIN_TIMEOUT_S" -H 'Content-Type: application/json' \
+    -d "{\"email\":\"$LOGIN_EMAIL\",\"password\":\"$LOGIN_PASSWORD\"}" \
+    "http://localhost:$PORT/api/auth/login" || true
+  login=$(( $(now_ms) - start ))
+
+  i=0
+  while [ "$i" -lt "$WARMUP_REQ" ]; do
+    curl -s -o /dev/null "http://localhost:$PORT/health" || true
+    i=$((i + 1))
+  done
+  rss=$(rss_kb "$pid")
+
+  echo "run $run: time_to_health_ms=$ready time_to_login_ms=$login rss_after_warmup_mb=$((rss / 1024))"
+  total_ready=$((total_ready + ready))
+  total_login=$((total_login + login))
+  total_rss=$((total_rss + rss))
+
+  kill "$pid" 2>/dev/null || true
+  wait "$pid" 2>/dev/null || true
+  run=$((run + 1))
+done
+
+echo "avg: time_to_health_ms=$((total_ready / RUNS)) time_to_login_ms=$((total_login / RUNS)) rss_after_warmup_mb=$((total_rss / RUNS / 1024))"
@@ -0,0 +1,19 @@
+#!/usr/bin/env sh
+# Compares cold start of the plain boot jar against the AOT + CDS launcher.
+# Builds with -Pcds (which also produces the plain jar) unless SKIP_BUILD=1.
+#
+# Usage: RUNS=5 scripts/startup-compare.sh
+
+set -eu
+
+cd "$(dirname "$0")/.."
+
+if [ "${SKIP_BUILD:-0}" != "1" ]; then
+  sh mvnw -q -Pcds -DskipTests package
+fi
+
+echo "== plain jar"
+scripts/startup-benchmark.sh | tail -n 1
+
+echo "== AOT + CDS"
+LAUNCH="scripts/run-cds.sh" scripts/startup-benchmark.sh | tail -n 1
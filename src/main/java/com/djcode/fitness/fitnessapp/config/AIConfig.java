@@ -1,15 +1,22 @@
 package com.djcode.fitness.fitnessapp.config;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.*;
-import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.http.HttpClient;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Supplier;
 
 @Configuration
 public class AIConfig {
@@ -22,21 +29,60 @@ public class AIConfig {
     private String model;
 
     @Bean
-    public RestTemplate restTemplate() {
-        SimpleClientHttpRequestFactory f = new SimpleClientHttpRequestFactory();
-        f.setConnectTimeout(8000);
+    @DeferredInit
+    public RestTemplate restTemplate(RestTemplateBuilder builder) {
+        // JDK HttpClient keeps a pooled (HTTP/2 multiplexed) connection to Gemini that warm-up can pre-open
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(8000))
+                .build();
+        JdkClientHttpRequestFactory f = new JdkClientHttpRequestFactory(httpClient);
         f.setReadTimeout(25000);
-        return new RestTemplate(f);
+        // Builder carries Boot's message converters, i.e. the shared (Blackbird) ObjectMapper
+        return builder.requestFactory(() -> f).build();
     }
 
     @Bean
+    @DeferredInit
     public GeminiClient geminiClient(RestTemplate restTemplate) {
         return new GeminiClient(restTemplate, apiKey, model);
     }
 
-    public record GeminiRequest(Contents[] contents) {
+    /**
+     * Bounded pool for plan work fanned out from one request (batch items, plan chunks). When the
+     * queue is full the submitting request thread runs the task itself instead of failing.
+     */
+    @Bean
+    @DeferredInit
+    public ThreadPoolTaskExecutor planExecutor(@Value("${app.plans.executor.threads:8}") int threads,
+                                               @Value("${app.plans.executor.queue-capacity:64}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("plan-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        return executor;
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GeminiRequest(Contents[] contents, GenerationConfig generationConfig) {
         public static GeminiRequest of(String userText) {
-            return new GeminiRequest(new Contents[]{new Contents(new Part[]{new Part(userText)})});
+            return of(userText, null);
+        }
+
+        public static GeminiRequest of(String userText, GenerationConfig generationConfig) {
+            return new GeminiRequest(new Contents[]{new Contents(new Part[]{new Part(userText)})}, generationConfig);
+        }
+    }
+
+    /** Output controls sent with a request; null fields are omitted and left to the model default. */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record GenerationConfig(Integer maxOutputTokens, Double temperature, String responseMimeType,
+                                   Map<String, Object> responseSchema) {
+        /** JSON-only output, optionally constrained to {@code responseSchema} (see {@link GeminiSchemas}). */
+        public static GenerationConfig json(int maxOutputTokens, Double temperature, Map<String, Object> responseSchema) {
+            return new GenerationConfig(maxOutputTokens > 0 ? maxOutputTokens : null, temperature,
+                    MediaType.APPLICATION_JSON_VALUE, responseSchema);
         }
     }
 
@@ -44,12 +90,34 @@ public class AIConfig {
 
     public record Part(String text) {}
 
+    // Response side: only the fields we read are mapped, everything else is skipped by the parser
+    public record GeminiResponse(List<Candidate> candidates, UsageMetadata usageMetadata, Object error) {}
+
+    public record Candidate(Contents content, String finishReason, Object safetyRatings) {}
+
+    public record UsageMetadata(Integer promptTokenCount, Integer candidatesTokenCount, Integer totalTokenCount) {}
+
+    /**
+     * Aggregated text of a generate call (null on failure), the output tokens Gemini billed for it
+     * (0 if unknown) and the first candidate's finish reason, e.g. "MAX_TOKENS" when cut off.
+     */
+    public record GeminiResult(String text, int outputTokens, String finishReason) {
+        static final GeminiResult FAILED = new GeminiResult(null, 0, null);
+
+        public boolean truncated() {
+            return "MAX_TOKENS".equals(finishReason);
+        }
+    }
+
     public static class GeminiClient {
         private final RestTemplate restTemplate;
         private final String apiKey;
         private final String model;
 
-        private final String endpointPattern = "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s";
+        static final String ENDPOINT_PATTERN = "https://generativelanguage.googleapis.com/v1beta/models/%s:generateContent?key=%s";
+        static final String MODEL_INFO_PATTERN = "https://generativelanguage.googleapis.com/v1beta/models/%s?key=%s";
+
+        private static final ThreadLocal<String> cannedResponse = new ThreadLocal<>();
 
         public GeminiClient(RestTemplate restTemplate, String apiKey, String model) {
             this.restTemplate = restTemplate;
@@ -57,72 +125,118 @@ public class AIConfig {
             this.model = model;
         }
 
+        /**
+         * Runs {@code body} with every generate() call on the current thread answered by
+         * {@code text} instead of Gemini. Used by warm-up to exercise the decode path offline.
+         */
+        public static <T> T withCannedResponse(String text, Supplier<T> body) {
+            cannedResponse.set(text);
+            try {
+                return body.get();
+            } finally {
+                cannedResponse.remove();
+            }
+        }
+
+        public static boolean isCannedResponseActive() {
+            return cannedResponse.get() != null;
+        }
+
+        /**
+         * Opens (TLS handshake + HTTP/2 setup) the pooled connection to the Gemini host with a cheap
+         * model metadata GET. Returns true if the host answered.
+         */
+        public boolean preconnect() {
+            if (!hasApiKey()) return false;
+            try {
+                restTemplate.getForEntity(MODEL_INFO_PATTERN.formatted(model, apiKey), String.class);
+                return true;
+            } catch (Exception ex) {
+                log.warn("Gemini preconnect failed: {}: {}", ex.getClass().getSimpleName(), ex.getMessage());
+                return false;
+            }
+        }
+
+        private boolean hasApiKey() {
+            return hasApiKey(apiKey);
+        }
+
+        static boolean hasApiKey(String apiKey) {
+            return apiKey != null && !apiKey.isBlank() && !apiKey.equals("CHANGE_ME");
+        }
+
         /**
          * Returns raw textual aggregation of all parts of first candidate; null if failure.
          */
         public String generate(String prompt) {
-            if (apiKey == null || apiKey.isBlank() || apiKey.equals("CHANGE_ME")) {
+            return generate(prompt, null).text();
+        }
+
+        /**
+         * Like {@link #generate(String)} with {@code config} as generationConfig (null: model
+         * defaults), also reporting token usage and finish reason.
+         */
+        public GeminiResult generate(String prompt, GenerationConfig config) {
+            String canned = cannedResponse.get();
+            if (canned != null) {
+                return new GeminiResult(canned, 0, null);
+            }
+            if (!hasApiKey()) {
                 log.warn("Gemini API key missing or placeholder");
-                return null;
+                return GeminiResult.FAILED;
             }
-            String url = endpointPattern.formatted(model, apiKey);
-            GeminiRequest body = GeminiRequest.of(prompt);
+            String url = ENDPOINT_PATTERN.formatted(model, apiKey);
+            GeminiRequest request = GeminiRequest.of(prompt, config);
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
             headers.setAccept(List.of(MediaType.APPLICATION_JSON));
-            HttpEntity<GeminiRequest> entity = new HttpEntity<>(body, headers);
+            HttpEntity<GeminiRequest> entity = new HttpEntity<>(request, headers);
             try {
-                ResponseEntity<Map> resp = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
+                ResponseEntity<GeminiResponse> resp = restTemplate.exchange(url, HttpMethod.POST, entity, GeminiResponse.class);
                 if (!resp.getStatusCode().is2xxSuccessful()) {
                     log.error("Gemini non-2xx status {}", resp.getStatusCode());
-                    return null;
+                    return GeminiResult.FAILED;
                 }
-                Map<?, ?> map = resp.getBody();
-                if (map == null) {
-                    log.error("Gemini empty body");
-                    return null;
-                }
-                // Check safety / error
-                Object error = map.get("error");
-                if (error != null) {
-                    log.error("Gemini error payload: {}", error);
-                    return null;
-                }
-                Object candidates = map.get("candidates");
-                if (!(candidates instanceof List<?> list) || list.isEmpty()) {
-                    log.error("Gemini no candidates field");
-                    return null;
-                }
-                StringBuilder sb = new StringBuilder();
-                for (Object c : list) {
-                    if (c instanceof Map<?, ?> cm) {
-                        Object content = cm.get("content");
-                        if (content instanceof Map<?, ?> cMap) {
-                            Object parts = cMap.get("parts");
-                            if (parts instanceof List<?> pList) {
-                                for (Object p : pList) {
-                                    if (p instanceof Map<?, ?> pm) {
-                                        Object t = pm.get("text");
-                                        if (t != null) sb.append(t).append('\n');
-                                    }
-                                }
-                            }
-                        }
-                        // Safety ratings (optional logging)
-                        Object safety = cm.get("safetyRatings");
-                        if (safety != null) log.debug("Gemini safety ratings: {}", safety);
-                    }
-                }
-                String out = sb.toString().trim();
-                if (out.isEmpty())
-                    log.warn("Gemini produced empty aggregated text");
-                else
-                    log.debug("Gemini aggregated text length {}", out.length());
-                return out.isBlank() ? null : out;
+                return toResult(resp.getBody());
             } catch (Exception ex) {
                 log.error("Gemini request failed: {}: {}", ex.getClass().getSimpleName(), ex.getMessage());
-                return null;
+                return GeminiResult.FAILED;
+            }
+        }
+
+        /** Aggregates a generateContent response body; FAILED for error payloads or no text. */
+        static GeminiResult toResult(GeminiResponse body) {
+            if (body == null) {
+                log.error("Gemini empty body");
+                return GeminiResult.FAILED;
+            }
+            // Check safety / error
+            if (body.error() != null) {
+                log.error("Gemini error payload: {}", body.error());
+                return GeminiResult.FAILED;
+            }
+            if (body.candidates() == null || body.candidates().isEmpty()) {
+                log.error("Gemini no candidates field");
+                return GeminiResult.FAILED;
+            }
+            StringBuilder sb = new StringBuilder();
+            for (Candidate c : body.candidates()) {
+                if (c.content() != null && c.content().parts() != null) {
+                    for (Part p : c.content().parts()) {
+                        if (p != null && p.text() != null) sb.append(p.text()).append('\n');
+                    }
+                }
+                // Safety ratings (optional logging; TRACE, as they come with every answer)
+                if (c.safetyRatings() != null) log.trace("Gemini safety ratings: {}", c.safetyRatings());
             }
+            String out = sb.toString().trim();
+            if (out.isEmpty())
+                log.warn("Gemini produced empty aggregated text");
+            else
+                log.debug("Gemini aggregated text length {}", out.length());
+            UsageMetadata usage = body.usageMetadata();
+            int outputTokens = usage == null || usage.candidatesTokenCount() == null ? 0 : usage.candidatesTokenCount();
+            return new GeminiResult(out.isBlank() ? null : out, outputTokens, body.candidates().get(0).finishReason());
         }
     }
 }
@@ -0,0 +1,40 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsProcessor;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.cors.DefaultCorsProcessor;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Answers CORS preflights ({@code OPTIONS} with {@code Origin} and
+ * {@code Access-Control-Request-Method}) before the security filter chain runs: allowed origins
+ * get the CORS headers and an empty 200, others a 403. Every other request, including plain
+ * {@code OPTIONS}, passes through and gets its CORS headers from the security chain's CorsFilter,
+ * which uses the same configuration.
+ */
+public class CorsPreflightFilter extends OncePerRequestFilter {
+
+    private final CorsConfiguration config;
+    private final CorsProcessor processor = new DefaultCorsProcessor();
+
+    public CorsPreflightFilter(CorsConfiguration config) {
+        this.config = config;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            processor.processRequest(config, request, response);
+            return;
+        }
+        chain.doFilter(request, response);
+    }
+}
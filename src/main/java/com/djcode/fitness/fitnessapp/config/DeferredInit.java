@@ -0,0 +1,14 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a component or {@code @Bean} method that is not needed for /health and auth.
+ * In fast-readiness mode ({@code app.startup.fast-readiness=true}) such beans are created
+ * lazily and warmed in the background once the application is ready; otherwise it has no effect.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DeferredInit {
+}
@@ -0,0 +1,142 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.service.ContentHash;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * JSON responses of fetch endpoints with a strong ETag taken from the content hash, and 304
+ * for a matching If-None-Match. Bodies of at least {@code server.compression.min-response-size}
+ * are gzipped here rather than by the connector, because Tomcat does not compress responses
+ * that carry a strong ETag. A strong ETag identifies one representation, so the gzipped body is
+ * tagged {@code "<hash>-gzip"}. Either tag matches the same content.
+ */
+@Component
+@ServletStack
+public class EntityTagResponses {
+
+    static final String GZIP_SUFFIX = "-gzip";
+
+    private final JsonCodecs jsonCodecs;
+    private final long minGzipSize;
+    private final int gzipLevel;
+
+    public EntityTagResponses(JsonCodecs jsonCodecs,
+                              @Value("${server.compression.min-response-size:2KB}") DataSize minGzipSize,
+                              @Value("${app.compression.level:6}") int gzipLevel) {
+        this.jsonCodecs = jsonCodecs;
+        this.minGzipSize = minGzipSize.toBytes();
+        this.gzipLevel = gzipLevel;
+    }
+
+    /** {@code value} as JSON, tagged with the hash of its serialized form. */
+    public ResponseEntity<byte[]> json(HttpServletRequest request, Object value) {
+        try {
+            byte[] body = jsonCodecs.write(value);
+            return json(request, body, ContentHash.of(body));
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + value.getClass().getSimpleName(), ex);
+        }
+    }
+
+    /** Already serialized JSON with its known {@link ContentHash}. */
+    public ResponseEntity<byte[]> json(HttpServletRequest request, byte[] body, String hash) {
+        ResponseEntity<byte[]> notModified = notModified(request, hash);
+        if (notModified != null) return notModified;
+        if (body.length >= minGzipSize && acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return ok(MediaType.APPLICATION_JSON, CacheControl.empty(), gzip(body, gzipLevel), hash, true);
+        }
+        return ok(MediaType.APPLICATION_JSON, CacheControl.empty(), body, hash, false);
+    }
+
+    /**
+     * 304 if If-None-Match names {@code hash} (in either representation), otherwise null. Lets a
+     * caller that can look up the hash alone skip loading the content.
+     */
+    public static ResponseEntity<byte[]> notModified(HttpServletRequest request, String hash) {
+        return notModified(request, hash, CacheControl.empty());
+    }
+
+    static ResponseEntity<byte[]> notModified(HttpServletRequest request, String hash, CacheControl cacheControl) {
+        String matched = hash == null ? null : matchingTag(request.getHeader(HttpHeaders.IF_NONE_MATCH), hash);
+        if (matched == null) return null;
+        // The 304 carries the validator the client holds
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(matched)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    /** 200 with {@code body}, gzipped or not, tagged for that representation of {@code hash}. */
+    static ResponseEntity<byte[]> ok(MediaType type, CacheControl cacheControl, byte[] body, String hash, boolean gzipped) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(type)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzipped) {
+            return response.eTag(tag(hash + GZIP_SUFFIX)).header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body);
+        }
+        return response.eTag(tag(hash)).body(body);
+    }
+
+    /** The tag in {@code ifNoneMatch} that names {@code hash}, or null. */
+    static String matchingTag(String ifNoneMatch, String hash) {
+        if (ifNoneMatch == null) return null;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*")) return tag(hash);
+            // If-None-Match uses weak comparison
+            if (value.startsWith("W/")) value = value.substring(2);
+            if (value.equals(tag(hash)) || value.equals(tag(hash + GZIP_SUFFIX))) return value;
+        }
+        return null;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (!parts[0].trim().equalsIgnoreCase("gzip")) continue;
+            for (int i = 1; i < parts.length; i++) {
+                String param = parts[i].trim();
+                if (param.startsWith("q=")) {
+                    try {
+                        return Double.parseDouble(param.substring(2)) > 0;
+                    } catch (NumberFormatException ex) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    static byte[] gzip(byte[] body, int level) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {{ def.setLevel(level); }}) {
+            gzip.write(body);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return out.toByteArray();
+    }
+
+    private static String tag(String value) {
+        return "\"" + value + "\"";
+    }
+}
@@ -0,0 +1,43 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CorsConfiguration} that checks the request origin with a hash lookup in the configured
+ * origins. Entries containing {@code *} (e.g. {@code https://*.example.com}) are kept as origin
+ * patterns and only matched when the lookup misses, so a list without wildcards never runs a regex.
+ * Spring copies configurations when it combines them, which drops the override; register this
+ * instance directly (URL-based source, no {@code @CrossOrigin}) to keep the fast path.
+ */
+public class ExactOriginCorsConfiguration extends CorsConfiguration {
+
+    private final Set<String> exactOrigins;
+
+    public ExactOriginCorsConfiguration(List<String> origins) {
+        List<String> exact = origins.stream().filter(origin -> !origin.contains("*")).toList();
+        List<String> patterns = origins.stream().filter(origin -> origin.contains("*")).toList();
+        this.exactOrigins = exact.stream().map(ExactOriginCorsConfiguration::normalize).collect(Collectors.toUnmodifiableSet());
+        setAllowedOrigins(exact);
+        if (!patterns.isEmpty()) setAllowedOriginPatterns(patterns);
+    }
+
+    @Override
+    public String checkOrigin(String origin) {
+        if (origin != null && exactOrigins.contains(normalize(origin))) {
+            return origin;
+        }
+        return super.checkOrigin(origin);
+    }
+
+    // Same comparison as CorsConfiguration: case-insensitive, trailing slash ignored
+    private static String normalize(String origin) {
+        String trimmed = origin.trim();
+        if (trimmed.endsWith("/")) trimmed = trimmed.substring(0, trimmed.length() - 1);
+        return trimmed.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,100 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.type.MethodMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fast-readiness mode: springdoc and the beans marked {@link DeferredInit} (OpenAPI model,
+ * Gemini client, AIService and the generate controllers) are left out of the startup refresh
+ * so /health and auth answer sooner. They are then created on a background thread right after
+ * the application reports ready, so the first real /generate call does not pay for them.
+ *
+ * Note: with the AOT build (-Pcds) this property must already be set at build time.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.startup.fast-readiness", havingValue = "true")
+public class FastReadinessConfig {
+    private static final Logger log = LoggerFactory.getLogger(FastReadinessConfig.class);
+
+    private static final String SPRINGDOC_PACKAGE = "org.springdoc.";
+
+    @Bean
+    public static DeferredBeans deferredBeans() {
+        return new DeferredBeans();
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> deferredBeanWarmer(DeferredBeans deferredBeans, BeanFactory beanFactory) {
+        return event -> {
+            long readyMs = event.getTimeTaken() == null ? -1 : event.getTimeTaken().toMillis();
+            log.info("Fast readiness: ready in {} ms with {} deferred beans", readyMs, deferredBeans.names().size());
+            Thread warmer = new Thread(() -> {
+                long start = System.nanoTime();
+                for (String name : deferredBeans.names()) {
+                    try {
+                        beanFactory.getBean(name);
+                    } catch (Exception ex) {
+                        log.warn("Deferred bean {} failed to initialize: {}", name, ex.getMessage());
+                    }
+                }
+                log.info("Fast readiness: warmed {} deferred beans in {} ms",
+                        deferredBeans.names().size(), (System.nanoTime() - start) / 1_000_000);
+            }, "deferred-bean-warmer");
+            warmer.setDaemon(true);
+            warmer.start();
+        };
+    }
+
+    /**
+     * Marks matching bean definitions lazy and remembers their names for the warmer.
+     */
+    public static class DeferredBeans implements BeanFactoryPostProcessor {
+        private final List<String> names = new ArrayList<>();
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition bd = beanFactory.getBeanDefinition(name);
+                if (bd.isSingleton() && !bd.isLazyInit() && bd.getRole() == BeanDefinition.ROLE_APPLICATION && isDeferred(bd)) {
+                    bd.setLazyInit(true);
+                    names.add(name);
+                }
+            }
+            log.debug("Fast readiness: deferring {}", names);
+        }
+
+        public List<String> names() {
+            return names;
+        }
+
+        private static boolean isDeferred(BeanDefinition bd) {
+            String className = bd.getBeanClassName();
+            if (bd instanceof AnnotatedBeanDefinition abd) {
+                MethodMetadata factoryMethod = abd.getFactoryMethodMetadata();
+                if (factoryMethod != null) {
+                    return factoryMethod.isAnnotated(DeferredInit.class.getName())
+                            || factoryMethod.getDeclaringClassName().startsWith(SPRINGDOC_PACKAGE);
+                }
+                if (abd.getMetadata().hasAnnotation(DeferredInit.class.getName())) {
+                    return true;
+                }
+                className = abd.getMetadata().getClassName();
+            }
+            return className != null && className.startsWith(SPRINGDOC_PACKAGE);
+        }
+    }
+}
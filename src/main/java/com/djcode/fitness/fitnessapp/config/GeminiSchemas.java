@@ -0,0 +1,78 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gemini {@code responseSchema} values (the OpenAPI subset the API accepts) derived from the DTO
+ * records, so the model is held to exactly the shape the parsers expect. Record components map
+ * to required properties; {@code @Schema(description)} is passed on as the property description
+ * and {@code READ_ONLY} components (derived on construction) are left out.
+ */
+public final class GeminiSchemas {
+
+    private static final Map<Class<?>, Map<String, Object>> CACHE = new ConcurrentHashMap<>();
+
+    private GeminiSchemas() {}
+
+    /** Schema for record {@code type}; built once per type, immutable. */
+    public static Map<String, Object> of(Class<?> type) {
+        // Not computeIfAbsent: building a record schema recurses into its component records
+        Map<String, Object> schema = CACHE.get(type);
+        if (schema == null) {
+            schema = build(type);
+            CACHE.putIfAbsent(type, schema);
+        }
+        return schema;
+    }
+
+    /** Object schema with the given required properties, e.g. for a combined multi-plan answer. */
+    public static Map<String, Object> object(Map<String, Map<String, Object>> properties) {
+        return Map.of("type", "OBJECT",
+                "properties", Collections.unmodifiableMap(new LinkedHashMap<>(properties)),
+                "required", List.copyOf(properties.keySet()));
+    }
+
+    private static Map<String, Object> build(Class<?> type) {
+        if (!type.isRecord()) throw new IllegalArgumentException(type.getName() + " is not a record");
+        Map<String, Map<String, Object>> properties = new LinkedHashMap<>();
+        List<String> required = new ArrayList<>();
+        for (RecordComponent component : type.getRecordComponents()) {
+            // @Schema is not a RECORD_COMPONENT annotation; it is propagated to the accessor
+            Schema doc = component.getAccessor().getAnnotation(Schema.class);
+            // Read-only components are derived server-side, not something to ask the model for
+            if (doc != null && doc.accessMode() == Schema.AccessMode.READ_ONLY) continue;
+            Map<String, Object> property = new LinkedHashMap<>(schema(component.getGenericType()));
+            if (doc != null && !doc.description().isBlank()) property.put("description", doc.description());
+            properties.put(component.getName(), Map.copyOf(property));
+            required.add(component.getName());
+        }
+        // Properties stay in declaration order, which keeps the serialized schema stable
+        return Map.of("type", "OBJECT",
+                "properties", Collections.unmodifiableMap(properties),
+                "required", List.copyOf(required));
+    }
+
+    private static Map<String, Object> schema(Type type) {
+        if (type instanceof ParameterizedType p && p.getRawType() == List.class) {
+            return Map.of("type", "ARRAY", "items", schema(p.getActualTypeArguments()[0]));
+        }
+        if (type == String.class) return Map.of("type", "STRING");
+        if (type == int.class || type == Integer.class || type == long.class || type == Long.class) {
+            return Map.of("type", "INTEGER");
+        }
+        if (type == double.class || type == Double.class) return Map.of("type", "NUMBER");
+        if (type == boolean.class || type == Boolean.class) return Map.of("type", "BOOLEAN");
+        if (type instanceof Class<?> c && c.isRecord()) return of(c);
+        throw new IllegalArgumentException("No Gemini schema mapping for " + type.getTypeName());
+    }
+}
@@ -0,0 +1,57 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records /generate latency. The first request per endpoint after startup goes to a separate
+ * timer ({@code fitness.generate.first}) tagged with whether warm-up ran, so cold-path latency
+ * with and without warm-up can be compared across deploys.
+ */
+public class GenerateMetricsInterceptor implements HandlerInterceptor {
+    private static final String START_ATTR = GenerateMetricsInterceptor.class.getName() + ".start";
+
+    private final MeterRegistry registry;
+    private final String warmup;
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+
+    public GenerateMetricsInterceptor(MeterRegistry registry, boolean warmupEnabled) {
+        this.registry = registry;
+        this.warmup = warmupEnabled ? "on" : "off";
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response, @NonNull Object handler) {
+        request.setAttribute(START_ATTR, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                @NonNull Object handler, Exception ex) {
+        Object start = request.getAttribute(START_ATTR);
+        if (!(start instanceof Long startNanos)) return;
+        long elapsed = System.nanoTime() - startNanos;
+        String uri = request.getRequestURI();
+        Timer.builder("fitness.generate")
+                .tag("uri", uri)
+                .register(registry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (seen.add(uri)) {
+            Timer.builder("fitness.generate.first")
+                    .description("Latency of the first request per endpoint after startup")
+                    .tag("uri", uri)
+                    .tag("warmup", warmup)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+}
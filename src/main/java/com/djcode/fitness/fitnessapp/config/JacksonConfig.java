@@ -0,0 +1,39 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Single tuned ObjectMapper for HTTP, Gemini decoding and internal JSON. Spring Boot registers
+ * every {@link Module} bean on its auto-configured mapper, so Blackbird (lambda-generated
+ * accessors instead of reflection) applies everywhere that mapper is used.
+ */
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fitnessObjectMapperCustomizer() {
+        return builder -> builder
+                .featuresToDisable(
+                        DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                        DeserializationFeature.ADJUST_DATES_TO_CONTEXT_TIME_ZONE,
+                        SerializationFeature.FAIL_ON_EMPTY_BEANS,
+                        SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @Bean
+    public JsonCodecs jsonCodecs(ObjectMapper objectMapper) {
+        return new JsonCodecs(objectMapper);
+    }
+}
@@ -0,0 +1,60 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pre-built {@link ObjectReader}/{@link ObjectWriter} pairs per DTO type, all derived from the
+ * application's shared ObjectMapper. Readers and writers are immutable and thread-safe, and
+ * building them up front avoids the per-call root type lookup in {@code readValue(..., Class)}.
+ */
+public class JsonCodecs {
+
+    static final List<Class<?>> DTO_TYPES = List.of(
+            WorkoutRequest.class, WorkoutResponse.class, Exercise.class,
+            DietRequest.class, DietResponse.class, Meal.class,
+            YogaPlanRequest.class, YogaPlanResponse.class, YogaPose.class,
+            RunningPlanRequest.class, RunningPlanResponse.class, RunningWeek.class, RunningSession.class,
+            BatchPlanRequest.class, BatchPlanResponse.class,
+            AuthRequest.class, AuthResponse.class, RegisterRequest.class, ErrorResponse.class
+    );
+
+    private final ObjectMapper mapper;
+    private final Map<Class<?>, ObjectReader> readers = new ConcurrentHashMap<>();
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public JsonCodecs(ObjectMapper mapper) {
+        this.mapper = mapper;
+        for (Class<?> type : DTO_TYPES) {
+            readers.put(type, mapper.readerFor(type));
+            writers.put(type, mapper.writerFor(type));
+        }
+    }
+
+    public ObjectMapper mapper() {
+        return mapper;
+    }
+
+    public ObjectReader reader(Class<?> type) {
+        return readers.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    public ObjectWriter writer(Class<?> type) {
+        return writers.computeIfAbsent(type, mapper::writerFor);
+    }
+
+    public <T> T read(String json, Class<T> type) throws JsonProcessingException {
+        return reader(type).readValue(json);
+    }
+
+    public byte[] write(Object value) throws JsonProcessingException {
+        return writer(value.getClass()).writeValueAsBytes(value);
+    }
+}
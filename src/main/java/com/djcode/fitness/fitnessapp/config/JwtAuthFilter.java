@@ -20,6 +20,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import java.io.IOException;
 
 @Component
+@ServletStack
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
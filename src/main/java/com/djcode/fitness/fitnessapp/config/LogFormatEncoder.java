@@ -0,0 +1,90 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.encoder.EncoderBase;
+
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Console encoder chosen by {@code app.logging.format}, so logback-spring.xml defines a single
+ * appender: {@code text} writes {@code pattern}, {@code json} one JSON object per line. Any other
+ * value is reported as a logback warning and written as text rather than silencing the console.
+ */
+public class LogFormatEncoder extends EncoderBase<ILoggingEvent> {
+
+    public static final String TEXT = "text";
+    public static final String JSON = "json";
+
+    private String format = TEXT;
+    private String pattern;
+    private Charset charset;
+    private Encoder<ILoggingEvent> delegate;
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public void setPattern(String pattern) {
+        this.pattern = pattern;
+    }
+
+    public void setCharset(Charset charset) {
+        this.charset = charset;
+    }
+
+    @Override
+    public void start() {
+        String selected = format == null ? "" : format.trim().toLowerCase(Locale.ROOT);
+        if (!selected.equals(TEXT) && !selected.equals(JSON)) {
+            addWarn("Unknown log format [" + format + "], falling back to " + TEXT);
+        }
+        delegate = selected.equals(JSON) ? json() : text();
+        delegate.setContext(getContext());
+        delegate.start();
+        super.start();
+    }
+
+    @Override
+    public void stop() {
+        if (delegate != null) delegate.stop();
+        super.stop();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return delegate.headerBytes();
+    }
+
+    @Override
+    public byte[] encode(ILoggingEvent event) {
+        return delegate.encode(event);
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return delegate.footerBytes();
+    }
+
+    private Encoder<ILoggingEvent> text() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setPattern(pattern);
+        if (charset != null) encoder.setCharset(charset);
+        return encoder;
+    }
+
+    // Timestamp, level, thread, logger, formatted message, MDC and throwable
+    private static Encoder<ILoggingEvent> json() {
+        JsonEncoder encoder = new JsonEncoder();
+        encoder.setWithSequenceNumber(false);
+        encoder.setWithNanoseconds(false);
+        encoder.setWithContext(false);
+        encoder.setWithArguments(false);
+        encoder.setWithMessage(false);
+        encoder.setWithFormattedMessage(true);
+        return encoder;
+    }
+}
@@ -0,0 +1,80 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mongo driver pool settings and checkout metrics. The pool sizes, wait and idle limits and the
+ * read preference come from {@code app.mongodb.*} and take precedence over the same options in
+ * the connection string. Command latency per command and collection
+ * ({@code mongodb.driver.commands}) and pool gauges ({@code mongodb.driver.pool.*}) are
+ * registered by the actuator's Mongo metrics auto-configuration; this adds how long each
+ * checkout waited for a connection, so a slow query can be told apart from a starved pool.
+ */
+@Configuration
+public class MongoConfig {
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoPoolSettings(
+            @Value("${app.mongodb.pool.min-size:0}") int minSize,
+            @Value("${app.mongodb.pool.max-size:100}") int maxSize,
+            @Value("${app.mongodb.pool.max-wait:PT2M}") Duration maxWait,
+            @Value("${app.mongodb.pool.max-idle-time:PT0S}") Duration maxIdleTime,
+            @Value("${app.mongodb.read-preference:primary}") String readPreference,
+            MeterRegistry meterRegistry) {
+        ConnectionPoolListener checkoutTimer = new CheckoutWaitListener(meterRegistry);
+        return builder -> builder
+                .readPreference(ReadPreference.valueOf(readPreference))
+                .applyToConnectionPoolSettings(pool -> pool
+                        .minSize(minSize)
+                        .maxSize(maxSize)
+                        .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS)
+                        // 0 keeps idle connections open indefinitely, as in the driver
+                        .maxConnectionIdleTime(maxIdleTime.toMillis(), TimeUnit.MILLISECONDS)
+                        .addConnectionPoolListener(checkoutTimer));
+    }
+
+    /** Records {@code mongodb.driver.pool.checkout.wait} per outcome (ok, timeout, pool closed, error). */
+    static final class CheckoutWaitListener implements ConnectionPoolListener {
+
+        private final MeterRegistry meterRegistry;
+        private final Timer checkedOut;
+
+        CheckoutWaitListener(MeterRegistry meterRegistry) {
+            this.meterRegistry = meterRegistry;
+            this.checkedOut = timer("ok");
+        }
+
+        @Override
+        public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+            checkedOut.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void connectionCheckOutFailed(ConnectionCheckOutFailedEvent event) {
+            timer(switch (event.getReason()) {
+                case TIMEOUT -> "timeout";
+                case POOL_CLOSED -> "pool_closed";
+                default -> "error";
+            }).record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+        }
+
+        private Timer timer(String outcome) {
+            return Timer.builder("mongodb.driver.pool.checkout.wait")
+                    .description("Time a command waited for a pooled connection")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.entity.PlanRecord;
+import com.djcode.fitness.fitnessapp.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Creates the {@code @Indexed}/{@code @CompoundIndex} indexes of the queried collections (unique
+ * {@code users.email}, {@code plans} by user), which Spring Data no longer does on its own. Runs in the background once
+ * the app is ready so startup never waits on Mongo; creating an existing index is a no-op.
+ */
+@Component
+@Slf4j
+public class MongoIndexInitializer implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final List<Class<?>> INDEXED = List.of(User.class, PlanRecord.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoMappingContext mappingContext;
+
+    public MongoIndexInitializer(MongoTemplate mongoTemplate, MongoMappingContext mappingContext) {
+        this.mongoTemplate = mongoTemplate;
+        this.mappingContext = mappingContext;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        IndexResolver resolver = new MongoPersistentEntityIndexResolver(mappingContext);
+        CompletableFuture.runAsync(() -> {
+            for (Class<?> type : INDEXED) {
+                try {
+                    resolver.resolveIndexFor(type).forEach(mongoTemplate.indexOps(type)::ensureIndex);
+                } catch (Exception ex) {
+                    log.warn("Could not ensure indexes for {}: {}", type.getSimpleName(), ex.getMessage());
+                }
+            }
+        });
+    }
+}
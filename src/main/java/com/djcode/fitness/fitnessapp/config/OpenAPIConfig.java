@@ -17,6 +17,7 @@ import java.util.List;
 public class OpenAPIConfig {
 
     @Bean
+    @DeferredInit
     public OpenAPI customOpenAPI() {
         return new OpenAPI()
                 .info(new Info()
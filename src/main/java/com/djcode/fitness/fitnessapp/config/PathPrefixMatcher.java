@@ -0,0 +1,89 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Matches a fixed list of paths by walking the request path one segment at a time through a trie,
+ * instead of trying each pattern in turn. Three pattern shapes are supported: literal paths
+ * ({@code /health}), subtrees ({@code /assets/**}, which also matches {@code /assets}) and file
+ * extensions within one directory ({@code /*.svg}). Any other wildcard is rejected when the
+ * matcher is built. Paths come from the servlet path, which the security firewall has already
+ * normalized.
+ */
+public class PathPrefixMatcher implements RequestMatcher {
+
+    private final Node root = new Node();
+
+    public PathPrefixMatcher(List<String> patterns) {
+        patterns.forEach(this::add);
+    }
+
+    @Override
+    public boolean matches(HttpServletRequest request) {
+        String pathInfo = request.getPathInfo();
+        return matches(pathInfo == null ? request.getServletPath() : request.getServletPath() + pathInfo);
+    }
+
+    public boolean matches(String path) {
+        if (path.isEmpty() || path.charAt(0) != '/') return false;
+        if (path.length() == 1) return root.exact || root.subtree;
+        Node node = root;
+        int start = 1;
+        while (!node.subtree) {
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                String last = path.substring(start);
+                Node child = node.children.get(last);
+                return child != null && (child.exact || child.subtree) || node.matchesExtension(last);
+            }
+            node = node.children.get(path.substring(start, end));
+            if (node == null) return false;
+            start = end + 1;
+        }
+        return true;
+    }
+
+    private void add(String pattern) {
+        if (!pattern.startsWith("/")) throw new IllegalArgumentException("Pattern must start with '/': " + pattern);
+        if (pattern.equals("/")) {
+            root.exact = true;
+            return;
+        }
+        String[] segments = pattern.substring(1).split("/", -1);
+        Node node = root;
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            boolean last = i == segments.length - 1;
+            if (last && segment.equals("**")) {
+                node.subtree = true;
+                return;
+            }
+            if (last && segment.startsWith("*.") && segment.indexOf('*', 1) < 0) {
+                node.extensions.add(segment.substring(1));
+                return;
+            }
+            if (segment.contains("*")) throw new IllegalArgumentException("Unsupported wildcard in " + pattern);
+            node = node.children.computeIfAbsent(segment, s -> new Node());
+        }
+        node.exact = true;
+    }
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        final Set<String> extensions = new HashSet<>();
+        boolean exact;
+        boolean subtree;
+
+        boolean matchesExtension(String segment) {
+            int dot = segment.lastIndexOf('.');
+            return dot >= 0 && !extensions.isEmpty() && extensions.contains(segment.substring(dot));
+        }
+    }
+}
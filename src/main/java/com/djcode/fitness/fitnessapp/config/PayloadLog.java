@@ -0,0 +1,63 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Logs Gemini prompts and raw answers for a sample of calls: one in
+ * {@code app.logging.payload.sample-every} (1 logs every call, 0 none), each payload cut to
+ * {@code app.logging.payload.max-chars}. Payloads go to their own logger, {@value #LOGGER_NAME}, at
+ * DEBUG, so they can be turned on without the rest of the app's debug output; calls outside the
+ * sample format nothing. Answers that could not be used are logged regardless of the sample.
+ */
+@Component
+public class PayloadLog {
+
+    public static final String LOGGER_NAME = "com.djcode.fitness.fitnessapp.payload";
+
+    private final Logger log;
+    private final int sampleEvery;
+    private final int maxChars;
+
+    @Autowired
+    public PayloadLog(@Value("${app.logging.payload.sample-every:20}") int sampleEvery,
+                      @Value("${app.logging.payload.max-chars:2000}") int maxChars) {
+        this(LoggerFactory.getLogger(LOGGER_NAME), sampleEvery, maxChars);
+    }
+
+    public PayloadLog(Logger log, int sampleEvery, int maxChars) {
+        this.log = log;
+        this.sampleEvery = sampleEvery;
+        this.maxChars = maxChars;
+    }
+
+    /** Whether the payloads of the call starting now are logged; decide once per call and pass it along. */
+    public boolean sample() {
+        if (sampleEvery <= 0 || !log.isDebugEnabled()) return false;
+        return sampleEvery == 1 || ThreadLocalRandom.current().nextInt(sampleEvery) == 0;
+    }
+
+    /** Logs {@code payload} as the {@code what} of a {@code type} call if that call was sampled. */
+    public void log(boolean sampled, String type, String what, String payload) {
+        if (sampled && payload != null) write(type, what, payload);
+    }
+
+    /** Logs an answer that could not be turned into a plan. */
+    public void rejected(String type, String payload) {
+        if (sampleEvery > 0 && payload != null && log.isDebugEnabled()) write(type, "rejected answer", payload);
+    }
+
+    private void write(String type, String what, String payload) {
+        log.debug("Gemini {} {} ({} chars): {}", type, what, payload.length(), truncate(payload, maxChars));
+    }
+
+    static String truncate(String payload, int maxChars) {
+        if (maxChars <= 0 || payload.length() <= maxChars) return payload;
+        return payload.substring(0, maxChars) + "...[truncated]";
+    }
+}
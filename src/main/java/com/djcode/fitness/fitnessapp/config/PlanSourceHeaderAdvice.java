@@ -0,0 +1,43 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.service.PlanSource;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.lang.NonNull;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Copies the plan source recorded by AIService onto the response headers.
+ */
+@RestControllerAdvice
+@ServletStack
+public class PlanSourceHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String SOURCE_HEADER = "X-Plan-Source";
+    public static final String REASON_HEADER = "X-Plan-Fallback-Reason";
+
+    @Override
+    public boolean supports(@NonNull MethodParameter returnType, @NonNull Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, @NonNull MethodParameter returnType, @NonNull MediaType contentType,
+                                  @NonNull Class<? extends HttpMessageConverter<?>> converterType,
+                                  @NonNull ServerHttpRequest request, @NonNull ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            Object source = servletRequest.getServletRequest().getAttribute(PlanSource.SOURCE_ATTRIBUTE);
+            if (source != null) {
+                response.getHeaders().set(SOURCE_HEADER, source.toString());
+                Object reason = servletRequest.getServletRequest().getAttribute(PlanSource.REASON_ATTRIBUTE);
+                if (reason != null) response.getHeaders().set(REASON_HEADER, reason.toString());
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,13 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Background jobs: plan cache snapshot writer, weekly analytics rebuild and (when enabled) the
+ * plan precompute job.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,9 +2,13 @@ package com.djcode.fitness.fitnessapp.config;
 
 import com.djcode.fitness.fitnessapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
@@ -18,25 +22,54 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.DefaultSecurityFilterChain;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.HeaderWriterFilter;
+import org.springframework.security.web.header.writers.XContentTypeOptionsHeaderWriter;
+import org.springframework.security.web.header.writers.frameoptions.XFrameOptionsHeaderWriter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+import org.springframework.web.filter.CorsFilter;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
 
 @Configuration
 @EnableWebSecurity
+@ServletStack
 @RequiredArgsConstructor
 public class SecurityConfig {
 
+    /** Paths served without authentication work: health checks, the SPA and its assets, Swagger UI. */
+    static final List<String> PUBLIC_PATHS = List.of(
+            "/health",
+            "/", "/index.html", "/login", "/register", "/dashboard",
+            "/assets/**", "/*.svg", "/*.ico", "/*.png",
+            "/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**"
+    );
+
     private final @Lazy JwtAuthFilter jwtAuthFilter;
     private final UserRepository userRepository;
+    private final CorsConfiguration corsConfiguration = corsConfiguration();
 
+    // Public paths get a chain of their own: CORS and the nosniff/frame headers, no security context or authorization
     @Bean
+    @Order(0)
+    public SecurityFilterChain publicFilterChain() {
+        return new DefaultSecurityFilterChain(
+                new PathPrefixMatcher(PUBLIC_PATHS),
+                new CorsFilter(corsConfigurationSource()),
+                new HeaderWriterFilter(List.of(
+                        new XContentTypeOptionsHeaderWriter(),
+                        new XFrameOptionsHeaderWriter(XFrameOptionsHeaderWriter.XFrameOptionsMode.DENY))));
+    }
+
+    @Bean
+    @Order(1)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable)
@@ -44,13 +77,7 @@ public class SecurityConfig {
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // allow preflight
-                        .requestMatchers(
-                                "/api/auth/**",
-                                "/health",
-                                "/swagger-ui/**", "/swagger-ui.html", "/v3/api-docs/**", "/api-docs/**",
-                                "/", "/index.html", "/assets/**", "/vite.svg",
-                                "/login", "/register", "/dashboard"
-                        ).permitAll()
+                        .requestMatchers("/api/auth/**").permitAll()
                         .anyRequest().authenticated()
                 )
                 .authenticationProvider(authenticationProvider())
@@ -59,10 +86,36 @@ public class SecurityConfig {
         return http.build();
     }
 
-    // Global CORS configuration (covers all endpoints) instead of relying only on @CrossOrigin
+    // Global CORS configuration (covers all endpoints); controllers carry no @CrossOrigin of their own
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration config = new CorsConfiguration();
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration);
+        return source;
+    }
+
+    // JwtAuthFilter runs inside the security chain only; without this Boot also registers it for every request
+    @Bean
+    public FilterRegistrationBean<JwtAuthFilter> jwtAuthFilterRegistration(JwtAuthFilter filter) {
+        FilterRegistrationBean<JwtAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
+    // Preflights are answered right after the request observation filter, ahead of Spring Security
+    @Bean
+    public FilterRegistrationBean<CorsPreflightFilter> corsPreflightFilter() {
+        FilterRegistrationBean<CorsPreflightFilter> registration =
+                new FilterRegistrationBean<>(new CorsPreflightFilter(corsConfiguration));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Allowed origins (ALLOWED_ORIGINS or the local dev servers), methods and headers; shared with the reactive stack.
+     * Preflights are cached for a day (browsers cap this lower: Chromium at 2 hours, Firefox at 24).
+     */
+    public static CorsConfiguration corsConfiguration() {
 
         String envOrigins = System.getenv("ALLOWED_ORIGINS"); // comma-separated list
         List<String> defaultOrigins = List.of(
@@ -85,16 +138,16 @@ public class SecurityConfig {
         } else {
             combined = defaultOrigins;
         }
-        config.setAllowedOriginPatterns(combined);
+        CorsConfiguration config = new ExactOriginCorsConfiguration(combined);
         config.addAllowedMethod("*");
         config.addAllowedHeader("*");
         config.addExposedHeader("Authorization");
+        config.addExposedHeader(PlanSourceHeaderAdvice.SOURCE_HEADER);
+        config.addExposedHeader(PlanSourceHeaderAdvice.REASON_HEADER);
+        config.addExposedHeader(HttpHeaders.ETAG);
         config.setAllowCredentials(true);
-        config.setMaxAge(3600L);
-
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", config);
-        return source;
+        config.setMaxAge(Duration.ofDays(1));
+        return config;
     }
 
     @Bean
@@ -109,7 +162,7 @@ public class SecurityConfig {
 
     @Bean
     public UserDetailsService userDetailsService() {
-        return username -> userRepository.findByEmail(username)
+        return username -> userRepository.findAuthByEmail(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
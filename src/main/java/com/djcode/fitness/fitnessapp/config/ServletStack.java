@@ -0,0 +1,17 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a component that belongs to the servlet (Spring MVC) web stack: controllers, servlet
+ * filters, MVC advice and security. In the reactive build ({@code -Preactive}) the application
+ * runs on WebFlux and these are replaced by their reactive counterparts.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public @interface ServletStack {
+}
@@ -0,0 +1,77 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.service.ContentHash;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * The SPA's index.html, read once and kept in memory together with its gzipped form. It is
+ * revalidated on every load (no-cache + ETag), so a deploy is picked up immediately, while the
+ * hashed assets it references are cached for good (see {@link WebMvcConfig}).
+ */
+@Component
+@ServletStack
+public class SpaIndex {
+
+    private static final MediaType HTML_UTF8 = MediaType.parseMediaType("text/html;charset=UTF-8");
+
+    private final Resource resource;
+    private final long minGzipSize;
+    private final int gzipLevel;
+    private volatile Content content;
+
+    /** identity and gzip bodies (gzip null when too small to be worth it); null bodies if there is no index.html. */
+    private record Content(byte[] identity, byte[] gzip, String hash) {}
+
+    public SpaIndex(@Value("classpath:/static/index.html") Resource resource,
+                    @Value("${server.compression.min-response-size:2KB}") DataSize minGzipSize,
+                    @Value("${app.compression.level:6}") int gzipLevel) {
+        this.resource = resource;
+        this.minGzipSize = minGzipSize.toBytes();
+        this.gzipLevel = gzipLevel;
+    }
+
+    public ResponseEntity<byte[]> response(HttpServletRequest request) {
+        Content index = content();
+        if (index.identity() == null) return ResponseEntity.notFound().build();
+        ResponseEntity<byte[]> notModified = EntityTagResponses.notModified(request, index.hash(), CacheControl.noCache());
+        if (notModified != null) return notModified;
+        if (index.gzip() != null && EntityTagResponses.acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING))) {
+            return EntityTagResponses.ok(HTML_UTF8, CacheControl.noCache(), index.gzip(), index.hash(), true);
+        }
+        return EntityTagResponses.ok(HTML_UTF8, CacheControl.noCache(), index.identity(), index.hash(), false);
+    }
+
+    private Content content() {
+        Content loaded = content;
+        if (loaded == null) {
+            synchronized (this) {
+                if (content == null) content = load();
+                loaded = content;
+            }
+        }
+        return loaded;
+    }
+
+    private Content load() {
+        if (!resource.exists()) return new Content(null, null, null);
+        try (InputStream in = resource.getInputStream()) {
+            byte[] identity = in.readAllBytes();
+            byte[] gzip = identity.length >= minGzipSize ? EntityTagResponses.gzip(identity, gzipLevel) : null;
+            return new Content(identity, gzip, ContentHash.of(identity));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read " + resource, ex);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.controller.DietController;
+import com.djcode.fitness.fitnessapp.controller.RunningPlanController;
+import com.djcode.fitness.fitnessapp.controller.WorkoutController;
+import com.djcode.fitness.fitnessapp.controller.YogaController;
+import com.djcode.fitness.fitnessapp.dto.DietRequest;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.YogaPlanRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Warm-up phase run before the app reports ready: pre-opens the pooled Gemini connection and
+ * pushes synthetic requests through controller -> AIService -> JSON decode -> Jackson
+ * serialization against canned Gemini answers, so the first real /generate call finds TLS,
+ * serializers and JIT-compiled code already in place. /health answers 503 until it finishes.
+ */
+@Component
+@ServletStack
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    // As many items as PlanResponseRepair requires, so warm-up exercises the normal path, not the top-up
+    private static final String CANNED_WORKOUT = """
+            {"exercises":[{"name":"Push-ups","sets":"3","reps":"10-12","description":"Warm-up"},\
+            {"name":"Incline Push-ups","sets":"3","reps":"12","description":"Warm-up"},\
+            {"name":"Chest Dips","sets":"3","reps":"8","description":"Warm-up"},\
+            {"name":"Plank","sets":"3","reps":"30 sec","description":"Warm-up"}]}""";
+    private static final String CANNED_DIET = """
+            {"meals":[{"name":"Oatmeal","ingredients":"Oats, berries","calories":"450","description":"Warm-up"},\
+            {"name":"Chicken Salad","ingredients":"Greens, chicken","calories":"600","description":"Warm-up"},\
+            {"name":"Salmon and Rice","ingredients":"Salmon, rice, broccoli","calories":"700","description":"Warm-up"},\
+            {"name":"Apple","ingredients":"Apple","calories":"250","description":"Warm-up"}]}""";
+    private static final String CANNED_YOGA = """
+            {"poses":[{"name":"Mountain Pose","hold":"60 sec","description":"Warm-up"},\
+            {"name":"Cat-Cow","hold":"60 sec","description":"Warm-up"},\
+            {"name":"Downward Dog","hold":"60 sec","description":"Warm-up"},\
+            {"name":"Child's Pose","hold":"90 sec","description":"Warm-up"},\
+            {"name":"Legs Up the Wall","hold":"2 min","description":"Warm-up"},\
+            {"name":"Savasana","hold":"2 min","description":"Warm-up"}]}""";
+    private static final String CANNED_RUNNING = """
+            {"weeks":[{"weekNumber":1,"sessions":[{"day":"Mon","type":"Rest","distance":"-","notes":"Warm-up"},{"day":"Tue","type":"Easy Run","distance":"3 km","notes":"Warm-up"}]}]}""";
+
+    private final ObjectProvider<WorkoutController> workoutController;
+    private final ObjectProvider<DietController> dietController;
+    private final ObjectProvider<YogaController> yogaController;
+    private final ObjectProvider<RunningPlanController> runningPlanController;
+    private final ObjectProvider<GeminiClient> geminiClient;
+    private final JsonCodecs jsonCodecs;
+
+    @Value("${app.warmup.iterations:50}")
+    private int iterations;
+
+    @Value("${app.warmup.preconnect:true}")
+    private boolean preconnect;
+
+    public WarmupRunner(ObjectProvider<WorkoutController> workoutController,
+                        ObjectProvider<DietController> dietController,
+                        ObjectProvider<YogaController> yogaController,
+                        ObjectProvider<RunningPlanController> runningPlanController,
+                        ObjectProvider<GeminiClient> geminiClient,
+                        JsonCodecs jsonCodecs) {
+        this.workoutController = workoutController;
+        this.dietController = dietController;
+        this.yogaController = yogaController;
+        this.runningPlanController = runningPlanController;
+        this.geminiClient = geminiClient;
+        this.jsonCodecs = jsonCodecs;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.REFUSING_TRAFFIC);
+        long start = System.nanoTime();
+
+        boolean connected = preconnect && geminiClient.getObject().preconnect();
+
+        WorkoutRequest workout = new WorkoutRequest("chest", 30, "beginner");
+        DietRequest diet = new DietRequest("balanced", "maintenance", 2000, "none");
+        YogaPlanRequest yoga = new YogaPlanRequest("Stress Relief", 20);
+        RunningPlanRequest running = new RunningPlanRequest("Run a 5k", "1 weeks", "beginner");
+        // No user: the warm-up plans are not saved to anyone's history
+        int failures = 0;
+        for (int i = 0; i < iterations; i++) {
+            failures += run(CANNED_WORKOUT, () -> workoutController.getObject().generateWorkout(null, workout));
+            failures += run(CANNED_DIET, () -> dietController.getObject().generateDiet(null, diet));
+            failures += run(CANNED_YOGA, () -> yogaController.getObject().generateYoga(yoga));
+            failures += run(CANNED_RUNNING, () -> runningPlanController.getObject().generateRunningPlan(null, running));
+        }
+
+        log.info("Warm-up finished in {} ms ({} iterations, preconnect={}, failures={})",
+                (System.nanoTime() - start) / 1_000_000, iterations, connected, failures);
+        AvailabilityChangeEvent.publish(event.getApplicationContext(), ReadinessState.ACCEPTING_TRAFFIC);
+    }
+
+    private int run(String canned, Supplier<ResponseEntity<?>> call) {
+        try {
+            ResponseEntity<?> response = GeminiClient.withCannedResponse(canned, call);
+            jsonCodecs.write(response.getBody());
+            return 0;
+        } catch (Exception ex) {
+            log.debug("Warm-up call failed: {}", ex.getMessage());
+            return 1;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.time.Duration;
+
+@Configuration
+@ServletStack
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.warmup.enabled:false}")
+    private boolean warmupEnabled;
+
+    @Value("${app.static.assets-max-age:365d}")
+    private Duration assetsMaxAge;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new GenerateMetricsInterceptor(meterRegistry, warmupEnabled))
+                .addPathPatterns("/api/*/generate", "/api/*/revise", "/api/plans/batch");
+    }
+
+    /**
+     * SPA static files. The build content-hashes every file name under /assets, so those are
+     * immutable and cached for a year. The other root files (vite.svg etc.) are revalidated on
+     * use and can also be fetched under a content-versioned name, e.g. /vite-&lt;md5&gt;.svg. Both chains serve a precompressed .br/.gz sibling when the build ships one and
+     * the client accepts it, and cache the lookups in memory, so a file is neither searched for
+     * nor compressed again per request. index.html is served by {@link SpaIndex}.
+     */
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        registry.addResourceHandler("/assets/**")
+                .addResourceLocations("classpath:/static/assets/")
+                .setCacheControl(CacheControl.maxAge(assetsMaxAge).cachePublic().immutable())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver());
+        registry.addResourceHandler("/**")
+                .addResourceLocations("classpath:/static/")
+                .setCacheControl(CacheControl.noCache())
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.EntityTagResponses;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
+import com.djcode.fitness.fitnessapp.dto.WeeklyAnalyticsResponse;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+@RestController
+@ServletStack
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@DeferredInit
+@Tag(name = "Training Analytics", description = "Weekly training load over the user's saved plans")
+public class AnalyticsController {
+
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+    private final EntityTagResponses entityTagResponses;
+
+    @GetMapping("/weekly")
+    @Operation(
+            summary = "Weekly training load",
+            description = """
+                    Total running km, calories and sets per muscle for one week (Monday to Sunday, UTC), summed over
+                    the plans the user generated. Week N of a running plan counts towards the N-th week after it was generated.
+                    Totals are kept up to date as plans are saved, so this is a single lookup.
+                    Responses carry an ETag; a matching If-None-Match gets 304 Not Modified.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Totals of the week; all zero if no plan touches it",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = WeeklyAnalyticsResponse.class)
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - JWT token required",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<byte[]> weekly(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @Parameter(description = "Any day of the week to report; defaults to the current week", example = "2026-10-12")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate week,
+            HttpServletRequest request) {
+        LocalDate day = week != null ? week : LocalDate.now(ZoneOffset.UTC);
+        return entityTagResponses.json(request, weeklyAnalyticsService.weekly(user.id(), day));
+    }
+}
@@ -1,5 +1,6 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.AuthRequest;
 import com.djcode.fitness.fitnessapp.dto.AuthResponse;
 import com.djcode.fitness.fitnessapp.dto.RegisterRequest;
@@ -16,9 +17,9 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ServletStack
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
 @Tag(name = "Authentication", description = "User authentication and registration endpoints")
 public class AuthController {
 
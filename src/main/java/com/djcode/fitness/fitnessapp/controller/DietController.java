@@ -1,9 +1,17 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.DietRequest;
 import com.djcode.fitness.fitnessapp.dto.DietResponse;
+import com.djcode.fitness.fitnessapp.dto.DietRevisionRequest;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
 import com.djcode.fitness.fitnessapp.service.AIService;
+import com.djcode.fitness.fitnessapp.service.PlanRevisionService;
+import com.djcode.fitness.fitnessapp.service.PlanSource;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,16 +20,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ServletStack
 @RequestMapping("/api/diet")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@DeferredInit
 @Tag(name = "AI Diet Planner", description = "Generate personalized diet plans using AI")
 public class DietController {
 
     private final AIService aiService;
+    private final PlanRevisionService planRevisionService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
 
     @PostMapping("/generate")
     @Operation(
@@ -96,6 +108,7 @@ public class DietController {
             )
     })
     public ResponseEntity<DietResponse> generateDiet(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Diet plan generation parameters",
                     required = true,
@@ -119,6 +132,50 @@ public class DietController {
             )
             @RequestBody DietRequest request) {
         DietResponse response = aiService.generateDiet(request);
+        weeklyAnalyticsService.recordDiet(user == null ? null : user.id(), response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/revise")
+    @Operation(
+            summary = "Revise a diet plan after a parameter change",
+            description = """
+                    Takes a previously generated diet plan with its parameters and the new parameters (e.g. a new allergy).
+                    Only the parts affected by the changed parameters are regenerated; the rest of the previous plan is kept.
+                    X-Plan-Source is "unchanged" when no parameter changed.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Plan revised successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = DietResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<DietResponse> revise(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Previous parameters and plan plus the new parameters",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = DietRevisionRequest.class),
+                            examples = @ExampleObject(
+                                    name = "New allergy",
+                                    value = """
+                                            {"previousRequest": {"dietaryPreference": "balanced", "fitnessGoal": "maintenance", "dailyCalories": 2000, "allergies": "none"}, "previousPlan": {"meals": [{"name": "Peanut butter toast", "ingredients": "Bread, peanut butter", "calories": "350", "description": "Breakfast"}]}, "request": {"dietaryPreference": "balanced", "fitnessGoal": "maintenance", "dailyCalories": 2000, "allergies": "peanuts"}}
+                                            """
+                            )
+                    )
+            )
+            @RequestBody DietRevisionRequest request) {
+        DietResponse response = planRevisionService.reviseDiet(request);
+        // An unchanged plan is the one already recorded when it was generated
+        if (!PlanSource.UNCHANGED.equals(PlanSource.recorded())) {
+            weeklyAnalyticsService.recordDiet(user == null ? null : user.id(), response);
+        }
         return ResponseEntity.ok(response);
     }
 }
@@ -1,5 +1,9 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -8,14 +12,23 @@ import java.time.Instant;
 import java.util.Map;
 
 @RestController
+@RequiredArgsConstructor
 public class HealthController {
 
+    private final ApplicationAvailability availability;
+
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
+        // 503 while warm-up is still running so the platform keeps routing to the old instance
+        if (availability.getReadinessState() != ReadinessState.ACCEPTING_TRAFFIC) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of(
+                    "status", "WARMING_UP",
+                    "timestamp", Instant.now().toString()
+            ));
+        }
         return ResponseEntity.ok(Map.of(
                 "status", "UP",
                 "timestamp", Instant.now().toString()
         ));
     }
 }
-
@@ -0,0 +1,89 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
+import com.djcode.fitness.fitnessapp.dto.BatchPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.BatchPlanResponse;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.PlanBatchService;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ServletStack
+@RequestMapping("/api/plans")
+@RequiredArgsConstructor
+@DeferredInit
+@Tag(name = "AI Plan Batch", description = "Generate several plans in one request")
+public class PlanBatchController {
+
+    private final PlanBatchService planBatchService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Generate several AI plans at once",
+            description = """
+                    Generate any combination of workout, diet, yoga and running plans in one round trip.
+                    - When the plans fit one Gemini response they are requested together in a single call
+                    - Otherwise they are generated in parallel
+                    
+                    Each plan falls back to the local generator on its own; `sources` reports "gemini" or "local" per plan.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Plans generated successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = BatchPlanResponse.class)
+                    )
+            ),
+            @ApiResponse(
+                    responseCode = "400",
+                    description = "No plan requested",
+                    content = @Content(mediaType = "application/json")
+            ),
+            @ApiResponse(
+                    responseCode = "401",
+                    description = "Unauthorized - JWT token required",
+                    content = @Content(mediaType = "application/json")
+            )
+    })
+    public ResponseEntity<BatchPlanResponse> generateBatch(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Plan requests; omit the ones not needed",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = BatchPlanRequest.class),
+                            examples = @ExampleObject(
+                                    name = "Onboarding",
+                                    value = """
+                                            {
+                                                "workout": {"targetMuscle": "full body", "durationInMinutes": 30, "fitnessLevel": "beginner"},
+                                                "diet": {"dietaryPreference": "vegetarian", "fitnessGoal": "weight loss", "dailyCalories": 1800, "allergies": "none"},
+                                                "yoga": {"goal": "Flexibility", "durationInMinutes": 20}
+                                            }
+                                            """
+                            )
+                    )
+            )
+            @RequestBody BatchPlanRequest request) {
+        BatchPlanResponse response = planBatchService.generate(request);
+        weeklyAnalyticsService.recordBatch(user == null ? null : user.id(), request, response);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,91 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.EntityTagResponses;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
+import com.djcode.fitness.fitnessapp.dto.PlanHistoryEntry;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.PlanHistoryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@ServletStack
+@RequestMapping("/api/plans")
+@RequiredArgsConstructor
+@DeferredInit
+@Tag(name = "Plan History", description = "Plans previously generated by the user")
+public class PlanHistoryController {
+
+    private final PlanHistoryService planHistoryService;
+    private final EntityTagResponses entityTagResponses;
+
+    @GetMapping
+    @Operation(
+            summary = "List saved plans",
+            description = """
+                    The user's generated plans, newest first, without their content. Pass the last id as `before` for the next page.
+                    Responses carry an ETag; send it back as If-None-Match to get 304 Not Modified while the page is unchanged.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "One page of the history",
+                    content = @Content(
+                            mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = PlanHistoryEntry.class))
+                    )
+            ),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match")
+    })
+    public ResponseEntity<byte[]> history(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @Parameter(description = "Id of the last plan of the previous page")
+            @RequestParam(required = false) String before,
+            @Parameter(description = "Page size, at most 100", example = "20")
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest request) {
+        return entityTagResponses.json(request, planHistoryService.history(user.id(), before, limit));
+    }
+
+    @GetMapping("/{id}")
+    @Operation(
+            summary = "Fetch a saved plan",
+            description = """
+                    The plan as it was returned when generated (workout, diet or running plan JSON).
+                    The ETag is the hash of the plan content; with a matching If-None-Match the answer is 304 and the plan is not read.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "The plan", content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "304", description = "Unchanged since the ETag in If-None-Match"),
+            @ApiResponse(responseCode = "404", description = "No such plan for this user")
+    })
+    public ResponseEntity<byte[]> plan(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @Parameter(description = "Plan id from the history", example = "6718a2c95f1b2a3d4e5f6a7b")
+            @PathVariable String id,
+            HttpServletRequest request) {
+        // Revalidation looks at the stored hash only
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            ResponseEntity<byte[]> notModified = EntityTagResponses.notModified(request, planHistoryService.contentHash(user.id(), id));
+            if (notModified != null) return notModified;
+        }
+        return planHistoryService.plan(user.id(), id)
+                .map(plan -> entityTagResponses.json(request, plan.json(), plan.contentHash()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
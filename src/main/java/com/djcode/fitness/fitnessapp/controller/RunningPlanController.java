@@ -1,9 +1,17 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
 import com.djcode.fitness.fitnessapp.dto.RunningPlanResponse;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRevisionRequest;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
 import com.djcode.fitness.fitnessapp.service.AIService;
+import com.djcode.fitness.fitnessapp.service.PlanRevisionService;
+import com.djcode.fitness.fitnessapp.service.PlanSource;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,16 +20,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ServletStack
 @RequestMapping("/api/running")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@DeferredInit
 @Tag(name = "AI Running Plan", description = "Generate structured multi-week running training plans using AI")
 public class RunningPlanController {
 
     private final AIService aiService;
+    private final PlanRevisionService planRevisionService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
 
     @PostMapping("/generate")
     @Operation(
@@ -47,6 +59,7 @@ public class RunningPlanController {
             )
     })
     public ResponseEntity<RunningPlanResponse> generateRunningPlan(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Running plan generation parameters",
                     required = true,
@@ -65,7 +78,51 @@ public class RunningPlanController {
                     )
             )
             @RequestBody RunningPlanRequest request) {
-        return ResponseEntity.ok(aiService.generateRunningPlan(request));
+        RunningPlanResponse response = aiService.generateRunningPlan(request);
+        weeklyAnalyticsService.recordRunning(user == null ? null : user.id(), response);
+        return ResponseEntity.ok(response);
     }
-}
 
+    @PostMapping("/revise")
+    @Operation(
+            summary = "Revise a running plan after a parameter change",
+            description = """
+                    Takes a previously generated running plan with its parameters and a new timeframe; a new goal or level regenerates the plan.
+                    Only the parts affected by the changed parameters are regenerated; the rest of the previous plan is kept.
+                    X-Plan-Source is "unchanged" when no parameter changed.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Plan revised successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = RunningPlanResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<RunningPlanResponse> revise(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Previous parameters and plan plus the new parameters",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = RunningPlanRevisionRequest.class),
+                            examples = @ExampleObject(
+                                    name = "Longer timeframe",
+                                    value = """
+                                            {"previousRequest": {"goal": "Run a 5k", "timeframe": "6 weeks", "fitnessLevel": "beginner"}, "previousPlan": {"weeks": [{"weekNumber": 1, "sessions": [{"day": "Mon", "type": "Rest", "distance": "-", "notes": "Recovery"}]}]}, "request": {"goal": "Run a 5k", "timeframe": "8 weeks", "fitnessLevel": "beginner"}}
+                                            """
+                            )
+                    )
+            )
+            @RequestBody RunningPlanRevisionRequest request) {
+        RunningPlanResponse response = planRevisionService.reviseRunningPlan(request);
+        // An unchanged plan is the one already recorded when it was generated
+        if (!PlanSource.UNCHANGED.equals(PlanSource.recorded())) {
+            weeklyAnalyticsService.recordRunning(user == null ? null : user.id(), response);
+        }
+        return ResponseEntity.ok(response);
+    }
+}
@@ -1,19 +1,27 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.ServletStack;
+import com.djcode.fitness.fitnessapp.config.SpaIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 
 /**
  * Serves the single-page application index.html for non-API routes so that
  * client-side routing (React Router) works when the user refreshes or deep-links.
  */
 @Controller
+@ServletStack
+@RequiredArgsConstructor
 public class SpaController {
 
-    @RequestMapping({"/", "/login", "/register", "/dashboard"})
-    public String forwardToIndex() {
-        // Forward (not redirect) so /index.html static resource is served
-        return "forward:/index.html";
+    private final SpaIndex spaIndex;
+
+    @GetMapping({"/", "/index.html", "/login", "/register", "/dashboard"})
+    public ResponseEntity<byte[]> index(HttpServletRequest request) {
+        // From memory rather than a forward to the static resource, which re-reads the file
+        return spaIndex.response(request);
     }
 }
-
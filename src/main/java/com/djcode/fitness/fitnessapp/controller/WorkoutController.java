@@ -1,9 +1,17 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
 import com.djcode.fitness.fitnessapp.dto.WorkoutResponse;
+import com.djcode.fitness.fitnessapp.dto.WorkoutRevisionRequest;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
 import com.djcode.fitness.fitnessapp.service.AIService;
+import com.djcode.fitness.fitnessapp.service.PlanRevisionService;
+import com.djcode.fitness.fitnessapp.service.PlanSource;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -12,16 +20,20 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ServletStack
 @RequestMapping("/api/workout")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@DeferredInit
 @Tag(name = "AI Workout Generator", description = "Generate personalized workout routines using AI")
 public class WorkoutController {
 
     private final AIService aiService;
+    private final PlanRevisionService planRevisionService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
 
     @PostMapping("/generate")
     @Operation(
@@ -89,6 +101,7 @@ public class WorkoutController {
             )
     })
     public ResponseEntity<WorkoutResponse> generateWorkout(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
                     description = "Workout generation parameters",
                     required = true,
@@ -112,6 +125,50 @@ public class WorkoutController {
             )
             @RequestBody WorkoutRequest request) {
         WorkoutResponse response = aiService.generateWorkout(request);
+        weeklyAnalyticsService.recordWorkout(user == null ? null : user.id(), request, response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/revise")
+    @Operation(
+            summary = "Revise a workout after a parameter change",
+            description = """
+                    Takes a previously generated workout with its parameters and the new parameters (e.g. 45 instead of 30 minutes).
+                    Only the parts affected by the changed parameters are regenerated; the rest of the previous plan is kept.
+                    X-Plan-Source is "unchanged" when no parameter changed.
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Plan revised successfully",
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = WorkoutResponse.class)
+                    )
+            )
+    })
+    public ResponseEntity<WorkoutResponse> revise(
+            @Parameter(hidden = true) @AuthenticationPrincipal AuthUser user,
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(
+                    description = "Previous parameters and plan plus the new parameters",
+                    required = true,
+                    content = @Content(
+                            schema = @Schema(implementation = WorkoutRevisionRequest.class),
+                            examples = @ExampleObject(
+                                    name = "Longer workout",
+                                    value = """
+                                            {"previousRequest": {"targetMuscle": "chest", "durationInMinutes": 30, "fitnessLevel": "beginner"}, "previousPlan": {"exercises": [{"name": "Push-ups", "sets": "3", "reps": "10-12", "description": "Chest and triceps"}]}, "request": {"targetMuscle": "chest", "durationInMinutes": 45, "fitnessLevel": "beginner"}}
+                                            """
+                            )
+                    )
+            )
+            @RequestBody WorkoutRevisionRequest request) {
+        WorkoutResponse response = planRevisionService.reviseWorkout(request);
+        // An unchanged plan is the one already recorded when it was generated
+        if (!PlanSource.UNCHANGED.equals(PlanSource.recorded())) {
+            weeklyAnalyticsService.recordWorkout(user == null ? null : user.id(), request.request(), response);
+        }
         return ResponseEntity.ok(response);
     }
 }
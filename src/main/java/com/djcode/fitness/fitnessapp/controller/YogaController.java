@@ -1,5 +1,7 @@
 package com.djcode.fitness.fitnessapp.controller;
 
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.YogaPlanRequest;
 import com.djcode.fitness.fitnessapp.dto.YogaPlanResponse;
 import com.djcode.fitness.fitnessapp.service.AIService;
@@ -15,9 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@ServletStack
 @RequestMapping("/api/yoga")
 @RequiredArgsConstructor
-@CrossOrigin(origins = "*")
+@DeferredInit
 @Tag(name = "AI Yoga Plan", description = "Generate guided yoga session flows using AI")
 public class YogaController {
 
@@ -0,0 +1,11 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+/**
+ * DTO for batch plan generation; any subset of the plan requests may be present
+ */
+public record BatchPlanRequest(
+        WorkoutRequest workout,
+        DietRequest diet,
+        YogaPlanRequest yoga,
+        RunningPlanRequest running
+) {}
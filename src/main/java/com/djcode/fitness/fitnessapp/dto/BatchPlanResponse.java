@@ -0,0 +1,16 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+import java.util.Map;
+
+/**
+ * DTO for batch plan generation responses. Only requested plans are set; {@code sources} maps each
+ * returned section to "gemini" or "local" and {@code fallbackReasons} explains the local ones.
+ */
+public record BatchPlanResponse(
+        WorkoutResponse workout,
+        DietResponse diet,
+        YogaPlanResponse yoga,
+        RunningPlanResponse running,
+        Map<String, String> sources,
+        Map<String, String> fallbackReasons
+) {}
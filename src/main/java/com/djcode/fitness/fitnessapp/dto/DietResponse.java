@@ -7,4 +7,15 @@ import java.util.List;
  */
 public record DietResponse(
         List<Meal> meals
-) {}
+) {
+    /** Sum of the meals' calories. */
+    public int totalKcal() {
+        int total = 0;
+        if (meals != null) {
+            for (Meal m : meals) {
+                if (m != null) total += m.kcal();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,10 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+/**
+ * DTO for revising a diet plan: the plan the user has, the parameters it was generated from and the new parameters
+ */
+public record DietRevisionRequest(
+        DietRequest previousRequest,
+        DietResponse previousPlan,
+        DietRequest request
+) {}
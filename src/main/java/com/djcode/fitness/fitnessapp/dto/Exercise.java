@@ -1,11 +1,27 @@
 package com.djcode.fitness.fitnessapp.dto;
 
+import io.swagger.v3.oas.annotations.media.Schema;
+
 /**
- * DTO representing an individual exercise
+ * DTO representing an individual exercise. The numeric fields are derived from {@code sets} and
+ * {@code reps} on construction (see {@link PlanNumbers}); values passed in for them are ignored.
  */
 public record Exercise(
         String name,
         String sets,
         String reps,
-        String description
-) {}
+        String description,
+        @Schema(description = "Sets as a number, 0 if not numeric", accessMode = Schema.AccessMode.READ_ONLY) int setCount,
+        @Schema(description = "Lower rep bound, 0 for timed or non-numeric reps", accessMode = Schema.AccessMode.READ_ONLY) int repsMin,
+        @Schema(description = "Upper rep bound, 0 for timed or non-numeric reps", accessMode = Schema.AccessMode.READ_ONLY) int repsMax
+) {
+    public Exercise {
+        setCount = PlanNumbers.firstInt(sets);
+        repsMin = PlanNumbers.repsMin(reps);
+        repsMax = PlanNumbers.repsMax(reps);
+    }
+
+    public Exercise(String name, String sets, String reps, String description) {
+        this(name, sets, reps, description, 0, 0, 0);
+    }
+}
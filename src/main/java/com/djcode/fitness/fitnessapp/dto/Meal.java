@@ -1,11 +1,23 @@
 package com.djcode.fitness.fitnessapp.dto;
 
+import io.swagger.v3.oas.annotations.media.Schema;
+
 /**
- * DTO representing a meal in a diet plan
+ * DTO representing a meal in a diet plan. {@code kcal} is derived from {@code calories} on
+ * construction (see {@link PlanNumbers}); a value passed in for it is ignored.
  */
 public record Meal(
         String name,
         String ingredients,
         String calories,
-        String description
-) {}
+        String description,
+        @Schema(description = "Calories as a number, 0 if not numeric", accessMode = Schema.AccessMode.READ_ONLY) int kcal
+) {
+    public Meal {
+        kcal = PlanNumbers.kcal(calories);
+    }
+
+    public Meal(String name, String ingredients, String calories, String description) {
+        this(name, ingredients, calories, description, 0);
+    }
+}
@@ -0,0 +1,15 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+/** A saved plan without its content; also the projection read to answer If-None-Match. */
+@Schema(description = "A plan saved for the user, without its content")
+public record PlanHistoryEntry(
+        @Schema(description = "Plan id, for GET /api/plans/{id}", example = "6718a2c95f1b2a3d4e5f6a7b") String id,
+        @Schema(description = "workout, diet or running", example = "running") String type,
+        @Schema(description = "Target muscle of a workout", example = "chest") String targetMuscle,
+        @Schema(description = "When the plan was generated", example = "2026-10-12T07:30:00Z") Instant createdAt,
+        @Schema(description = "Hash of the plan content; the plan's ETag", example = "q2mN3b0YxJ7b9wq1V5w6Zg") String contentHash
+) {}
@@ -0,0 +1,115 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-form quantity strings of plan items ("3", "10-12", "1,200 kcal", "5.5 km") into
+ * the numbers the DTO records carry alongside them. Unparseable input gives 0, never an exception.
+ */
+public final class PlanNumbers {
+
+    private static final int METERS_PER_MILE = 1609;
+    private static final Pattern TIMED = Pattern.compile("(?i)\\d\\s*(s|secs?|seconds?|mins?|minutes?)\\b");
+
+    private PlanNumbers() {}
+
+    /** First whole number in {@code text}, e.g. 3 for "3-4 sets"; 0 if none. */
+    public static int firstInt(String text) {
+        int[] n = ints(text, 1);
+        return n.length == 0 ? 0 : n[0];
+    }
+
+    /** Lower bound of a rep count ("10-12" -> 10, "12 each leg" -> 12); 0 for timed or non-numeric reps. */
+    public static int repsMin(String reps) {
+        if (timed(reps)) return 0;
+        int[] n = ints(reps, 2);
+        return n.length == 0 ? 0 : n[0];
+    }
+
+    /** Upper bound of a rep count ("10-12" -> 12, "12" -> 12); 0 for timed or non-numeric reps. */
+    public static int repsMax(String reps) {
+        if (timed(reps)) return 0;
+        int[] n = ints(reps, 2);
+        return n.length == 0 ? 0 : n[n.length - 1];
+    }
+
+    /** Calories as an int; a range such as "350-400" counts as its midpoint. */
+    public static int kcal(String calories) {
+        int[] n = ints(calories, 2);
+        if (n.length == 0) return 0;
+        return n.length == 1 ? n[0] : (n[0] + n[1]) / 2;
+    }
+
+    /** Distance in meters: "3 km" -> 3000, "1,500 m" -> 1500, "2 mi" -> 3218; bare numbers are km; 0 for "-" or times. */
+    public static int meters(String distance) {
+        if (distance == null) return 0;
+        String s = distance.trim().toLowerCase(Locale.ROOT);
+        int i = 0;
+        while (i < s.length() && !digit(s.charAt(i))) i++;
+        StringBuilder number = new StringBuilder();
+        for (; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (digit(c) || c == '.') number.append(c);
+            else if (c != ',' || !thousands(s, i)) break;
+        }
+        if (number.isEmpty()) return 0;
+        double value;
+        try {
+            value = Double.parseDouble(number.toString());
+        } catch (NumberFormatException ex) {
+            return 0;
+        }
+        String unit = s.substring(i).trim();
+        if (unit.startsWith("min") || unit.startsWith("h") || unit.startsWith("sec")) return 0;
+        double meters;
+        if (unit.startsWith("km") || unit.startsWith("kilo") || unit.isEmpty()) meters = value * 1000;
+        else if (unit.startsWith("mi")) meters = value * METERS_PER_MILE;
+        else if (unit.startsWith("m")) meters = value;
+        else meters = value * 1000;
+        return meters > Integer.MAX_VALUE ? 0 : (int) Math.round(meters);
+    }
+
+    /** Whether {@code text} is a duration such as "30 sec" or "2 min" rather than a count. */
+    public static boolean timed(String text) {
+        return text != null && TIMED.matcher(text).find();
+    }
+
+    /** Up to {@code max} whole numbers from {@code text}; thousands separators and fractions are dropped. */
+    private static int[] ints(String text, int max) {
+        if (text == null) return new int[0];
+        int[] out = new int[max];
+        int count = 0;
+        int i = 0, n = text.length();
+        while (i < n && count < max) {
+            if (!digit(text.charAt(i))) {
+                i++;
+                continue;
+            }
+            int value = 0;
+            for (; i < n; i++) {
+                char c = text.charAt(i);
+                if (digit(c)) value = Math.min(value * 10 + (c - '0'), 10_000_000);
+                else if (c != ',' || !thousands(text, i)) break;
+            }
+            if (i + 1 < n && text.charAt(i) == '.' && digit(text.charAt(i + 1))) {
+                i++;
+                while (i < n && digit(text.charAt(i))) i++;
+            }
+            out[count++] = value;
+        }
+        return count == max ? out : Arrays.copyOf(out, count);
+    }
+
+    /** The comma at {@code comma} is followed by exactly three digits, as in "1,200". */
+    private static boolean thousands(String text, int comma) {
+        int i = comma + 1;
+        while (i < text.length() && digit(text.charAt(i))) i++;
+        return i - comma - 1 == 3;
+    }
+
+    private static boolean digit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
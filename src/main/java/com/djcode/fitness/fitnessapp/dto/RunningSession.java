@@ -7,6 +7,15 @@ public record RunningSession(
         @Schema(example = "Mon") String day,
         @Schema(example = "Easy Run") String type,
         @Schema(example = "3 km") String distance,
-        @Schema(example = "Comfortable conversational pace") String notes
-) {}
+        @Schema(example = "Comfortable conversational pace") String notes,
+        @Schema(example = "3000", description = "Distance in meters, derived from distance; 0 for rest or timed sessions",
+                accessMode = Schema.AccessMode.READ_ONLY) int meters
+) {
+    public RunningSession {
+        meters = PlanNumbers.meters(distance);
+    }
 
+    public RunningSession(String day, String type, String distance, String notes) {
+        this(day, type, distance, notes, 0);
+    }
+}
@@ -7,5 +7,15 @@ import java.util.List;
 public record RunningWeek(
         @Schema(example = "1") int weekNumber,
         @Schema(description = "Sessions for the week") List<RunningSession> sessions
-) {}
-
+) {
+    /** Planned distance of the week in meters. */
+    public int totalMeters() {
+        int total = 0;
+        if (sessions != null) {
+            for (RunningSession s : sessions) {
+                if (s != null) total += s.meters();
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,15 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+@Schema(description = "Planned training load of one week, summed over the plans saved by the user")
+public record WeeklyAnalyticsResponse(
+        @Schema(description = "Monday of the week", example = "2026-10-12") LocalDate weekStart,
+        @Schema(description = "Running distance scheduled in this week", example = "24.5") double runningKm,
+        @Schema(description = "Calories of the diet plans saved this week", example = "4200") long kcal,
+        @Schema(description = "Sets of the workouts saved this week per target muscle", example = "{\"chest\": 18, \"legs\": 12}") Map<String, Long> setsByMuscle,
+        @Schema(description = "Number of plans saved this week", example = "4") int plans
+) {}
@@ -0,0 +1,10 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+/**
+ * DTO for revising a workout: the plan the user has, the parameters it was generated from and the new parameters
+ */
+public record WorkoutRevisionRequest(
+        WorkoutRequest previousRequest,
+        WorkoutResponse previousPlan,
+        WorkoutRequest request
+) {}
@@ -1,34 +0,0 @@
-package com.djcode.fitness.fitnessapp.entity;
-
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-@Entity
-@Table(name = "diet_meals")
-public class DietMeal {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "diet_plan_id")
-    private DietPlan dietPlan;
-
-    private String name;
-
-    @Column(length = 1000)
-    private String ingredients;
-
-    private String calories;
-
-    @Column(length = 1000)
-    private String description;
-}
@@ -0,0 +1,40 @@
+package com.djcode.fitness.fitnessapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A plan generated for a user, kept as raw history. The weekly analytics are derived from these
+ * records and can always be rebuilt from them.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "plans")
+// A user's history newest first; also serves lookups by user and id
+@CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': -1}")
+public class PlanRecord {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private String type; // workout, diet or running
+
+    private String targetMuscle; // workouts only
+
+    private Instant createdAt;
+
+    private String plan; // plan response as JSON
+
+    private String contentHash; // ContentHash of plan, its ETag; null for plans saved before it was added
+}
@@ -0,0 +1,45 @@
+package com.djcode.fitness.fitnessapp.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Training load of one user in one week (Monday to Sunday, UTC), maintained incrementally as
+ * plans are saved. The id is {@code <userId>|<weekStart>} so a read is a single key lookup.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Document(collection = "weekly_analytics")
+public class WeeklyAnalytics {
+
+    @Id
+    private String id;
+
+    private String userId;
+
+    private LocalDate weekStart;
+
+    private long runningMeters;
+
+    private long kcal;
+
+    private Map<String, Long> setsByMuscle;
+
+    private int plans;
+
+    private Instant updatedAt;
+
+    public static String id(String userId, LocalDate weekStart) {
+        return userId + "|" + weekStart;
+    }
+}
@@ -1,33 +0,0 @@
-package com.djcode.fitness.fitnessapp.entity;
-
-import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
-@Data
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-@Entity
-@Table(name = "workout_exercises")
-public class WorkoutExercise {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "workout_plan_id")
-    private WorkoutPlan workoutPlan;
-
-    private String name;
-
-    private String sets;
-
-    private String reps;
-
-    @Column(length = 1000)
-    private String description;
-}
@@ -0,0 +1,25 @@
+package com.djcode.fitness.fitnessapp.repository;
+
+import com.djcode.fitness.fitnessapp.dto.PlanHistoryEntry;
+import com.djcode.fitness.fitnessapp.entity.PlanRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PlanRecordRepository extends MongoRepository<PlanRecord, String> {
+    // Keyset paging over the whole history; the pageable carries the batch size and id sort
+    List<PlanRecord> findByIdGreaterThan(String id, Pageable pageable);
+
+    Optional<PlanRecord> findByIdAndUserId(String id, String userId);
+
+    // Projections: no plan content is read
+    Optional<PlanHistoryEntry> findEntryByIdAndUserId(String id, String userId);
+
+    List<PlanHistoryEntry> findByUserIdOrderByIdDesc(String userId, Pageable pageable);
+
+    List<PlanHistoryEntry> findByUserIdAndIdLessThanOrderByIdDesc(String userId, String id, Pageable pageable);
+}
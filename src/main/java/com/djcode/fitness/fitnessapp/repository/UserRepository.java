@@ -1,5 +1,6 @@
 package com.djcode.fitness.fitnessapp.repository;
 
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
 import com.djcode.fitness.fitnessapp.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
@@ -9,4 +10,10 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends MongoRepository<User, String> {
     Optional<User> findByEmail(String email);
+
+    // count with limit 1 on the unique email index: answered from the index, no document is read
+    boolean existsByEmail(String email);
+
+    // Projection: only _id, email, password and roles are returned
+    Optional<AuthUser> findAuthByEmail(String email);
 }
@@ -0,0 +1,9 @@
+package com.djcode.fitness.fitnessapp.repository;
+
+import com.djcode.fitness.fitnessapp.entity.WeeklyAnalytics;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface WeeklyAnalyticsRepository extends MongoRepository<WeeklyAnalytics, String> {
+}
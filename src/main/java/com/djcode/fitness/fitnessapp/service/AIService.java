@@ -1,116 +1,427 @@
 package com.djcode.fitness.fitnessapp.service;
 
 import com.djcode.fitness.fitnessapp.dto.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResult;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.config.GeminiSchemas;
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import org.slf4j.event.Level;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@DeferredInit
 public class AIService {
 
+    // Longest running plan generated; longer timeframes are planned as this many weeks
+    static final int MAX_WEEKS = 52;
+
     private final GeminiClient geminiClient;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FallbackPlanEngine fallbackPlanEngine;
+    private final GeminiAdmissionController admissionController;
+    private final ThreadPoolTaskExecutor planExecutor;
+    private final PrecomputedPlanCatalog precomputedCatalog;
+    private final PlanResponseCache planCache;
+    private final MeterRegistry meterRegistry;
+    private final PlanResponseRepair planRepair;
+    private final PayloadLog payloadLog;
+
+    // Running plans longer than this are generated as concurrent week-range chunks (0 disables)
+    @Value("${app.plans.running.chunk-weeks:4}")
+    private int runningChunkWeeks;
+
+    // maxOutputTokens per plan type (0 leaves it to the model); running plans scale with their weeks
+    @Value("${app.gemini.max-output-tokens.workout:1024}")
+    private int workoutMaxTokens;
+
+    @Value("${app.gemini.max-output-tokens.diet:1024}")
+    private int dietMaxTokens;
+
+    @Value("${app.gemini.max-output-tokens.yoga:1024}")
+    private int yogaMaxTokens;
+
+    @Value("${app.gemini.max-output-tokens.running-per-week:400}")
+    private int runningMaxTokensPerWeek;
+
+    @Value("${app.gemini.temperature:#{null}}")
+    private Double temperature;
 
     public WorkoutResponse generateWorkout(WorkoutRequest request) {
-        log.info("Generating workout for: targetMuscle={}, duration={}, fitnessLevel={}",
+        return PlanSource.record(generateWorkoutPlan(request));
+    }
+
+    public DietResponse generateDiet(DietRequest request) {
+        return PlanSource.record(generateDietPlan(request));
+    }
+
+    // NEW: Yoga Plan Generation
+    public YogaPlanResponse generateYogaPlan(YogaPlanRequest request) {
+        return PlanSource.record(generateYogaPlanWithSource(request));
+    }
+
+    // NEW: Running Plan Generation
+    public RunningPlanResponse generateRunningPlan(RunningPlanRequest request) {
+        return PlanSource.record(generateRunningPlanWithSource(request));
+    }
+
+    GeneratedPlan<WorkoutResponse> generateWorkoutPlan(WorkoutRequest request) {
+        GeneratedPlan<WorkoutResponse> reused = reusable(request);
+        return reused != null ? reused : keep(PlanResponseCache.key(request), generateFreshWorkoutPlan(request));
+    }
+
+    /** The precomputed or else cached workout for {@code request}, or null. */
+    GeneratedPlan<WorkoutResponse> reusable(WorkoutRequest request) {
+        // Warm-up traffic neither counts towards nor is served from the precomputed catalog
+        if (GeminiClient.isCannedResponseActive()) return null;
+        GeneratedPlan<WorkoutResponse> precomputed = precomputed(request);
+        return precomputed != null ? precomputed : fromCache(PlanResponseCache.key(request), WorkoutResponse.class);
+    }
+
+    /** The precomputed catalog's plan for {@code request}, or null. */
+    GeneratedPlan<WorkoutResponse> precomputed(WorkoutRequest request) {
+        WorkoutResponse precomputed = precomputedCatalog.lookup(request);
+        if (precomputed == null) return null;
+        log.info("Serving precomputed workout for {}", PrecomputedPlanCatalog.key(request));
+        return new GeneratedPlan<>(precomputed, PlanSource.PRECOMPUTED, null);
+    }
+
+    /** Asks Gemini (or the local fallback), bypassing the precomputed catalog. */
+    GeneratedPlan<WorkoutResponse> generateFreshWorkoutPlan(WorkoutRequest request) {
+        progress("Generating workout for: targetMuscle={}, duration={}, fitnessLevel={}",
                 request.targetMuscle(), request.durationInMinutes(), request.fitnessLevel());
 
         String prompt = buildWorkoutPrompt(request);
-        log.debug("Workout prompt: {}", prompt);
+        return workoutFrom(request, callGemini(prompt, "workout", workoutOutput()));
+    }
 
-        String response = callGemini(prompt, "workout");
-        if (response != null) {
-            try {
-                WorkoutResponse parsed = parseWorkoutResponse(response);
-                log.info("Generated workout ({} exercises) via Gemini", parsed.exercises().size());
+    /** Turns Gemini's reply into the workout, repaired or replaced by the local one where needed. */
+    GeneratedPlan<WorkoutResponse> workoutFrom(WorkoutRequest request, GeminiReply reply) {
+        String reason = reply.failureReason();
+        if (reply.text() != null) {
+            GeneratedPlan<WorkoutResponse> parsed = planRepair.workout(reply.text(), () -> createDynamicFallbackWorkout(request));
+            if (parsed != null) {
+                progress("Generated workout ({} exercises) via Gemini", parsed.plan().exercises().size());
                 return parsed;
-            } catch (Exception ex) {
-                log.warn("Failed to parse Gemini workout JSON: {}", ex.getMessage());
-                log.debug("Raw response: {}", response);
             }
+            reason = PlanSource.REASON_INVALID;
+            payloadLog.rejected("workout", reply.text());
         }
         log.warn("Falling back to dynamic workout fallback");
-        return createDynamicFallbackWorkout(request);
+        return GeneratedPlan.local(createDynamicFallbackWorkout(request), reason);
     }
 
-    public DietResponse generateDiet(DietRequest request) {
-        log.info("Generating diet for: preference={}, goal={}, calories={}, allergies={}",
+    GeneratedPlan<DietResponse> generateDietPlan(DietRequest request) {
+        return cached(PlanResponseCache.key(request), DietResponse.class, () -> generateFreshDietPlan(request));
+    }
+
+    private GeneratedPlan<DietResponse> generateFreshDietPlan(DietRequest request) {
+        progress("Generating diet for: preference={}, goal={}, calories={}, allergies={}",
                 request.dietaryPreference(), request.fitnessGoal(), request.dailyCalories(), request.allergies());
 
         String prompt = buildDietPrompt(request);
-        log.debug("Diet prompt: {}", prompt);
+        return dietFrom(request, callGemini(prompt, "diet", dietOutput()));
+    }
 
-        String response = callGemini(prompt, "diet");
-        if (response != null) {
-            try {
-                DietResponse parsed = parseDietResponse(response);
-                log.info("Generated diet ({} meals) via Gemini", parsed.meals().size());
+    GeneratedPlan<DietResponse> dietFrom(DietRequest request, GeminiReply reply) {
+        String reason = reply.failureReason();
+        if (reply.text() != null) {
+            GeneratedPlan<DietResponse> parsed = planRepair.diet(reply.text(), () -> createDynamicFallbackDiet(request));
+            if (parsed != null) {
+                progress("Generated diet ({} meals) via Gemini", parsed.plan().meals().size());
                 return parsed;
-            } catch (Exception ex) {
-                log.warn("Failed to parse Gemini diet JSON: {}", ex.getMessage());
-                log.debug("Raw response: {}", response);
             }
+            reason = PlanSource.REASON_INVALID;
+            payloadLog.rejected("diet", reply.text());
         }
         log.warn("Falling back to dynamic diet fallback");
-        return createDynamicFallbackDiet(request);
+        return GeneratedPlan.local(createDynamicFallbackDiet(request), reason);
     }
 
-    // NEW: Yoga Plan Generation
-    public YogaPlanResponse generateYogaPlan(YogaPlanRequest request) {
-        log.info("Generating yoga plan: goal={}, duration={}m", request.goal(), request.durationInMinutes());
+    GeneratedPlan<YogaPlanResponse> generateYogaPlanWithSource(YogaPlanRequest request) {
+        return cached(PlanResponseCache.key(request), YogaPlanResponse.class, () -> generateFreshYogaPlan(request));
+    }
+
+    private GeneratedPlan<YogaPlanResponse> generateFreshYogaPlan(YogaPlanRequest request) {
+        progress("Generating yoga plan: goal={}, duration={}m", request.goal(), request.durationInMinutes());
         String prompt = buildYogaPrompt(request);
-        String response = callGemini(prompt, "yoga");
-        if (response != null) {
-            try {
-                YogaPlanResponse parsed = parseYogaPlanResponse(response);
-                log.info("Generated yoga plan ({} poses) via Gemini", parsed.poses().size());
+        return yogaFrom(request, callGemini(prompt, "yoga", yogaOutput()));
+    }
+
+    GeneratedPlan<YogaPlanResponse> yogaFrom(YogaPlanRequest request, GeminiReply reply) {
+        String reason = reply.failureReason();
+        if (reply.text() != null) {
+            GeneratedPlan<YogaPlanResponse> parsed = planRepair.yoga(reply.text(), () -> createFallbackYogaPlan(request));
+            if (parsed != null) {
+                progress("Generated yoga plan ({} poses) via Gemini", parsed.plan().poses().size());
                 return parsed;
-            } catch (Exception ex) {
-                log.warn("Failed to parse Gemini yoga JSON: {}", ex.getMessage());
-                log.debug("Raw yoga response: {}", response);
             }
+            reason = PlanSource.REASON_INVALID;
+            payloadLog.rejected("yoga", reply.text());
         }
         log.warn("Falling back to dynamic yoga plan fallback");
-        return createFallbackYogaPlan(request);
+        return GeneratedPlan.local(createFallbackYogaPlan(request), reason);
     }
 
-    // NEW: Running Plan Generation
-    public RunningPlanResponse generateRunningPlan(RunningPlanRequest request) {
-        log.info("Generating running plan: goal={}, timeframe={}, level={}", request.goal(), request.timeframe(), request.fitnessLevel());
+    GeneratedPlan<RunningPlanResponse> generateRunningPlanWithSource(RunningPlanRequest request) {
+        return cached(PlanResponseCache.key(request), RunningPlanResponse.class, () -> generateFreshRunningPlan(request));
+    }
+
+    private GeneratedPlan<RunningPlanResponse> generateFreshRunningPlan(RunningPlanRequest request) {
+        int weeks = extractWeeks(request.timeframe());
+        if (isChunked(weeks)) {
+            return generateChunkedRunningPlan(request, weeks);
+        }
+        progress("Generating running plan: goal={}, timeframe={}, level={}", request.goal(), request.timeframe(), request.fitnessLevel());
         String prompt = buildRunningPlanPrompt(request);
-        String response = callGemini(prompt, "runningPlan");
-        if (response != null) {
-            try {
-                RunningPlanResponse parsed = parseRunningPlanResponse(response);
-                log.info("Generated running plan ({} weeks) via Gemini", parsed.weeks().size());
-                return parsed;
-            } catch (Exception ex) {
-                log.warn("Failed to parse Gemini running plan JSON: {}", ex.getMessage());
-                log.debug("Raw running plan response: {}", response);
+        return runningFrom(request, weeks, callGemini(prompt, "runningPlan", runningOutput(weeks)));
+    }
+
+    /** Whether a plan of {@code weeks} is generated as concurrent chunks rather than one call. */
+    boolean isChunked(int weeks) {
+        return runningChunkWeeks > 0 && weeks > runningChunkWeeks;
+    }
+
+    GeneratedPlan<RunningPlanResponse> runningFrom(RunningPlanRequest request, int weeks, GeminiReply reply) {
+        String reason = reply.failureReason();
+        if (reply.text() != null) {
+            GeneratedPlan<List<RunningWeek>> parsed = planRepair.runningWeeks(reply.text(), 1,
+                    weeks > 0 ? createFallbackRunningPlan(request).weeks() : null);
+            if (parsed != null) {
+                progress("Generated running plan ({} weeks) via Gemini", parsed.plan().size());
+                return new GeneratedPlan<>(new RunningPlanResponse(parsed.plan()), parsed.source(), parsed.reason());
             }
+            reason = PlanSource.REASON_INVALID;
+            payloadLog.rejected("runningPlan", reply.text());
         }
         log.warn("Falling back to dynamic running plan fallback");
-        return createFallbackRunningPlan(request);
+        return GeneratedPlan.local(createFallbackRunningPlan(request), reason);
+    }
+
+    // Warm-up runs against canned answers; at INFO they would read as real Gemini traffic
+    private static void progress(String format, Object... args) {
+        log.atLevel(GeminiClient.isCannedResponseActive() ? Level.DEBUG : Level.INFO).log(format, args);
+    }
+
+    /** Serves {@code key} from the plan cache, or generates it and caches Gemini answers. */
+    private <T> GeneratedPlan<T> cached(String key, Class<T> type, Supplier<GeneratedPlan<T>> generate) {
+        GeneratedPlan<T> hit = reusable(key, type);
+        return hit != null ? hit : keep(key, generate.get());
+    }
+
+    // Warm-up runs against canned answers and must neither read nor fill the cache
+    <T> GeneratedPlan<T> reusable(String key, Class<T> type) {
+        return GeminiClient.isCannedResponseActive() ? null : fromCache(key, type);
+    }
+
+    <T> GeneratedPlan<T> keep(String key, GeneratedPlan<T> generated) {
+        return GeminiClient.isCannedResponseActive() ? generated : store(key, generated);
+    }
+
+    /** The cached plan for {@code key}, or null. */
+    <T> GeneratedPlan<T> fromCache(String key, Class<T> type) {
+        T hit = planCache.get(key, type);
+        if (hit == null) return null;
+        log.info("Serving cached plan for {}", key);
+        return new GeneratedPlan<>(hit, PlanSource.CACHED, null);
+    }
+
+    /** Caches {@code generated} if it is a Gemini answer; local plans are not worth keeping. */
+    <T> GeneratedPlan<T> store(String key, GeneratedPlan<T> generated) {
+        if (!generated.isLocal()) planCache.put(key, generated.plan());
+        return generated;
+    }
+
+    /**
+     * Splits a long running plan into week ranges generated concurrently on the plan executor.
+     * Chunks cannot see each other's output, so each one gets a summary of the previous phase taken
+     * from the local progressive plan, which also supplies a chunk's weeks when Gemini fails it.
+     */
+    private GeneratedPlan<RunningPlanResponse> generateChunkedRunningPlan(RunningPlanRequest request, int weeks) {
+        progress("Generating running plan in chunks: goal={}, weeks={}, chunkWeeks={}, level={}",
+                request.goal(), weeks, runningChunkWeeks, request.fitnessLevel());
+        List<RunningWeek> baseline = createFallbackRunningPlan(request).weeks();
+        List<FutureTask<GeneratedPlan<List<RunningWeek>>>> tasks = new ArrayList<>();
+        for (int from = 1; from <= weeks; from += runningChunkWeeks) {
+            int start = from;
+            int end = Math.min(weeks, from + runningChunkWeeks - 1);
+            String previousPhase = start == 1 ? null
+                    : summarizePhase(baseline, Math.max(1, start - runningChunkWeeks), start - 1, weeks);
+            FutureTask<GeneratedPlan<List<RunningWeek>>> task = new FutureTask<>(
+                    () -> generateRunningChunk(request, weeks, start, end, previousPhase, baseline));
+            tasks.add(task);
+            planExecutor.execute(task);
+        }
+
+        List<RunningWeek> merged = new ArrayList<>(weeks);
+        int fromGemini = 0;
+        String reason = null;
+        for (FutureTask<GeneratedPlan<List<RunningWeek>>> task : tasks) {
+            // Runs the chunk here if no pool thread has picked it up, so nested fan-out cannot starve the pool
+            task.run();
+            GeneratedPlan<List<RunningWeek>> chunk = join(task);
+            merged.addAll(chunk.plan());
+            if (chunk.isLocal()) {
+                if (reason == null) reason = chunk.reason();
+            } else {
+                fromGemini++;
+            }
+        }
+        progress("Generated running plan ({} weeks) from {} chunks, {} via Gemini", merged.size(), tasks.size(), fromGemini);
+        RunningPlanResponse plan = new RunningPlanResponse(merged);
+        if (fromGemini == tasks.size()) return GeneratedPlan.gemini(plan);
+        return GeneratedPlan.local(plan, fromGemini == 0 ? reason : PlanSource.REASON_PARTIAL);
+    }
+
+    private static <T> T join(FutureTask<T> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating running plan", ex);
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException("Running plan chunk failed", ex.getCause());
+        }
+    }
+
+    private GeneratedPlan<List<RunningWeek>> generateRunningChunk(RunningPlanRequest request, int totalWeeks, int from, int to,
+                                                                  String previousPhase, List<RunningWeek> baseline) {
+        List<RunningWeek> fallback = baseline.subList(from - 1, to);
+        GeminiReply reply = callGemini(buildRunningChunkPrompt(request, totalWeeks, from, to, previousPhase), "runningPlan",
+                jsonOutput(runningMaxTokensPerWeek * (to - from + 1), RunningPlanResponse.class));
+        String reason = reply.failureReason();
+        if (reply.text() != null) {
+            // Weeks Gemini did not deliver are taken from the baseline
+            GeneratedPlan<List<RunningWeek>> parsed = planRepair.runningWeeks(reply.text(), from, fallback);
+            if (parsed != null) return parsed;
+            reason = PlanSource.REASON_INVALID;
+            log.warn("Invalid Gemini running plan chunk (weeks {}-{})", from, to);
+            payloadLog.rejected("runningPlan", reply.text());
+        }
+        log.warn("Falling back to dynamic running plan for weeks {}-{}", from, to);
+        return GeneratedPlan.local(List.copyOf(fallback), reason);
+    }
+
+    /** One-line outline of weeks {@code from..to} of the progressive plan, e.g. for the next chunk's prompt. */
+    static String summarizePhase(List<RunningWeek> plan, int from, int to, int totalWeeks) {
+        int firstVolume = 0, lastVolume = 0, longest = 0, runs = 0;
+        for (int w = from; w <= to; w++) {
+            int volume = 0;
+            for (RunningSession s : plan.get(w - 1).sessions()) {
+                int km = s.meters() / 1000;
+                if (km <= 0) continue;
+                volume += km;
+                longest = Math.max(longest, km);
+                if (w == to) runs++;
+            }
+            if (w == from) firstVolume = volume;
+            lastVolume = volume;
+        }
+        return String.format("weeks %d-%d (%s): %d runs/week, weekly volume %d -> %d km, long run up to %d km",
+                from, to, phaseName(from, to, totalWeeks), runs, firstVolume, lastVolume, longest);
+    }
+
+    static String phaseName(int from, int to, int totalWeeks) {
+        if (from == 1) return "base";
+        if (to == totalWeeks) return "peak & taper";
+        return "build";
+    }
+
+    /** Gemini's text, or null with the reason the caller has to fall back. */
+    record GeminiReply(String text, String failureReason) {}
+
+    /** JSON-only output limited to {@code maxOutputTokens} and shaped like {@code type}. */
+    GenerationConfig jsonOutput(int maxOutputTokens, Class<?> type) {
+        return jsonOutput(maxOutputTokens, GeminiSchemas.of(type));
+    }
+
+    GenerationConfig jsonOutput(int maxOutputTokens, Map<String, Object> responseSchema) {
+        return GenerationConfig.json(maxOutputTokens, temperature, responseSchema);
+    }
+
+    GenerationConfig workoutOutput() {
+        return jsonOutput(workoutMaxTokens, WorkoutResponse.class);
+    }
+
+    GenerationConfig dietOutput() {
+        return jsonOutput(dietMaxTokens, DietResponse.class);
+    }
+
+    GenerationConfig yogaOutput() {
+        return jsonOutput(yogaMaxTokens, YogaPlanResponse.class);
     }
 
-    private String callGemini(String prompt, String type) {
-        String result = geminiClient.generate(prompt);
-        if (result == null) {
+    GenerationConfig runningOutput(int weeks) {
+        return jsonOutput(runningMaxTokensPerWeek * Math.max(1, weeks), RunningPlanResponse.class);
+    }
+
+    GeminiReply callGemini(String prompt, String type, GenerationConfig config) {
+        GeminiAdmissionController.Permit permit = admissionController.tryAcquire();
+        if (permit == null) {
+            log.warn("Gemini at capacity ({} in flight), serving {} locally", admissionController.inFlight(), type);
+            return new GeminiReply(null, PlanSource.REASON_SHED);
+        }
+        boolean sampled = payloadLog.sample();
+        payloadLog.log(sampled, type, "prompt", prompt);
+        long start = System.nanoTime();
+        GeminiResult result;
+        try (permit) {
+            result = geminiClient.generate(prompt, config);
+        }
+        return toReply(type, config, result, System.nanoTime() - start, sampled);
+    }
+
+    /**
+     * Records usage of a finished call and maps its result to text or a fallback reason; the raw
+     * answer is logged if the call was {@code sampled} for payload logging.
+     */
+    GeminiReply toReply(String type, GenerationConfig config, GeminiResult result, long nanos, boolean sampled) {
+        recordUsage(type, config, result, nanos);
+        if (result.text() == null) {
             log.error("Gemini returned null for {} (check API key / network)", type);
-        } else {
-            log.debug("Gemini raw {} response: {}", type, result);
+            return new GeminiReply(null, PlanSource.REASON_UNAVAILABLE);
+        }
+        if (result.truncated()) {
+            log.warn("Gemini {} answer stopped at maxOutputTokens={}", type, config == null ? null : config.maxOutputTokens());
+        }
+        payloadLog.log(sampled, type, "answer", result.text());
+        return new GeminiReply(result.text(), null);
+    }
+
+    /** Output tokens and latency per plan type, to tune the token budgets against. */
+    private void recordUsage(String type, GenerationConfig config, GeminiResult result, long nanos) {
+        // Warm-up answers are canned and would skew both
+        if (GeminiClient.isCannedResponseActive()) return;
+        meterRegistry.timer("fitness.gemini.latency", "type", type).record(nanos, TimeUnit.NANOSECONDS);
+        if (result.outputTokens() > 0) {
+            DistributionSummary.builder("fitness.gemini.output.tokens")
+                    .baseUnit("tokens")
+                    .tag("type", type)
+                    .tag("truncated", String.valueOf(result.truncated()))
+                    .register(meterRegistry)
+                    .record(result.outputTokens());
+            log.debug("Gemini {} answer: {} output tokens (budget {}) in {} ms", type, result.outputTokens(),
+                    config == null ? null : config.maxOutputTokens(), nanos / 1_000_000);
         }
-        return result;
     }
 
-    private String buildWorkoutPrompt(WorkoutRequest request) {
+    String buildWorkoutPrompt(WorkoutRequest request) {
         return String.format("""
             You are an expert fitness trainer. Create a personalized %d-minute workout routine targeting %s muscles for someone at %s fitness level.
             Respond ONLY with valid JSON (no markdown) in this exact format:
@@ -123,7 +434,7 @@ public class AIService {
         );
     }
 
-    private String buildDietPrompt(DietRequest request) {
+    String buildDietPrompt(DietRequest request) {
         return String.format("""
             You are a professional nutritionist. Build a one-day meal plan.
             Preference:%s Goal:%s Calories:%d Allergies:%s
@@ -139,7 +450,7 @@ public class AIService {
     }
 
     // NEW prompt builders
-    private String buildYogaPrompt(YogaPlanRequest request) {
+    String buildYogaPrompt(YogaPlanRequest request) {
         return String.format("""
             You are a certified yoga instructor. Create a %d-minute yoga flow focused on the goal: %s.
             Provide 6-10 sequential poses with mindful transitions. Keep pose names standard.
@@ -151,7 +462,7 @@ public class AIService {
         );
     }
 
-    private String buildRunningPlanPrompt(RunningPlanRequest request) {
+    String buildRunningPlanPrompt(RunningPlanRequest request) {
         return String.format("""
             You are an experienced running coach. Create a structured week-by-week running plan to achieve goal: %s within %s.
             Athlete level: %s.
@@ -163,29 +474,22 @@ public class AIService {
         );
     }
 
-    // NEW parse helpers
-    private YogaPlanResponse parseYogaPlanResponse(String response) throws JsonProcessingException {
-        String json = extractJsonFromResponse(response);
-        return objectMapper.readValue(json, YogaPlanResponse.class);
-    }
-
-    private RunningPlanResponse parseRunningPlanResponse(String response) throws JsonProcessingException {
-        String json = extractJsonFromResponse(response);
-        return objectMapper.readValue(json, RunningPlanResponse.class);
-    }
-
-    // Original parse helpers for workout & diet (restored)
-    private WorkoutResponse parseWorkoutResponse(String response) throws JsonProcessingException {
-        String json = extractJsonFromResponse(response);
-        return objectMapper.readValue(json, WorkoutResponse.class);
-    }
-
-    private DietResponse parseDietResponse(String response) throws JsonProcessingException {
-        String json = extractJsonFromResponse(response);
-        return objectMapper.readValue(json, DietResponse.class);
+    private String buildRunningChunkPrompt(RunningPlanRequest request, int totalWeeks, int from, int to, String previousPhase) {
+        return String.format("""
+            You are an experienced running coach. The full plan works toward goal: %s within %s (%d weeks). Athlete level: %s.
+            Write ONLY weeks %d-%d, the %s phase. %s
+            Include variety: easy runs, long runs, interval/tempo work, recovery, and rest days.
+            Respond ONLY with JSON: {"weeks":[{"weekNumber":%d,"sessions":[{"day":"Mon","type":"Easy Run","distance":"3 km","notes":"Conversational pace"}]}]} with exactly one entry per week %d-%d.
+            Distance units concise (km). 5-7 sessions per week, include at least one rest day. No commentary outside JSON.
+            """,
+            request.goal(), request.timeframe(), totalWeeks, request.fitnessLevel(),
+            from, to, phaseName(from, to, totalWeeks),
+            previousPhase == null ? "This is the opening phase." : "Previous phase, " + previousPhase + ". Progress smoothly from it.",
+            from, from, to
+        );
     }
 
-    private String extractJsonFromResponse(String response) {
+    String extractJsonFromResponse(String response) {
         if (response == null || response.isBlank()) {
             throw new RuntimeException("Empty response");
         }
@@ -201,47 +505,20 @@ public class AIService {
         throw new RuntimeException("No JSON brackets found");
     }
 
-    // Fallback generation (unchanged below)
+    // Fallback generation: workout, diet and yoga come from the indexed catalog engine
     private WorkoutResponse createDynamicFallbackWorkout(WorkoutRequest request) {
-        List<Exercise> exercises;
-        switch (request.targetMuscle().toLowerCase()) {
-            case "chest": exercises = createChestExercises(request.fitnessLevel()); break;
-            case "back": exercises = createBackExercises(request.fitnessLevel()); break;
-            case "legs": exercises = createLegExercises(request.fitnessLevel()); break;
-            case "arms": exercises = createArmExercises(request.fitnessLevel()); break;
-            default: exercises = createFullBodyExercises(request.fitnessLevel());
-        }
-        return new WorkoutResponse(exercises);
+        return fallbackPlanEngine.workout(request);
     }
 
     private DietResponse createDynamicFallbackDiet(DietRequest request) {
-        List<Meal> meals;
-        switch (request.dietaryPreference().toLowerCase()) {
-            case "vegetarian": meals = createVegetarianMeals(request); break;
-            case "vegan": meals = createVeganMeals(request); break;
-            case "keto": meals = createKetoMeals(request); break;
-            default: meals = createBalancedMeals(request);
-        }
-        return new DietResponse(meals);
+        return fallbackPlanEngine.diet(request);
     }
 
-    // NEW fallback generators
     private YogaPlanResponse createFallbackYogaPlan(YogaPlanRequest request) {
-        List<YogaPose> poses = List.of(
-                new YogaPose("Centering Breath", "60 sec", "Seated or standing, deepen breathing to settle"),
-                new YogaPose("Cat-Cow", "6 breaths", "Alternate spinal flexion/extension with inhales and exhales"),
-                new YogaPose("Downward Dog", "60 sec", "Press through palms, lengthen spine, soften knees"),
-                new YogaPose("Low Lunge", "45 sec each", "Front knee over ankle, hips square, steady breath"),
-                new YogaPose("Warrior II", "45 sec each", "Front knee bent, arms extended, gaze over front hand"),
-                new YogaPose("Triangle", "45 sec each", "Straighten front leg, hinge at hip, lengthen both sides"),
-                new YogaPose("Seated Forward Fold", "60 sec", "Lengthen spine on inhale, fold gently on exhale"),
-                new YogaPose("Supine Twist", "45 sec each", "Arms wide, shoulders grounded, gentle spinal rotation"),
-                new YogaPose("Savasana", "2 min", "Relax fully, natural breath, release tension")
-        );
-        return new YogaPlanResponse(poses);
+        return fallbackPlanEngine.yoga(request);
     }
 
-    private RunningPlanResponse createFallbackRunningPlan(RunningPlanRequest request) {
+    RunningPlanResponse createFallbackRunningPlan(RunningPlanRequest request) {
         int weeks = extractWeeks(request.timeframe());
         if (weeks <= 0) weeks = 4;
         // Simple progressive plan
@@ -264,112 +541,18 @@ public class AIService {
         return new RunningPlanResponse(weekList);
     }
 
-    private int extractWeeks(String timeframe) {
+    /**
+     * Weeks in a timeframe such as "12 weeks", at most {@link #MAX_WEEKS}; 0 if there is no
+     * positive number. Every week count used for prompts, token budgets, chunking and fallback
+     * plans comes from here, so one bound covers them all.
+     */
+    static int extractWeeks(String timeframe) {
         if (timeframe == null) return 0;
         try {
             String digits = timeframe.trim().split(" ")[0];
-            return Integer.parseInt(digits);
+            return Math.max(0, Math.min(Integer.parseInt(digits), MAX_WEEKS));
         } catch (Exception e) {
             return 0;
         }
     }
-
-    // Restored fallback helper methods for workouts
-    private List<Exercise> createChestExercises(String level) {
-        if ("beginner".equalsIgnoreCase(level)) {
-            return List.of(
-                new Exercise("Wall Push-ups", "3", "8-12", "Beginner-friendly chest exercise against wall"),
-                new Exercise("Incline Push-ups", "3", "6-10", "Push-ups with hands elevated on bench"),
-                new Exercise("Knee Push-ups", "3", "5-8", "Modified push-ups from knees"),
-                new Exercise("Chest Squeeze", "3", "10-15", "Isometric chest contraction exercise")
-            );
-        } else if ("intermediate".equalsIgnoreCase(level)) {
-            return List.of(
-                new Exercise("Standard Push-ups", "3", "10-15", "Classic bodyweight chest exercise"),
-                new Exercise("Wide-Grip Push-ups", "3", "8-12", "Push-ups with wider hand placement"),
-                new Exercise("Diamond Push-ups", "3", "6-10", "Push-ups with hands in diamond shape"),
-                new Exercise("Decline Push-ups", "3", "8-12", "Push-ups with feet elevated")
-            );
-        } else {
-            return List.of(
-                new Exercise("One-Arm Push-ups", "3", "3-6", "Advanced single-arm push-up variation"),
-                new Exercise("Archer Push-ups", "3", "5-8", "Single-sided push-up movement"),
-                new Exercise("Explosive Push-ups", "4", "6-10", "Plyometric push-up with hand clap"),
-                new Exercise("Hindu Push-ups", "3", "8-12", "Dynamic flowing push-up movement")
-            );
-        }
-    }
-
-    private List<Exercise> createBackExercises(String level) {
-        return List.of(
-            new Exercise("Superman", "3", "10-15", "Lying back extension exercise"),
-            new Exercise("Reverse Fly", "3", "12-15", "Rear deltoid and upper back exercise"),
-            new Exercise("Bird Dog", "3", "10 each side", "Core and back stability exercise"),
-            new Exercise("Good Mornings", "3", "12-15", "Hip hinge movement for lower back")
-        );
-    }
-
-    private List<Exercise> createLegExercises(String level) {
-        return List.of(
-            new Exercise("Bodyweight Squats", "3", "12-20", "Basic lower body exercise"),
-            new Exercise("Lunges", "3", "10 each leg", "Single-leg strength exercise"),
-            new Exercise("Calf Raises", "3", "15-20", "Lower leg strengthening exercise"),
-            new Exercise("Wall Sit", "3", "30-60 sec", "Isometric quad strengthening")
-        );
-    }
-
-    private List<Exercise> createArmExercises(String level) {
-        return List.of(
-            new Exercise("Tricep Dips", "3", "8-12", "Bodyweight tricep exercise"),
-            new Exercise("Pike Push-ups", "3", "6-10", "Shoulder and tricep focused exercise"),
-            new Exercise("Arm Circles", "3", "15 each direction", "Shoulder mobility and strength"),
-            new Exercise("Plank to Push-up", "3", "8-12", "Dynamic arm and core exercise")
-        );
-    }
-
-    private List<Exercise> createFullBodyExercises(String level) {
-        return List.of(
-            new Exercise("Burpees", "3", "8-12", "Full body high-intensity exercise"),
-            new Exercise("Mountain Climbers", "3", "20-30", "Dynamic full body cardio exercise"),
-            new Exercise("Jumping Jacks", "3", "15-25", "Full body cardiovascular exercise"),
-            new Exercise("Plank", "3", "30-60 sec", "Core stability exercise")
-        );
-    }
-
-    // Restored meal fallback creators
-    private List<Meal> createVegetarianMeals(DietRequest request) {
-        return List.of(
-            new Meal("Veggie Protein Bowl", "Quinoa, black beans, avocado, spinach", "400", "High-protein vegetarian breakfast"),
-            new Meal("Lentil Salad", "Green lentils, cucumber, tomato, feta", "350", "Protein-rich lunch option"),
-            new Meal("Stuffed Bell Peppers", "Peppers, rice, cheese, herbs", "450", "Nutritious vegetarian dinner"),
-            new Meal("Greek Yogurt with Nuts", "Greek yogurt, almonds, berries", "200", "Protein-packed snack")
-        );
-    }
-
-    private List<Meal> createVeganMeals(DietRequest request) {
-        return List.of(
-            new Meal("Chia Seed Pudding", "Chia seeds, almond milk, banana", "350", "Plant-based protein breakfast"),
-            new Meal("Buddha Bowl", "Tofu, quinoa, kale, tahini dressing", "450", "Complete vegan lunch"),
-            new Meal("Lentil Curry", "Red lentils, coconut milk, vegetables", "400", "Hearty vegan dinner"),
-            new Meal("Hummus with Veggies", "Hummus, carrots, bell peppers", "180", "Plant-based snack")
-        );
-    }
-
-    private List<Meal> createKetoMeals(DietRequest request) {
-        return List.of(
-            new Meal("Avocado Eggs", "Eggs, avocado, bacon, cheese", "450", "High-fat keto breakfast"),
-            new Meal("Keto Caesar Salad", "Romaine, chicken, parmesan, keto dressing", "400", "Low-carb lunch"),
-            new Meal("Salmon with Asparagus", "Salmon, asparagus, butter sauce", "500", "Keto-friendly dinner"),
-            new Meal("Keto Fat Bombs", "Coconut oil, nuts, cocoa", "200", "High-fat keto snack")
-        );
-    }
-
-    private List<Meal> createBalancedMeals(DietRequest request) {
-        return List.of(
-            new Meal("Balanced Breakfast", "Oatmeal, berries, protein powder, nuts", "350", "Well-rounded morning meal"),
-            new Meal("Chicken Quinoa Bowl", "Grilled chicken, quinoa, mixed vegetables", "450", "Balanced lunch option"),
-            new Meal("Lean Protein Dinner", "Fish, sweet potato, broccoli", "500", "Balanced evening meal"),
-            new Meal("Mixed Nuts", "Almonds, walnuts, dried fruit", "200", "Healthy balanced snack")
-        );
-    }
 }
@@ -1,8 +1,10 @@
 package com.djcode.fitness.fitnessapp.service;
 
+import com.djcode.fitness.fitnessapp.config.ServletStack;
 import com.djcode.fitness.fitnessapp.dto.AuthRequest;
 import com.djcode.fitness.fitnessapp.dto.AuthResponse;
 import com.djcode.fitness.fitnessapp.dto.RegisterRequest;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
 import com.djcode.fitness.fitnessapp.entity.User;
 import com.djcode.fitness.fitnessapp.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -16,6 +18,7 @@ import java.util.HashMap;
 import java.util.List;
 
 @Service
+@ServletStack
 @RequiredArgsConstructor
 public class AuthService {
 
@@ -26,9 +29,9 @@ public class AuthService {
 
     public AuthResponse register(RegisterRequest request) {
         // Duplicate email safeguard
-        userRepository.findByEmail(request.email()).ifPresent(u -> {
+        if (userRepository.existsByEmail(request.email())) {
             throw new RuntimeException("Email already registered");
-        });
+        }
 
         var user = User.builder()
                 .username(request.username())
@@ -58,29 +61,29 @@ public class AuthService {
     }
 
     public AuthResponse login(AuthRequest request) {
-        authenticationManager.authenticate(
+        var authentication = authenticationManager.authenticate(
                 new UsernamePasswordAuthenticationToken(
                         request.email(),
                         request.password()
                 )
         );
 
-        var user = userRepository.findByEmail(request.email())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        // Principal is the AuthUser projection loaded for the password check; no second lookup
+        var user = (AuthUser) authentication.getPrincipal();
 
         var now = Instant.now();
         var claims = new HashMap<String,Object>();
-        claims.put("uid", user.getId());
-        claims.put("roles", user.getRoles());
+        claims.put("uid", user.id());
+        claims.put("roles", user.roles());
         var jwtToken = jwtService.generateToken(claims, user);
         var expiresAt = now.plusMillis(jwtService.getJwtExpiration());
 
         return new AuthResponse(
                 jwtToken,
-                user.getId(),
+                user.id(),
                 user.getUsername(),
-                user.getEmail(),
-                user.getRoles(),
+                user.email(),
+                user.roles(),
                 now,
                 expiresAt
         );
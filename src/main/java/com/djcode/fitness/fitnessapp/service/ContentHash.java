@@ -0,0 +1,24 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Hash of serialized content that is used as its strong ETag: the first 128 bits of SHA-256,
+ * base64url, so 22 characters.
+ */
+public final class ContentHash {
+
+    private ContentHash() {}
+
+    public static String of(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(digest, 16));
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 not available", ex);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+import java.util.regex.Pattern;
+
+/**
+ * Local plan generator used whenever Gemini is unavailable or its answer cannot be used.
+ * The exercise/meal/pose catalog (fallback-catalog.json) is loaded once at startup into flat
+ * arrays plus one {@link BitSet} per muscle group, level, equipment, diet, allergen, meal slot
+ * and yoga goal, so assembling a plan is a handful of bitset intersections and a linear pick.
+ */
+@Component
+@Slf4j
+public class FallbackPlanEngine {
+
+    static final String CATALOG_RESOURCE = "fallback-catalog.json";
+
+    private static final int MIN_EXERCISES = 3;
+    private static final int MAX_EXERCISES = 8;
+    private static final int MIN_POSES = 5;
+    private static final int DEFAULT_DURATION = 30;
+    private static final int DEFAULT_CALORIES = 2000;
+    private static final int MAX_SNACKS = 2;
+    private static final int SNACK_THRESHOLD_KCAL = 120;
+
+    private static final String FULL_BODY = "full body";
+    private static final String NO_EQUIPMENT = "none";
+    private static final String GENERAL_GOAL = "general";
+    private static final List<String> LEVELS = List.of("beginner", "intermediate", "advanced");
+    private static final Pattern NON_LETTERS = Pattern.compile("[^a-z]+");
+    // Whole words only: substrings misfire ("lat" in "lateral", "ab" in "stable", "arm" in "warm-up")
+    private static final Map<String, String> MUSCLE_ALIASES = aliases(Map.of(
+            "chest", List.of("chest", "pec", "pecs", "pectoral", "pectorals"),
+            "back", List.of("back", "lat", "lats", "latissimus"),
+            "legs", List.of("leg", "legs", "glute", "glutes", "quad", "quads", "quadriceps",
+                    "hamstring", "hamstrings", "calf", "calves"),
+            "shoulders", List.of("shoulder", "shoulders", "delt", "delts", "deltoid", "deltoids"),
+            "arms", List.of("arm", "arms", "bicep", "biceps", "tricep", "triceps", "forearm", "forearms"),
+            "core", List.of("core", "ab", "abs", "abdominal", "abdominals", "oblique", "obliques")));
+    // Share of the daily target given to each main slot; snacks fill what is left
+    private static final String[] MAIN_SLOTS = {"breakfast", "lunch", "dinner"};
+    private static final double[] MAIN_SLOT_SHARE = {0.25, 0.35, 0.30};
+
+    // Catalog file shape
+    record Catalog(List<CatalogExercise> exercises, List<CatalogMeal> meals, List<CatalogPose> poses) {}
+
+    record CatalogExercise(String name, String sets, String reps, String description,
+                           List<String> muscles, List<String> levels, String equipment, int minutes) {}
+
+    record CatalogMeal(String name, String ingredients, int calories, String description,
+                       String slot, List<String> diets, List<String> allergens) {}
+
+    record CatalogPose(String name, String hold, String description, int phase, int minutes, List<String> goals) {}
+
+    private final Exercise[] exercises;
+    private final int[] exerciseMinutes;
+    private final Map<String, BitSet> exercisesByMuscle = new HashMap<>();
+    private final Map<String, BitSet> exercisesByLevel = new HashMap<>();
+    private final Map<String, BitSet> exercisesByEquipment = new HashMap<>();
+
+    private final Meal[] meals;
+    private final int[] mealCalories;
+    private final Map<String, BitSet> mealsByDiet = new HashMap<>();
+    private final Map<String, BitSet> mealsByAllergen = new HashMap<>();
+    private final Map<String, BitSet> mealsBySlot = new HashMap<>();
+
+    private final YogaPose[] poses;
+    private final int[] poseMinutes;
+    private final int[] posePhase;
+    private final Map<String, BitSet> posesByGoal = new HashMap<>();
+
+    @Autowired
+    public FallbackPlanEngine(JsonCodecs jsonCodecs) throws IOException {
+        this(loadCatalog(jsonCodecs));
+    }
+
+    FallbackPlanEngine(Catalog catalog) {
+        List<CatalogExercise> ex = catalog.exercises();
+        exercises = new Exercise[ex.size()];
+        exerciseMinutes = new int[ex.size()];
+        for (int i = 0; i < ex.size(); i++) {
+            CatalogExercise e = ex.get(i);
+            exercises[i] = new Exercise(e.name(), e.sets(), e.reps(), e.description());
+            exerciseMinutes[i] = Math.max(1, e.minutes());
+            for (String m : e.muscles()) index(exercisesByMuscle, m, i);
+            for (String l : e.levels()) index(exercisesByLevel, l, i);
+            index(exercisesByEquipment, e.equipment(), i);
+        }
+
+        List<CatalogMeal> ml = catalog.meals();
+        meals = new Meal[ml.size()];
+        mealCalories = new int[ml.size()];
+        for (int i = 0; i < ml.size(); i++) {
+            CatalogMeal m = ml.get(i);
+            meals[i] = new Meal(m.name(), m.ingredients(), String.valueOf(m.calories()), m.description());
+            mealCalories[i] = m.calories();
+            for (String d : m.diets()) index(mealsByDiet, d, i);
+            for (String a : m.allergens()) index(mealsByAllergen, a, i);
+            index(mealsBySlot, m.slot(), i);
+        }
+
+        // Poses are kept in sequence order so a filtered walk already yields a valid flow
+        List<CatalogPose> ps = new ArrayList<>(catalog.poses());
+        ps.sort(Comparator.comparingInt(CatalogPose::phase));
+        poses = new YogaPose[ps.size()];
+        poseMinutes = new int[ps.size()];
+        posePhase = new int[ps.size()];
+        for (int i = 0; i < ps.size(); i++) {
+            CatalogPose p = ps.get(i);
+            poses[i] = new YogaPose(p.name(), p.hold(), p.description());
+            poseMinutes[i] = Math.max(1, p.minutes());
+            posePhase[i] = p.phase();
+            for (String g : p.goals()) index(posesByGoal, g, i);
+        }
+        log.info("Fallback catalog loaded: {} exercises, {} meals, {} poses", exercises.length, meals.length, poses.length);
+    }
+
+    private static Catalog loadCatalog(JsonCodecs jsonCodecs) throws IOException {
+        try (InputStream in = new ClassPathResource(CATALOG_RESOURCE).getInputStream()) {
+            return jsonCodecs.reader(Catalog.class).readValue(in);
+        }
+    }
+
+    private static void index(Map<String, BitSet> index, String key, int i) {
+        index.computeIfAbsent(key.toLowerCase(Locale.ROOT), k -> new BitSet()).set(i);
+    }
+
+    // ---------------------------------------------------------------- workouts
+
+    public WorkoutResponse workout(WorkoutRequest request) {
+        String muscle = normalizeMuscle(request.targetMuscle());
+        String level = normalizeLevel(request.fitnessLevel());
+        int duration = request.durationInMinutes() > 0 ? request.durationInMinutes() : DEFAULT_DURATION;
+
+        BitSet candidates = exerciseCandidates(muscle, level);
+        int[] order = preferBodyweight(candidates);
+
+        List<Exercise> picked = new ArrayList<>(MAX_EXERCISES);
+        int total = 0;
+        int start = order.length == 0 ? 0 : Math.floorMod(Objects.hash(muscle, level, duration), order.length);
+        for (int k = 0; k < order.length && picked.size() < MAX_EXERCISES; k++) {
+            int i = order[(start + k) % order.length];
+            if (picked.size() >= MIN_EXERCISES && total + exerciseMinutes[i] > duration) continue;
+            picked.add(exercises[i]);
+            total += exerciseMinutes[i];
+        }
+        // Not enough distinct movements for a long session: add sets instead of padding with off-target work
+        if (total > 0 && total < duration * 0.8) {
+            double factor = Math.min(2.0, (double) duration / total);
+            picked.replaceAll(e -> new Exercise(e.name(), scaleSets(e.sets(), factor), e.reps(), e.description()));
+        }
+        return new WorkoutResponse(List.copyOf(picked));
+    }
+
+    private BitSet exerciseCandidates(String muscle, String level) {
+        BitSet byMuscle = exercisesByMuscle.getOrDefault(muscle, exercisesByMuscle.get(FULL_BODY));
+        BitSet exact = and(byMuscle, exercisesByLevel.get(level));
+        if (exact.cardinality() >= MIN_EXERCISES) return exact;
+
+        // Widen to the neighbouring levels before giving up on the level entirely
+        BitSet neighbours = new BitSet();
+        int li = LEVELS.indexOf(level);
+        for (int d = -1; d <= 1; d++) {
+            int n = li + d;
+            if (n >= 0 && n < LEVELS.size()) neighbours.or(exercisesByLevel.getOrDefault(LEVELS.get(n), new BitSet()));
+        }
+        BitSet widened = and(byMuscle, neighbours);
+        if (widened.cardinality() >= MIN_EXERCISES) return widened;
+        if (byMuscle != null && byMuscle.cardinality() >= MIN_EXERCISES) return (BitSet) byMuscle.clone();
+        return and(exercisesByMuscle.get(FULL_BODY), exercisesByLevel.get(level));
+    }
+
+    private int[] preferBodyweight(BitSet candidates) {
+        BitSet bodyweight = and(candidates, exercisesByEquipment.get(NO_EQUIPMENT));
+        BitSet equipped = (BitSet) candidates.clone();
+        equipped.andNot(bodyweight);
+        int[] order = new int[candidates.cardinality()];
+        int n = 0;
+        for (int i = bodyweight.nextSetBit(0); i >= 0; i = bodyweight.nextSetBit(i + 1)) order[n++] = i;
+        for (int i = equipped.nextSetBit(0); i >= 0; i = equipped.nextSetBit(i + 1)) order[n++] = i;
+        return order;
+    }
+
+    private static String scaleSets(String sets, double factor) {
+        try {
+            return String.valueOf(Math.max(1, (int) Math.round(Integer.parseInt(sets.trim()) * factor)));
+        } catch (NumberFormatException ex) {
+            return sets;
+        }
+    }
+
+    /** The catalog muscle group of the first word in {@code targetMuscle} that names one; else full body. */
+    static String normalizeMuscle(String targetMuscle) {
+        if (targetMuscle == null) return FULL_BODY;
+        for (String word : NON_LETTERS.split(targetMuscle.toLowerCase(Locale.ROOT))) {
+            String group = MUSCLE_ALIASES.get(word);
+            if (group != null) return group;
+        }
+        return FULL_BODY;
+    }
+
+    private static Map<String, String> aliases(Map<String, List<String>> groups) {
+        Map<String, String> byWord = new HashMap<>();
+        groups.forEach((group, words) -> words.forEach(word -> byWord.put(word, group)));
+        return Map.copyOf(byWord);
+    }
+
+    static String normalizeLevel(String fitnessLevel) {
+        if (fitnessLevel == null) return "beginner";
+        String l = fitnessLevel.toLowerCase(Locale.ROOT).trim();
+        if (l.startsWith("adv") || l.contains("expert")) return "advanced";
+        if (l.startsWith("inter") || l.contains("moderate")) return "intermediate";
+        return "beginner";
+    }
+
+    // ---------------------------------------------------------------- diets
+
+    public DietResponse diet(DietRequest request) {
+        int target = request.dailyCalories() > 0 ? request.dailyCalories() : DEFAULT_CALORIES;
+        BitSet allowed = mealCandidates(normalizeDiet(request.dietaryPreference()), parseAllergies(request.allergies()));
+
+        List<Meal> picked = new ArrayList<>(MAIN_SLOTS.length + MAX_SNACKS);
+        BitSet used = new BitSet();
+        int total = 0;
+        for (int s = 0; s < MAIN_SLOTS.length; s++) {
+            int i = closest(and(allowed, mealsBySlot.get(MAIN_SLOTS[s])), used, (int) (target * MAIN_SLOT_SHARE[s]));
+            if (i < 0) continue;
+            picked.add(meals[i]);
+            used.set(i);
+            total += mealCalories[i];
+        }
+        BitSet snacks = and(allowed, mealsBySlot.get("snack"));
+        for (int n = 0; n < MAX_SNACKS && target - total > SNACK_THRESHOLD_KCAL; n++) {
+            int i = closest(snacks, used, target - total);
+            if (i < 0) break;
+            picked.add(meals[i]);
+            used.set(i);
+            total += mealCalories[i];
+        }
+        return new DietResponse(List.copyOf(picked));
+    }
+
+    private BitSet mealCandidates(String diet, Set<String> allergens) {
+        BitSet safe = new BitSet(meals.length);
+        safe.set(0, meals.length);
+        for (String a : allergens) {
+            BitSet hit = mealsByAllergen.get(a);
+            if (hit != null) safe.andNot(hit);
+        }
+        BitSet forDiet = and(safe, mealsByDiet.get(diet));
+        // Allergies are never relaxed; the diet style is, if it leaves nothing to eat
+        return forDiet.isEmpty() ? safe : forDiet;
+    }
+
+    private int closest(BitSet candidates, BitSet used, int targetKcal) {
+        int best = -1;
+        int bestDiff = Integer.MAX_VALUE;
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            if (used.get(i)) continue;
+            int diff = Math.abs(mealCalories[i] - targetKcal);
+            if (diff < bestDiff) {
+                best = i;
+                bestDiff = diff;
+            }
+        }
+        return best;
+    }
+
+    static String normalizeDiet(String preference) {
+        if (preference == null) return "balanced";
+        String p = preference.toLowerCase(Locale.ROOT);
+        if (p.contains("vegan") || p.contains("plant")) return "vegan";
+        if (p.contains("vegetarian")) return "vegetarian";
+        if (p.contains("keto") || p.contains("low carb") || p.contains("low-carb")) return "keto";
+        if (p.contains("paleo")) return "paleo";
+        if (p.contains("protein")) return "high protein";
+        return "balanced";
+    }
+
+    static Set<String> parseAllergies(String allergies) {
+        if (allergies == null || allergies.isBlank()) return Set.of();
+        Set<String> out = new HashSet<>();
+        for (String raw : allergies.toLowerCase(Locale.ROOT).split("[,;/]|\\band\\b")) {
+            String a = raw.trim();
+            if (a.isEmpty() || a.equals("none") || a.equals("no") || a.equals("n/a")) continue;
+            if (a.contains("peanut")) out.add("peanuts");
+            else if (a.contains("nut") || a.contains("almond") || a.contains("walnut") || a.contains("cashew")) {
+                out.add("nuts");
+                out.add("peanuts");
+            }
+            if (a.contains("dairy") || a.contains("milk") || a.contains("lactose") || a.contains("cheese")) out.add("dairy");
+            if (a.contains("gluten") || a.contains("wheat")) out.add("gluten");
+            if (a.contains("egg")) out.add("eggs");
+            if (a.contains("soy")) out.add("soy");
+            if (a.contains("shellfish") || a.contains("shrimp")) out.add("shellfish");
+            else if (a.contains("fish") || a.contains("salmon") || a.contains("tuna")) out.add("fish");
+            if (a.contains("sesame") || a.contains("tahini")) out.add("sesame");
+        }
+        return out;
+    }
+
+    // ---------------------------------------------------------------- yoga
+
+    public YogaPlanResponse yoga(YogaPlanRequest request) {
+        int duration = request.durationInMinutes() > 0 ? request.durationInMinutes() : DEFAULT_DURATION;
+        String goal = normalizeYogaGoal(request.goal());
+        BitSet general = posesByGoal.getOrDefault(GENERAL_GOAL, new BitSet());
+        BitSet goalSpecific = posesByGoal.getOrDefault(goal, new BitSet());
+        BitSet chosen = (BitSet) general.clone();
+        chosen.or(goalSpecific);
+
+        int total = 0;
+        for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) total += poseMinutes[i];
+        int firstPhase = posePhase[0];
+        int lastPhase = posePhase[poses.length - 1];
+        // Trim generic middle poses first, then the longest goal poses, never the opening or closing pose
+        while (total > duration && chosen.cardinality() > MIN_POSES) {
+            int drop = -1;
+            for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) {
+                if (posePhase[i] == firstPhase || posePhase[i] == lastPhase) continue;
+                boolean generic = !goalSpecific.get(i);
+                if (drop < 0 || (generic && goalSpecific.get(drop))
+                        || (generic == !goalSpecific.get(drop) && poseMinutes[i] > poseMinutes[drop])) {
+                    drop = i;
+                }
+            }
+            if (drop < 0) break;
+            chosen.clear(drop);
+            total -= poseMinutes[drop];
+        }
+
+        List<YogaPose> out = new ArrayList<>(chosen.cardinality());
+        for (int i = chosen.nextSetBit(0); i >= 0; i = chosen.nextSetBit(i + 1)) out.add(poses[i]);
+        return new YogaPlanResponse(List.copyOf(out));
+    }
+
+    static String normalizeYogaGoal(String goal) {
+        if (goal == null) return GENERAL_GOAL;
+        String g = goal.toLowerCase(Locale.ROOT);
+        if (g.contains("stress") || g.contains("relax") || g.contains("calm") || g.contains("anxiety")) return "stress relief";
+        if (g.contains("sleep") || g.contains("evening") || g.contains("bed")) return "sleep";
+        if (g.contains("energy") || g.contains("morning") || g.contains("wake")) return "energy";
+        if (g.contains("flex") || g.contains("stretch") || g.contains("mobility")) return "flexibility";
+        if (g.contains("strength") || g.contains("core") || g.contains("power")) return "strength";
+        if (g.contains("balance") || g.contains("focus")) return "balance";
+        if (g.contains("back")) return "back pain";
+        return GENERAL_GOAL;
+    }
+
+    // ----------------------------------------------------------------
+
+    private static BitSet and(BitSet a, BitSet b) {
+        if (a == null || b == null) return new BitSet();
+        BitSet out = (BitSet) a.clone();
+        out.and(b);
+        return out;
+    }
+}
@@ -0,0 +1,116 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control in front of Gemini. At most {@code max-concurrency} calls are in flight;
+ * extra requests wait for a slot with a CoDel-style deadline: normally up to {@code interval-ms},
+ * but once the minimum queue delay over the last interval exceeded {@code target-ms} (the queue
+ * never drained) the wait drops to {@code target-ms}, so under sustained overload requests are
+ * shed to the local generators almost immediately instead of queueing behind 25 s calls.
+ */
+@Component
+@Slf4j
+public class GeminiAdmissionController {
+
+    private final Semaphore slots;
+    private final int maxConcurrency;
+    private final long targetNanos;
+    private final long intervalNanos;
+
+    private final Counter admitted;
+    private final Counter shed;
+    private final Timer queueTime;
+
+    // CoDel state, guarded by this
+    private long intervalStart = System.nanoTime();
+    private long minDelayInInterval = Long.MAX_VALUE;
+    private boolean overloaded;
+
+    public GeminiAdmissionController(@Value("${app.gemini.admission.max-concurrency:8}") int maxConcurrency,
+                                     @Value("${app.gemini.admission.target-ms:50}") long targetMs,
+                                     @Value("${app.gemini.admission.interval-ms:1000}") long intervalMs,
+                                     MeterRegistry registry) {
+        this.maxConcurrency = maxConcurrency;
+        this.slots = new Semaphore(maxConcurrency, true);
+        this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMs);
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMs);
+        this.admitted = Counter.builder("gemini.admission").tag("outcome", "admitted").register(registry);
+        this.shed = Counter.builder("gemini.admission").tag("outcome", "shed").register(registry);
+        this.queueTime = Timer.builder("gemini.admission.queue").description("Time spent waiting for a Gemini slot").register(registry);
+        Gauge.builder("gemini.inflight", this, GeminiAdmissionController::inFlight).register(registry);
+    }
+
+    /**
+     * Returns a permit to call Gemini (close it when the call returns), or null if the request
+     * should be served locally.
+     */
+    public Permit tryAcquire() {
+        long start = System.nanoTime();
+        boolean acquired = slots.tryAcquire();
+        if (!acquired) {
+            long waitNanos = isOverloaded(start) ? targetNanos : intervalNanos;
+            try {
+                acquired = slots.tryAcquire(waitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        long delay = System.nanoTime() - start;
+        recordDelay(start + delay, acquired ? delay : Math.max(delay, targetNanos + 1));
+        queueTime.record(delay, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            shed.increment();
+            return null;
+        }
+        admitted.increment();
+        return new Permit();
+    }
+
+    public int inFlight() {
+        return maxConcurrency - slots.availablePermits();
+    }
+
+    private synchronized boolean isOverloaded(long now) {
+        rollInterval(now);
+        return overloaded;
+    }
+
+    private synchronized void recordDelay(long now, long delay) {
+        rollInterval(now);
+        minDelayInInterval = Math.min(minDelayInInterval, delay);
+    }
+
+    private void rollInterval(long now) {
+        if (now - intervalStart < intervalNanos) return;
+        boolean wasOverloaded = overloaded;
+        // No sample in the interval means nobody queued at all
+        overloaded = minDelayInInterval != Long.MAX_VALUE && minDelayInInterval > targetNanos;
+        if (overloaded != wasOverloaded) {
+            log.warn("Gemini admission {} (in flight {}/{})", overloaded ? "entering overload: shedding early" : "recovered", inFlight(), maxConcurrency);
+        }
+        intervalStart = now;
+        minDelayInInterval = Long.MAX_VALUE;
+    }
+
+    public final class Permit implements AutoCloseable {
+        private boolean released;
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                slots.release();
+            }
+        }
+    }
+}
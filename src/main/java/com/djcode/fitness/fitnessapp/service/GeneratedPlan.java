@@ -0,0 +1,20 @@
+package com.djcode.fitness.fitnessapp.service;
+
+/**
+ * A generated plan together with where it came from: {@link PlanSource#GEMINI}, or
+ * {@link PlanSource#LOCAL} with the fallback reason.
+ */
+public record GeneratedPlan<T>(T plan, String source, String reason) {
+
+    public static <T> GeneratedPlan<T> gemini(T plan) {
+        return new GeneratedPlan<>(plan, PlanSource.GEMINI, null);
+    }
+
+    public static <T> GeneratedPlan<T> local(T plan, String reason) {
+        return new GeneratedPlan<>(plan, PlanSource.LOCAL, reason);
+    }
+
+    public boolean isLocal() {
+        return PlanSource.LOCAL.equals(source);
+    }
+}
@@ -0,0 +1,305 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.GeminiSchemas;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Generates several plans for one caller. When the estimated output of all requested plans fits
+ * the batch token budget they are asked for in a single Gemini call and demultiplexed by section
+ * key; otherwise each plan runs through AIService in parallel on the plan executor. Either way a
+ * section that is missing or invalid falls back to its local generator on its own. A combined batch
+ * first takes what the plan cache and precomputed catalog already hold and only asks for the rest.
+ */
+@Service
+@Slf4j
+@DeferredInit
+public class PlanBatchService {
+
+    static final String WORKOUT = "workout";
+    static final String DIET = "diet";
+    static final String YOGA = "yoga";
+    static final String RUNNING = "running";
+
+    // Rough output-token estimates per section, from typical Gemini answers to the single-plan prompts
+    static final int WORKOUT_TOKENS = 450;
+    static final int DIET_TOKENS = 500;
+    static final int YOGA_TOKENS = 550;
+    static final int RUNNING_TOKENS_PER_WEEK = 220;
+
+    private final AIService aiService;
+    private final FallbackPlanEngine fallbackPlanEngine;
+    private final JsonCodecs jsonCodecs;
+    private final PlanResponseRepair planRepair;
+    private final PayloadLog payloadLog;
+    private final ThreadPoolTaskExecutor planExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int maxOutputTokens;
+
+    public PlanBatchService(AIService aiService,
+                            FallbackPlanEngine fallbackPlanEngine,
+                            JsonCodecs jsonCodecs,
+                            PlanResponseRepair planRepair,
+                            PayloadLog payloadLog,
+                            @Qualifier("planExecutor") ThreadPoolTaskExecutor planExecutor,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.plans.batch.max-output-tokens:4096}") int maxOutputTokens) {
+        this.aiService = aiService;
+        this.fallbackPlanEngine = fallbackPlanEngine;
+        this.jsonCodecs = jsonCodecs;
+        this.planRepair = planRepair;
+        this.payloadLog = payloadLog;
+        this.planExecutor = planExecutor;
+        this.meterRegistry = meterRegistry;
+        this.maxOutputTokens = maxOutputTokens;
+    }
+
+    public BatchPlanResponse generate(BatchPlanRequest request) {
+        int sections = countSections(request);
+        if (sections == 0) {
+            throw new IllegalArgumentException("Batch request must contain at least one plan request");
+        }
+        int estimate = estimateOutputTokens(request);
+        boolean combined = sections > 1 && estimate <= maxOutputTokens;
+        log.info("Generating batch: {} plans, ~{} output tokens, mode={}", sections, estimate, combined ? "combined" : "parallel");
+        meterRegistry.counter("fitness.batch", "mode", combined ? "combined" : "parallel").increment();
+        return combined ? generateCombined(request) : generateParallel(request);
+    }
+
+    static int countSections(BatchPlanRequest request) {
+        int n = 0;
+        if (request.workout() != null) n++;
+        if (request.diet() != null) n++;
+        if (request.yoga() != null) n++;
+        if (request.running() != null) n++;
+        return n;
+    }
+
+    static int estimateOutputTokens(BatchPlanRequest request) {
+        int tokens = 0;
+        if (request.workout() != null) tokens += WORKOUT_TOKENS;
+        if (request.diet() != null) tokens += DIET_TOKENS;
+        if (request.yoga() != null) tokens += YOGA_TOKENS;
+        if (request.running() != null) tokens += RUNNING_TOKENS_PER_WEEK * Math.max(1, AIService.extractWeeks(request.running().timeframe()));
+        return tokens;
+    }
+
+    private BatchPlanResponse generateCombined(BatchPlanRequest request) {
+        Results results = new Results();
+        BatchPlanRequest misses = reuse(request, results);
+        if (countSections(misses) > 0) generateMisses(misses, results);
+        return results.toResponse();
+    }
+
+    /** Puts the sections already cached (or precomputed) into {@code results}; returns the rest. */
+    private BatchPlanRequest reuse(BatchPlanRequest request, Results results) {
+        GeneratedPlan<WorkoutResponse> workout = request.workout() == null ? null : aiService.reusable(request.workout());
+        GeneratedPlan<DietResponse> diet = request.diet() == null ? null
+                : aiService.reusable(PlanResponseCache.key(request.diet()), DietResponse.class);
+        GeneratedPlan<YogaPlanResponse> yoga = request.yoga() == null ? null
+                : aiService.reusable(PlanResponseCache.key(request.yoga()), YogaPlanResponse.class);
+        GeneratedPlan<RunningPlanResponse> running = request.running() == null ? null
+                : aiService.reusable(PlanResponseCache.key(request.running()), RunningPlanResponse.class);
+        if (workout != null) results.put(WORKOUT, workout);
+        if (diet != null) results.put(DIET, diet);
+        if (yoga != null) results.put(YOGA, yoga);
+        if (running != null) results.put(RUNNING, running);
+        return new BatchPlanRequest(
+                workout == null ? request.workout() : null,
+                diet == null ? request.diet() : null,
+                yoga == null ? request.yoga() : null,
+                running == null ? request.running() : null);
+    }
+
+    /** One Gemini call for all of {@code request}; its Gemini sections go into the plan cache. */
+    private void generateMisses(BatchPlanRequest request, Results results) {
+        AIService.GeminiReply reply = aiService.callGemini(buildBatchPrompt(request), "batch",
+                aiService.jsonOutput(maxOutputTokens, batchSchema(request)));
+        JsonNode root = null;
+        String failure = reply.failureReason();
+        if (reply.text() != null) {
+            try {
+                root = jsonCodecs.mapper().readTree(aiService.extractJsonFromResponse(reply.text()));
+            } catch (Exception ex) {
+                failure = PlanSource.REASON_INVALID;
+                log.warn("Failed to parse Gemini batch JSON: {}", ex.getMessage());
+                payloadLog.rejected("batch", reply.text());
+            }
+        }
+        if (request.workout() != null) {
+            Supplier<WorkoutResponse> fallback = () -> fallbackPlanEngine.workout(request.workout());
+            results.put(WORKOUT, aiService.keep(PlanResponseCache.key(request.workout()),
+                    section(root, failure, WORKOUT, text -> planRepair.workout(text, fallback), fallback)));
+        }
+        if (request.diet() != null) {
+            Supplier<DietResponse> fallback = () -> fallbackPlanEngine.diet(request.diet());
+            results.put(DIET, aiService.keep(PlanResponseCache.key(request.diet()),
+                    section(root, failure, DIET, text -> planRepair.diet(text, fallback), fallback)));
+        }
+        if (request.yoga() != null) {
+            Supplier<YogaPlanResponse> fallback = () -> fallbackPlanEngine.yoga(request.yoga());
+            results.put(YOGA, aiService.keep(PlanResponseCache.key(request.yoga()),
+                    section(root, failure, YOGA, text -> planRepair.yoga(text, fallback), fallback)));
+        }
+        if (request.running() != null) {
+            RunningPlanRequest running = request.running();
+            Supplier<RunningPlanResponse> fallback = () -> aiService.createFallbackRunningPlan(running);
+            results.put(RUNNING, aiService.keep(PlanResponseCache.key(running), section(root, failure, RUNNING, text -> {
+                int weeks = AIService.extractWeeks(running.timeframe());
+                GeneratedPlan<List<RunningWeek>> parsed = planRepair.runningWeeks(text, 1, weeks > 0 ? fallback.get().weeks() : null);
+                return parsed == null ? null
+                        : new GeneratedPlan<>(new RunningPlanResponse(parsed.plan()), parsed.source(), parsed.reason());
+            }, fallback)));
+        }
+    }
+
+    /**
+     * The {@code key} section of the combined answer, validated and topped up by {@code repair}
+     * exactly like a single-plan answer; the local plan if the section is missing or unusable.
+     */
+    private <T> GeneratedPlan<T> section(JsonNode root, String failure, String key,
+                                         Function<String, GeneratedPlan<T>> repair, Supplier<T> fallback) {
+        if (root != null) {
+            JsonNode node = root.get(key);
+            if (node != null && node.isObject()) {
+                String text = node.toString();
+                GeneratedPlan<T> plan = repair.apply(text);
+                if (plan != null) return plan;
+                payloadLog.rejected("batch " + key, text);
+            }
+            log.warn("Batch section {} missing or invalid, using local fallback", key);
+            failure = PlanSource.REASON_INVALID;
+        }
+        return GeneratedPlan.local(fallback.get(), failure);
+    }
+
+    private BatchPlanResponse generateParallel(BatchPlanRequest request) {
+        if (countSections(request) == 1) {
+            return generateInline(request);
+        }
+        Map<String, CompletableFuture<? extends GeneratedPlan<?>>> futures = new LinkedHashMap<>();
+        if (request.workout() != null) futures.put(WORKOUT, submit(() -> aiService.generateWorkoutPlan(request.workout())));
+        if (request.diet() != null) futures.put(DIET, submit(() -> aiService.generateDietPlan(request.diet())));
+        if (request.yoga() != null) futures.put(YOGA, submit(() -> aiService.generateYogaPlanWithSource(request.yoga())));
+        if (request.running() != null) futures.put(RUNNING, submit(() -> aiService.generateRunningPlanWithSource(request.running())));
+
+        Results results = new Results();
+        futures.forEach((key, future) -> results.put(key, future.join()));
+        return results.toResponse();
+    }
+
+    // A single plan needs no hand-off to another thread
+    private BatchPlanResponse generateInline(BatchPlanRequest request) {
+        Results results = new Results();
+        if (request.workout() != null) results.put(WORKOUT, aiService.generateWorkoutPlan(request.workout()));
+        if (request.diet() != null) results.put(DIET, aiService.generateDietPlan(request.diet()));
+        if (request.yoga() != null) results.put(YOGA, aiService.generateYogaPlanWithSource(request.yoga()));
+        if (request.running() != null) results.put(RUNNING, aiService.generateRunningPlanWithSource(request.running()));
+        return results.toResponse();
+    }
+
+    private <T> CompletableFuture<GeneratedPlan<T>> submit(Supplier<GeneratedPlan<T>> task) {
+        return CompletableFuture.supplyAsync(task, planExecutor);
+    }
+
+    /** One required property per requested section, each shaped like its plan DTO. */
+    static Map<String, Object> batchSchema(BatchPlanRequest request) {
+        Map<String, Map<String, Object>> sections = new LinkedHashMap<>();
+        if (request.workout() != null) sections.put(WORKOUT, GeminiSchemas.of(WorkoutResponse.class));
+        if (request.diet() != null) sections.put(DIET, GeminiSchemas.of(DietResponse.class));
+        if (request.yoga() != null) sections.put(YOGA, GeminiSchemas.of(YogaPlanResponse.class));
+        if (request.running() != null) sections.put(RUNNING, GeminiSchemas.of(RunningPlanResponse.class));
+        return GeminiSchemas.object(sections);
+    }
+
+    String buildBatchPrompt(BatchPlanRequest request) {
+        List<String> keys = new ArrayList<>();
+        StringBuilder sections = new StringBuilder();
+        if (request.workout() != null) {
+            WorkoutRequest w = request.workout();
+            keys.add(WORKOUT);
+            sections.append(String.format("""
+                    "workout": a %d-minute routine targeting %s muscles, %s level. 4-6 progressive, safe exercises.
+                      Format {"exercises":[{"name":"...","sets":"3","reps":"10-12","description":"..."}]}
+                    """, w.durationInMinutes(), w.targetMuscle(), w.fitnessLevel()));
+        }
+        if (request.diet() != null) {
+            DietRequest d = request.diet();
+            keys.add(DIET);
+            sections.append(String.format("""
+                    "diet": one-day meal plan. Preference:%s Goal:%s Calories:%d Allergies:%s. Breakfast, lunch, dinner and 1-2 snacks summing close to %d calories.
+                      Format {"meals":[{"name":"...","ingredients":"...","calories":"...","description":"..."}]}
+                    """, d.dietaryPreference(), d.fitnessGoal(), d.dailyCalories(), d.allergies(), d.dailyCalories()));
+        }
+        if (request.yoga() != null) {
+            YogaPlanRequest y = request.yoga();
+            keys.add(YOGA);
+            sections.append(String.format("""
+                    "yoga": a %d-minute flow for the goal %s, 6-10 sequential poses with standard names.
+                      Format {"poses":[{"name":"Mountain Pose","hold":"60 sec","description":"Brief alignment & breathing cues"}]}
+                    """, y.durationInMinutes(), y.goal()));
+        }
+        if (request.running() != null) {
+            RunningPlanRequest r = request.running();
+            keys.add(RUNNING);
+            sections.append(String.format("""
+                    "running": week-by-week plan to achieve %s within %s, %s level. Easy, long, interval/tempo, recovery and rest days; 5-7 sessions per week with at least one rest day; distances in km.
+                      Format {"weeks":[{"weekNumber":1,"sessions":[{"day":"Mon","type":"Easy Run","distance":"3 km","notes":"..."}]}]}
+                    """, r.goal(), r.timeframe(), r.fitnessLevel()));
+        }
+        return String.format("""
+                You are an expert fitness trainer, nutritionist, yoga instructor and running coach. Create every plan listed below.
+                Respond ONLY with valid JSON (no markdown): one object whose keys are exactly %s, each holding that plan in the given format.
+                %sConcise descriptions. No extra keys, no commentary outside JSON.
+                """, "\"" + String.join("\", \"", keys) + "\"", sections);
+    }
+
+    /** Collects per-section results and reports them in request order. */
+    private static final class Results {
+        private final Map<String, GeneratedPlan<?>> plans = new LinkedHashMap<>();
+
+        void put(String key, GeneratedPlan<?> plan) {
+            plans.put(key, plan);
+        }
+
+        BatchPlanResponse toResponse() {
+            Map<String, String> sources = new LinkedHashMap<>();
+            Map<String, String> reasons = new LinkedHashMap<>();
+            for (String key : List.of(WORKOUT, DIET, YOGA, RUNNING)) {
+                GeneratedPlan<?> plan = plans.get(key);
+                if (plan == null) continue;
+                sources.put(key, plan.source());
+                if (plan.reason() != null) reasons.put(key, plan.reason());
+            }
+            return new BatchPlanResponse(
+                    plan(WORKOUT, WorkoutResponse.class),
+                    plan(DIET, DietResponse.class),
+                    plan(YOGA, YogaPlanResponse.class),
+                    plan(RUNNING, RunningPlanResponse.class),
+                    sources,
+                    reasons);
+        }
+
+        private <T> T plan(String key, Class<T> type) {
+            GeneratedPlan<?> plan = plans.get(key);
+            return plan == null ? null : type.cast(plan.plan());
+        }
+    }
+}
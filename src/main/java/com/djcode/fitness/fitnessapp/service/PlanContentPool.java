@@ -0,0 +1,106 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Content-addressed pool for the immutable parts of cached plans. Equal strings and equal
+ * component records ({@link Exercise}, {@link Meal}, ...) resolve to one shared instance, so
+ * thousands of cached plans that all contain "Plank" hold a single copy of it. Entries are weakly
+ * referenced and disappear once no cached plan uses them.
+ */
+@Component
+public class PlanContentPool {
+
+    // Value is a weak reference to the key itself; a strong one would keep every entry alive
+    private final Map<Object, WeakReference<Object>> pool = new WeakHashMap<>();
+
+    public PlanContentPool(MeterRegistry meterRegistry) {
+        Gauge.builder("fitness.plan.pool.size", this, PlanContentPool::size).register(meterRegistry);
+    }
+
+    public synchronized int size() {
+        return pool.size();
+    }
+
+    /** Returns a plan equal to {@code plan} built from pooled components; other objects pass through. */
+    @SuppressWarnings("unchecked")
+    public <T> T intern(T plan) {
+        if (plan instanceof WorkoutResponse w) return (T) intern(w);
+        if (plan instanceof DietResponse d) return (T) intern(d);
+        if (plan instanceof YogaPlanResponse y) return (T) intern(y);
+        if (plan instanceof RunningPlanResponse r) return (T) intern(r);
+        return plan;
+    }
+
+    public WorkoutResponse intern(WorkoutResponse plan) {
+        if (plan.exercises() == null) return plan;
+        List<Exercise> out = new ArrayList<>(plan.exercises().size());
+        for (Exercise e : plan.exercises()) {
+            out.add(e == null ? null : canonical(new Exercise(string(e.name()), string(e.sets()), string(e.reps()), string(e.description()))));
+        }
+        return new WorkoutResponse(freeze(out));
+    }
+
+    public DietResponse intern(DietResponse plan) {
+        if (plan.meals() == null) return plan;
+        List<Meal> out = new ArrayList<>(plan.meals().size());
+        for (Meal m : plan.meals()) {
+            out.add(m == null ? null : canonical(new Meal(string(m.name()), string(m.ingredients()), string(m.calories()), string(m.description()))));
+        }
+        return new DietResponse(freeze(out));
+    }
+
+    public YogaPlanResponse intern(YogaPlanResponse plan) {
+        if (plan.poses() == null) return plan;
+        List<YogaPose> out = new ArrayList<>(plan.poses().size());
+        for (YogaPose p : plan.poses()) {
+            out.add(p == null ? null : canonical(new YogaPose(string(p.name()), string(p.hold()), string(p.description()))));
+        }
+        return new YogaPlanResponse(freeze(out));
+    }
+
+    public RunningPlanResponse intern(RunningPlanResponse plan) {
+        if (plan.weeks() == null) return plan;
+        List<RunningWeek> out = new ArrayList<>(plan.weeks().size());
+        for (RunningWeek w : plan.weeks()) {
+            if (w == null || w.sessions() == null) {
+                out.add(w);
+                continue;
+            }
+            List<RunningSession> sessions = new ArrayList<>(w.sessions().size());
+            for (RunningSession s : w.sessions()) {
+                sessions.add(s == null ? null : canonical(new RunningSession(string(s.day()), string(s.type()), string(s.distance()), string(s.notes()))));
+            }
+            out.add(canonical(new RunningWeek(w.weekNumber(), freeze(sessions))));
+        }
+        return new RunningPlanResponse(freeze(out));
+    }
+
+    private String string(String s) {
+        return s == null ? null : canonical(s);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized <T> T canonical(T value) {
+        WeakReference<Object> ref = pool.get(value);
+        Object existing = ref == null ? null : ref.get();
+        if (existing != null) return (T) existing;
+        pool.put(value, new WeakReference<>(value));
+        return value;
+    }
+
+    // List.copyOf rejects nulls; wrap such (malformed) lists instead of failing
+    private static <T> List<T> freeze(List<T> list) {
+        return list.contains(null) ? Collections.unmodifiableList(list) : List.copyOf(list);
+    }
+}
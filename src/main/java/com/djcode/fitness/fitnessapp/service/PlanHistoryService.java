@@ -0,0 +1,51 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.dto.PlanHistoryEntry;
+import com.djcode.fitness.fitnessapp.repository.PlanRecordRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Read side of the plans saved by {@link WeeklyAnalyticsService}. Plans are stored as JSON and
+ * never change, so their content hash is a stable ETag and a fetch returns the stored bytes as is.
+ */
+@Service
+@RequiredArgsConstructor
+@DeferredInit
+public class PlanHistoryService {
+
+    static final int MAX_PAGE = 100;
+
+    private final PlanRecordRepository planRecords;
+
+    /** A stored plan's JSON and its content hash. */
+    public record StoredPlan(byte[] json, String contentHash) {}
+
+    /** The user's plans newest first, {@code limit} at a time; {@code before} is the last id of the previous page. */
+    public List<PlanHistoryEntry> history(String userId, String before, int limit) {
+        PageRequest page = PageRequest.of(0, Math.max(1, Math.min(limit, MAX_PAGE)));
+        return before == null
+                ? planRecords.findByUserIdOrderByIdDesc(userId, page)
+                : planRecords.findByUserIdAndIdLessThanOrderByIdDesc(userId, before, page);
+    }
+
+    /** Content hash of one of the user's plans without reading the plan; null if unknown. */
+    public String contentHash(String userId, String id) {
+        return planRecords.findEntryByIdAndUserId(id, userId).map(PlanHistoryEntry::contentHash).orElse(null);
+    }
+
+    public Optional<StoredPlan> plan(String userId, String id) {
+        return planRecords.findByIdAndUserId(id, userId).map(record -> {
+            byte[] json = record.getPlan().getBytes(StandardCharsets.UTF_8);
+            // Plans saved before hashes were stored get theirs computed on read
+            String hash = record.getContentHash() != null ? record.getContentHash() : ContentHash.of(json);
+            return new StoredPlan(json, hash);
+        });
+    }
+}
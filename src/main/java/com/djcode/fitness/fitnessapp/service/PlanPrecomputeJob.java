@@ -0,0 +1,102 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Off-peak job that refreshes the {@link PrecomputedPlanCatalog}: takes the top-N workout keys
+ * by observed traffic, generates plans for keys that are missing or older than
+ * {@code refresh-after}, at most {@code max-gemini-calls} per run, and publishes the result as
+ * the new snapshot. Only Gemini answers are stored; keys whose call fell back keep their old
+ * plan, if any. Traffic counts are halved after each run.
+ */
+@Component
+@ConditionalOnProperty(name = "app.precompute.enabled", havingValue = "true")
+@Slf4j
+public class PlanPrecomputeJob {
+
+    private final PrecomputedPlanCatalog catalog;
+    private final ObjectProvider<AIService> aiService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.precompute.top-n:30}")
+    private int topN;
+
+    @Value("${app.precompute.min-requests:3}")
+    private long minRequests;
+
+    @Value("${app.precompute.max-gemini-calls:40}")
+    private int maxGeminiCalls;
+
+    @Value("${app.precompute.refresh-after:7d}")
+    private Duration refreshAfter;
+
+    public PlanPrecomputeJob(PrecomputedPlanCatalog catalog, ObjectProvider<AIService> aiService, MeterRegistry meterRegistry) {
+        this.catalog = catalog;
+        this.aiService = aiService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${app.precompute.cron:0 0 3 * * *}")
+    public void run() {
+        List<String> top = catalog.topKeys(topN, minRequests);
+        if (top.isEmpty()) {
+            log.info("Precompute: no workout key reached {} requests, keeping {} plans", minRequests, catalog.size());
+            return;
+        }
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Map<String, PrecomputedPlanCatalog.Entry> current = catalog.entries();
+
+        // Missing keys in rank order first, then stale ones oldest first
+        List<String> work = new ArrayList<>();
+        top.stream().filter(k -> !current.containsKey(k)).forEach(work::add);
+        top.stream().filter(current::containsKey)
+                .filter(k -> now - current.get(k).generatedAt() > refreshAfter.toMillis())
+                .sorted(Comparator.comparingLong(k -> current.get(k).generatedAt()))
+                .forEach(work::add);
+
+        Map<String, PrecomputedPlanCatalog.Entry> next = new LinkedHashMap<>();
+        for (String key : top) {
+            if (current.containsKey(key)) next.put(key, current.get(key));
+        }
+        int calls = 0, stored = 0;
+        for (String key : work) {
+            if (calls >= maxGeminiCalls) break;
+            calls++;
+            WorkoutRequest request = PrecomputedPlanCatalog.request(key);
+            GeneratedPlan<WorkoutResponse> generated = aiService.getObject().generateFreshWorkoutPlan(request);
+            if (!generated.isLocal()) {
+                next.put(key, new PrecomputedPlanCatalog.Entry(generated.plan(), now));
+                stored++;
+            }
+        }
+        meterRegistry.counter("fitness.precompute.calls").increment(calls);
+
+        if (stored > 0 || !next.keySet().equals(current.keySet())) {
+            try {
+                catalog.publish(next);
+            } catch (Exception ex) {
+                log.error("Precompute: failed to write plan snapshot: {}", ex.getMessage());
+                return;
+            }
+        }
+        catalog.decayTraffic();
+        log.info("Precompute: {} top keys, {} Gemini calls, {} plans refreshed, {} plans served in {} ms",
+                top.size(), calls, stored, catalog.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
@@ -0,0 +1,203 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.DietRequest;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.YogaPlanRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Cache of Gemini-generated plans keyed by normalized request, so repeated parameter
+ * combinations skip the LLM. Recent plans are held on the heap; older ones live in a
+ * memory-mapped {@link PlanSnapshot} that is rewritten every {@code write-interval} (and on
+ * shutdown) when something changed, and mapped again at startup instead of being rebuilt.
+ * Entries expire after {@code ttl}; at most {@code max-entries} of the newest are kept. Plans
+ * on the heap are built from {@link PlanContentPool} components, so repeated names and
+ * descriptions are stored once across all entries.
+ */
+@Component
+@Slf4j
+public class PlanResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern LIST_SEPARATOR = Pattern.compile("[,;/]|\\band\\b", Pattern.CASE_INSENSITIVE);
+
+    private final boolean enabled;
+    private final Path snapshotPath;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final PlanContentPool contentPool;
+
+    private final Map<String, PlanSnapshot.Entry> hot = new ConcurrentHashMap<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private volatile PlanSnapshot persisted;
+
+    private final Counter memoryHits;
+    private final Counter snapshotHits;
+    private final Counter misses;
+
+    public PlanResponseCache(@Value("${app.plan-cache.enabled:true}") boolean enabled,
+                             @Value("${app.plan-cache.snapshot-path:data/plan-cache.snap}") Path snapshotPath,
+                             @Value("${app.plan-cache.ttl:6h}") Duration ttl,
+                             @Value("${app.plan-cache.max-entries:50000}") int maxEntries,
+                             PlanContentPool contentPool,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.contentPool = contentPool;
+        this.snapshotPath = snapshotPath;
+        this.ttl = ttl;
+        this.maxEntries = maxEntries;
+        this.memoryHits = meterRegistry.counter("fitness.plan.cache", "result", "hit", "tier", "memory");
+        this.snapshotHits = meterRegistry.counter("fitness.plan.cache", "result", "hit", "tier", "snapshot");
+        this.misses = meterRegistry.counter("fitness.plan.cache", "result", "miss", "tier", "none");
+        Gauge.builder("fitness.plan.cache.size", this, c -> c.hot.size()).tag("tier", "memory").register(meterRegistry);
+        Gauge.builder("fitness.plan.cache.size", this, c -> c.persisted == null ? 0 : c.persisted.size())
+                .tag("tier", "snapshot").register(meterRegistry);
+        if (enabled) open();
+    }
+
+    public static String key(WorkoutRequest r) {
+        return "workout:" + PrecomputedPlanCatalog.key(r);
+    }
+
+    /**
+     * Keys on what the user typed rather than on the fallback engine's categories: those are coarse
+     * (halal and kosher read as balanced, unknown allergens are dropped), and a plan Gemini wrote
+     * for one user must not be served to another whose request only looks the same to the engine.
+     */
+    public static String key(DietRequest r) {
+        return "diet:" + normalize(r.dietaryPreference()) + "|" + normalize(r.fitnessGoal())
+                + "|" + r.dailyCalories() + "|" + String.join(",", tokens(r.allergies()));
+    }
+
+    public static String key(YogaPlanRequest r) {
+        return "yoga:" + normalize(r.goal()) + "|" + r.durationInMinutes();
+    }
+
+    public static String key(RunningPlanRequest r) {
+        return "running:" + normalize(r.goal()) + "|" + AIService.extractWeeks(r.timeframe())
+                + "|" + FallbackPlanEngine.normalizeLevel(r.fitnessLevel());
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : WHITESPACE.matcher(s.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    /** The entries of a list like "Peanuts, shellfish and dairy", normalized and sorted. */
+    private static TreeSet<String> tokens(String list) {
+        TreeSet<String> out = new TreeSet<>();
+        if (list == null) return out;
+        for (String raw : LIST_SEPARATOR.split(list)) {
+            String token = normalize(raw);
+            if (!token.isEmpty()) out.add(token);
+        }
+        return out;
+    }
+
+    public <T> T get(String key, Class<T> type) {
+        if (!enabled) return null;
+        PlanSnapshot.Entry entry = hot.get(key);
+        Counter hits = memoryHits;
+        if (entry == null) {
+            PlanSnapshot snapshot = persisted;
+            entry = snapshot == null ? null : snapshot.entry(key);
+            if (entry != null) {
+                hits = snapshotHits;
+                entry = new PlanSnapshot.Entry(key, contentPool.intern(entry.plan()), entry.generatedAt());
+                hot.putIfAbsent(key, entry);
+            }
+        }
+        if (entry == null || expired(entry, System.currentTimeMillis()) || !type.isInstance(entry.plan())) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return type.cast(entry.plan());
+    }
+
+    public void put(String key, Object plan) {
+        if (!enabled) return;
+        hot.put(key, new PlanSnapshot.Entry(key, contentPool.intern(plan), System.currentTimeMillis()));
+        dirty.set(true);
+        if (hot.size() > maxEntries) evictOldest(hot.size() - maxEntries * 9 / 10);
+    }
+
+    /** Rewrites the snapshot if anything was added since the last write. */
+    @Scheduled(fixedDelayString = "${app.plan-cache.write-interval:PT5M}", initialDelayString = "${app.plan-cache.write-interval:PT5M}")
+    public synchronized void persist() {
+        if (!enabled || !dirty.getAndSet(false)) return;
+        long start = System.nanoTime();
+        long now = System.currentTimeMillis();
+        Map<String, PlanSnapshot.Entry> all = new HashMap<>();
+        PlanSnapshot snapshot = persisted;
+        if (snapshot != null) {
+            snapshot.forEach(e -> {
+                if (!expired(e, now)) all.put(e.key(), e);
+            });
+        }
+        hot.values().forEach(e -> {
+            if (!expired(e, now)) all.put(e.key(), e);
+        });
+        List<PlanSnapshot.Entry> entries = new ArrayList<>(all.values());
+        if (entries.size() > maxEntries) {
+            entries.sort(Comparator.comparingLong(PlanSnapshot.Entry::generatedAt).reversed());
+            entries = entries.subList(0, maxEntries);
+        }
+        try {
+            PlanSnapshot.write(snapshotPath, entries);
+            persisted = PlanSnapshot.open(snapshotPath);
+            log.info("Wrote plan cache snapshot: {} plans in {} ms", entries.size(), (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception ex) {
+            dirty.set(true);
+            log.error("Failed to write plan cache snapshot {}: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        persist();
+    }
+
+    private void open() {
+        if (!Files.isRegularFile(snapshotPath)) return;
+        long start = System.nanoTime();
+        try {
+            persisted = PlanSnapshot.open(snapshotPath);
+            log.info("Mapped {} cached plans from {} in {} µs", persisted.size(), snapshotPath, (System.nanoTime() - start) / 1_000);
+        } catch (Exception ex) {
+            log.warn("Ignoring unreadable plan cache snapshot {}: {}", snapshotPath, ex.getMessage());
+        }
+    }
+
+    private boolean expired(PlanSnapshot.Entry entry, long now) {
+        return now - entry.generatedAt() > ttl.toMillis();
+    }
+
+    private void evictOldest(int count) {
+        hot.values().stream()
+                .sorted(Comparator.comparingLong(PlanSnapshot.Entry::generatedAt))
+                .limit(count)
+                .forEach(e -> hot.remove(e.key(), e));
+    }
+}
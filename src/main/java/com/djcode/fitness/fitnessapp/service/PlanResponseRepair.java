@@ -0,0 +1,288 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Validates Gemini plan answers and salvages what it can instead of dropping the whole answer on
+ * the first Jackson error. The item list is read with a lenient streaming parser that keeps every
+ * well-formed item up to the point where the text is cut off or broken; items with missing names
+ * or numbers outside sane ranges (sets, reps, calories, holds, distances) are dropped; and a plan
+ * left short is topped up from the local generator. Topped-up plans are reported as local with
+ * reason {@link PlanSource#REASON_PARTIAL}. Outcomes are counted in {@code fitness.gemini.repair}.
+ */
+@Component
+@Slf4j
+public class PlanResponseRepair {
+
+    static final String OUTCOME_VALID = "valid";
+    static final String OUTCOME_SALVAGED = "salvaged";
+    static final String OUTCOME_DISCARDED = "discarded";
+
+    // Same lower bounds the prompts ask for
+    static final int MIN_EXERCISES = 4;
+    static final int MIN_MEALS = 4;
+    static final int MIN_POSES = 6;
+
+    static final int MAX_SETS = 10;
+    static final int MAX_REPS = 100;
+    static final int MAX_SECONDS = 600;
+    static final int MIN_MEAL_CALORIES = 20;
+    static final int MAX_MEAL_CALORIES = 3000;
+    static final int MAX_SESSION_KM = 100;
+
+    private static final Pattern NUMBER = Pattern.compile("\\d+");
+    private static final Pattern THOUSANDS = Pattern.compile("(?<=\\d),(?=\\d{3}\\b)");
+
+    private final JsonCodecs jsonCodecs;
+    private final ObjectReader lenient;
+    private final MeterRegistry meterRegistry;
+
+    public PlanResponseRepair(JsonCodecs jsonCodecs, MeterRegistry meterRegistry) {
+        this.jsonCodecs = jsonCodecs;
+        this.meterRegistry = meterRegistry;
+        this.lenient = jsonCodecs.mapper().reader().withFeatures(
+                JsonReadFeature.ALLOW_TRAILING_COMMA,
+                JsonReadFeature.ALLOW_SINGLE_QUOTES,
+                JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES,
+                JsonReadFeature.ALLOW_JAVA_COMMENTS,
+                JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS);
+    }
+
+    /** The repaired workout, or null if nothing in {@code text} was usable. */
+    GeneratedPlan<WorkoutResponse> workout(String text, Supplier<WorkoutResponse> fallback) {
+        Salvage<Exercise> s = items("workout", text, "exercises", Exercise.class, PlanResponseRepair::checkExercise);
+        if (s == null) return null;
+        return finish("workout", s, MIN_EXERCISES, () -> fallback.get().exercises(), Exercise::name, WorkoutResponse::new);
+    }
+
+    GeneratedPlan<DietResponse> diet(String text, Supplier<DietResponse> fallback) {
+        Salvage<Meal> s = items("diet", text, "meals", Meal.class, PlanResponseRepair::checkMeal);
+        if (s == null) return null;
+        return finish("diet", s, MIN_MEALS, () -> fallback.get().meals(), Meal::name, DietResponse::new);
+    }
+
+    GeneratedPlan<YogaPlanResponse> yoga(String text, Supplier<YogaPlanResponse> fallback) {
+        Salvage<YogaPose> s = items("yoga", text, "poses", YogaPose.class, PlanResponseRepair::checkPose);
+        if (s == null) return null;
+        return finish("yoga", s, MIN_POSES, () -> fallback.get().poses(), YogaPose::name, YogaPlanResponse::new);
+    }
+
+    /**
+     * Running weeks numbered from {@code firstWeek}. {@code fallbackWeeks} holds the expected weeks
+     * of the local plan: missing ones are taken from it, extra ones are cut. Null means the number
+     * of weeks is unknown and whatever Gemini wrote is kept.
+     */
+    GeneratedPlan<List<RunningWeek>> runningWeeks(String text, int firstWeek, List<RunningWeek> fallbackWeeks) {
+        // Sessions dropped from a week that is kept count as dropped items too
+        int[] droppedSessions = {0};
+        Salvage<RunningWeek> s = items("runningPlan", text, "weeks", RunningWeek.class, w -> {
+            RunningWeek checked = checkWeek(w);
+            if (checked != null) droppedSessions[0] += w.sessions().size() - checked.sessions().size();
+            return checked;
+        });
+        if (s == null) return null;
+        List<RunningWeek> weeks = new ArrayList<>(s.items());
+        int dropped = s.dropped() + droppedSessions[0];
+        int toppedUp = 0;
+        if (fallbackWeeks != null) {
+            while (weeks.size() > fallbackWeeks.size()) {
+                weeks.remove(weeks.size() - 1);
+                dropped++;
+            }
+            for (int i = weeks.size(); i < fallbackWeeks.size(); i++) {
+                weeks.add(fallbackWeeks.get(i));
+                toppedUp++;
+            }
+        }
+        List<RunningWeek> numbered = new ArrayList<>(weeks.size());
+        for (int i = 0; i < weeks.size(); i++) {
+            numbered.add(new RunningWeek(firstWeek + i, weeks.get(i).sessions()));
+        }
+        return outcome("runningPlan", weeks.size() - toppedUp, dropped, s.complete(), toppedUp, numbered);
+    }
+
+    private <T, P> GeneratedPlan<P> finish(String type, Salvage<T> s, int min, Supplier<List<T>> fallback,
+                                           Function<T, String> name, Function<List<T>, P> plan) {
+        List<T> items = new ArrayList<>(s.items());
+        int toppedUp = 0;
+        if (items.size() < min) {
+            Set<String> names = new HashSet<>();
+            for (T item : items) names.add(normalize(name.apply(item)));
+            for (T extra : fallback.get()) {
+                if (items.size() >= min) break;
+                if (names.add(normalize(name.apply(extra)))) {
+                    items.add(extra);
+                    toppedUp++;
+                }
+            }
+        }
+        return outcome(type, s.items().size(), s.dropped(), s.complete(), toppedUp, plan.apply(items));
+    }
+
+    private <P> GeneratedPlan<P> outcome(String type, int kept, int dropped, boolean complete, int toppedUp, P plan) {
+        boolean clean = complete && dropped == 0 && toppedUp == 0;
+        count(type, clean ? OUTCOME_VALID : OUTCOME_SALVAGED);
+        countItems(type, "dropped", dropped);
+        countItems(type, "topped_up", toppedUp);
+        if (!clean) {
+            log.warn("Salvaged Gemini {} answer: kept {} items, dropped {}, topped up {}{}", type, kept,
+                    dropped, toppedUp, complete ? "" : " (cut off)");
+        }
+        return toppedUp > 0 ? GeneratedPlan.local(plan, PlanSource.REASON_PARTIAL) : GeneratedPlan.gemini(plan);
+    }
+
+    /** Items that survived, how many were dropped, and whether the list was read to its end. */
+    record Salvage<T>(List<T> items, int dropped, boolean complete) {}
+
+    /**
+     * Streams the {@code field} array (or a top-level array) item by item. Reading stops at the
+     * first syntax error or end of input, keeping everything read so far; an item that parses
+     * but does not bind or fails {@code check} is skipped. Null if no item survived.
+     */
+    <T> Salvage<T> items(String type, String text, String field, Class<T> itemType, UnaryOperator<T> check) {
+        List<T> items = new ArrayList<>();
+        int dropped = 0;
+        boolean complete = false;
+        int start = jsonStart(text);
+        if (start >= 0) {
+            try (JsonParser parser = lenient.createParser(text.substring(start))) {
+                if (seekArray(parser, field)) {
+                    ObjectReader reader = jsonCodecs.reader(itemType);
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+                        JsonNode node = parser.readValueAsTree();
+                        T item = null;
+                        if (node != null && node.isObject()) {
+                            try {
+                                item = check.apply(reader.readValue(node));
+                            } catch (Exception ex) {
+                                log.debug("Unbindable {} item {}: {}", type, node, ex.getMessage());
+                            }
+                        }
+                        if (item == null) dropped++;
+                        else items.add(item);
+                    }
+                    complete = token == JsonToken.END_ARRAY;
+                }
+            } catch (Exception ex) {
+                log.debug("Gemini {} answer unreadable after {} items: {}", type, items.size(), ex.getMessage());
+            }
+        }
+        if (items.isEmpty()) {
+            count(type, OUTCOME_DISCARDED);
+            log.warn("Discarded Gemini {} answer: no usable items ({} dropped)", type, dropped);
+            return null;
+        }
+        return new Salvage<>(items, dropped, complete);
+    }
+
+    private static int jsonStart(String text) {
+        if (text == null) return -1;
+        int object = text.indexOf('{');
+        int array = text.indexOf('[');
+        if (object < 0) return array;
+        if (array < 0) return object;
+        // A '[' before the first '{' is a top-level array, unless it is prose such as "[note]: {...}"
+        return array < object && text.indexOf(':', array) > object ? array : object;
+    }
+
+    /** Positions the parser on the START_ARRAY of {@code field}; false if there is none. */
+    private static boolean seekArray(JsonParser parser, String field) throws Exception {
+        JsonToken root = parser.nextToken();
+        if (root == JsonToken.START_ARRAY) return true;
+        if (root != JsonToken.START_OBJECT) return false;
+        JsonToken token;
+        while ((token = parser.nextToken()) == JsonToken.FIELD_NAME) {
+            String name = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (field.equals(name) && value == JsonToken.START_ARRAY) return true;
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // Warm-up answers are canned and would skew the salvaged/discarded ratio
+    private void count(String type, String outcome) {
+        if (GeminiClient.isCannedResponseActive()) return;
+        meterRegistry.counter("fitness.gemini.repair", "type", type, "outcome", outcome).increment();
+    }
+
+    private void countItems(String type, String action, int n) {
+        if (n == 0 || GeminiClient.isCannedResponseActive()) return;
+        meterRegistry.counter("fitness.gemini.repair.items", "type", type, "action", action).increment(n);
+    }
+
+    // ---- item checks: the item itself if usable, otherwise null ----
+
+    static Exercise checkExercise(Exercise e) {
+        if (blank(e.name()) || blank(e.sets()) || blank(e.reps())) return null;
+        if (!inRange(e.sets(), 1, MAX_SETS, true)) return null;
+        if (!inRange(e.reps(), 1, PlanNumbers.timed(e.reps()) ? MAX_SECONDS : MAX_REPS, false)) return null;
+        return e;
+    }
+
+    static Meal checkMeal(Meal m) {
+        if (blank(m.name()) || blank(m.calories())) return null;
+        return inRange(m.calories(), MIN_MEAL_CALORIES, MAX_MEAL_CALORIES, true) ? m : null;
+    }
+
+    static YogaPose checkPose(YogaPose p) {
+        if (blank(p.name()) || blank(p.hold())) return null;
+        return inRange(p.hold(), 1, MAX_SECONDS, false) ? p : null;
+    }
+
+    static RunningWeek checkWeek(RunningWeek w) {
+        if (w.sessions() == null) return null;
+        List<RunningSession> sessions = new ArrayList<>(w.sessions().size());
+        for (RunningSession s : w.sessions()) {
+            if (s == null || blank(s.day()) || blank(s.type())) continue;
+            if (PlanNumbers.meters(s.distance()) > MAX_SESSION_KM * 1000) continue;
+            sessions.add(s);
+        }
+        if (sessions.isEmpty()) return null;
+        return sessions.size() == w.sessions().size() ? w : new RunningWeek(w.weekNumber(), sessions);
+    }
+
+    /** Every number in {@code text} lies in [min, max]; with {@code required}, there must be one. */
+    static boolean inRange(String text, int min, int max, boolean required) {
+        Matcher m = NUMBER.matcher(THOUSANDS.matcher(text).replaceAll(""));
+        boolean any = false;
+        while (m.find()) {
+            any = true;
+            // Longer than any accepted value: also avoids int overflow
+            if (m.end() - m.start() > 6) return false;
+            int n = Integer.parseInt(m.group());
+            if (n < min || n > max) return false;
+        }
+        return any || !required;
+    }
+
+    private static boolean blank(String s) {
+        return s == null || s.isBlank();
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,364 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.GeminiSchemas;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Revises a previously generated plan after the user changed some parameters. Gemini gets the
+ * current plan as numbered lines plus the parameter diff and answers with edits only
+ * (replace/add/remove by number), so output size follows the size of the change. Edits are
+ * validated and merged locally. Changes that invalidate the whole plan (another muscle group,
+ * goal or level for running) regenerate it; an unusable edit answer falls back to full
+ * regeneration and an unreachable Gemini to the local generators.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@DeferredInit
+public class PlanRevisionService {
+
+    static final String MODE_UNCHANGED = "unchanged";
+    static final String MODE_DIFF = "diff";
+    static final String MODE_FULL = "full";
+    static final String MODE_LOCAL = "local";
+
+    // How far a revised day may miss the calorie target before it is regenerated instead
+    static final double KCAL_TOLERANCE = 0.15;
+
+    // The workout prompt asks for 4-6 exercises; longer sessions may hold one per this many minutes
+    static final int MAX_PROMPTED_EXERCISES = 6;
+    static final int MIN_MINUTES_PER_EXERCISE = 4;
+
+    private final AIService aiService;
+    private final FallbackPlanEngine fallbackPlanEngine;
+    private final JsonCodecs jsonCodecs;
+    private final MeterRegistry meterRegistry;
+    private final PayloadLog payloadLog;
+
+    // Edits only, so well below a full plan's budget
+    @Value("${app.gemini.max-output-tokens.revision:1024}")
+    private int revisionMaxTokens;
+
+    public WorkoutResponse reviseWorkout(WorkoutRevisionRequest revision) {
+        return PlanSource.record(reviseWorkoutPlan(revision));
+    }
+
+    public DietResponse reviseDiet(DietRevisionRequest revision) {
+        return PlanSource.record(reviseDietPlan(revision));
+    }
+
+    public RunningPlanResponse reviseRunningPlan(RunningPlanRevisionRequest revision) {
+        return PlanSource.record(reviseRunningPlanWithSource(revision));
+    }
+
+    GeneratedPlan<WorkoutResponse> reviseWorkoutPlan(WorkoutRevisionRequest revision) {
+        long start = System.nanoTime();
+        WorkoutRequest before = revision.previousRequest();
+        WorkoutRequest after = require(revision.request());
+        List<Exercise> current = revision.previousPlan() == null ? null : revision.previousPlan().exercises();
+        if (before == null || current == null || current.isEmpty() || !same(before.targetMuscle(), after.targetMuscle())) {
+            return full("workout", start, () -> aiService.generateWorkoutPlan(after));
+        }
+        List<String> changes = new ArrayList<>();
+        diff(changes, "duration (minutes)", before.durationInMinutes(), after.durationInMinutes());
+        diff(changes, "fitness level", before.fitnessLevel(), after.fitnessLevel());
+        if (changes.isEmpty()) return unchanged("workout", start, revision.previousPlan());
+
+        Revision<Exercise> edited = revise("workout", "exercise",
+                String.format("a %d-minute workout targeting %s muscles for %s fitness level",
+                        after.durationInMinutes(), after.targetMuscle(), after.fitnessLevel()),
+                changes, "",
+                current, e -> e.name() + " | sets " + e.sets() + " | reps " + e.reps(),
+                "{\"name\":\"...\",\"sets\":\"3\",\"reps\":\"10-12\",\"description\":\"...\"}",
+                Exercise.class, PlanResponseRepair::checkExercise);
+        if (edited.items() != null) {
+            WorkoutResponse merged = new WorkoutResponse(edited.items());
+            String mismatch = workoutMismatch(merged, after);
+            if (mismatch == null) return diffResult("workout", start, edited, merged);
+            log.warn("Workout revision does not fit the new request ({}), regenerating", mismatch);
+        }
+        if (edited.items() != null || PlanSource.REASON_INVALID.equals(edited.failureReason())) {
+            return full("workout", start, () -> aiService.generateWorkoutPlan(after));
+        }
+        return local("workout", start, fallbackPlanEngine.workout(after), edited.failureReason());
+    }
+
+    GeneratedPlan<DietResponse> reviseDietPlan(DietRevisionRequest revision) {
+        long start = System.nanoTime();
+        DietRequest before = revision.previousRequest();
+        DietRequest after = require(revision.request());
+        List<Meal> current = revision.previousPlan() == null ? null : revision.previousPlan().meals();
+        if (before == null || current == null || current.isEmpty()) {
+            return full("diet", start, () -> aiService.generateDietPlan(after));
+        }
+        List<String> changes = new ArrayList<>();
+        diff(changes, "dietary preference", before.dietaryPreference(), after.dietaryPreference());
+        diff(changes, "fitness goal", before.fitnessGoal(), after.fitnessGoal());
+        diff(changes, "daily calories", before.dailyCalories(), after.dailyCalories());
+        diff(changes, "allergies", before.allergies(), after.allergies());
+        if (changes.isEmpty()) return unchanged("diet", start, revision.previousPlan());
+
+        Revision<Meal> edited = revise("diet", "meal",
+                String.format("a one-day meal plan, preference %s, goal %s, %d kcal, allergies %s",
+                        after.dietaryPreference(), after.fitnessGoal(), after.dailyCalories(), after.allergies()),
+                changes, String.format(" Keep the daily total close to %d kcal and free of the listed allergens.", after.dailyCalories()),
+                current, m -> m.name() + " | " + m.calories() + " kcal | " + m.ingredients(),
+                "{\"name\":\"...\",\"ingredients\":\"...\",\"calories\":\"...\",\"description\":\"...\"}",
+                Meal.class, PlanResponseRepair::checkMeal);
+        if (edited.items() != null) {
+            DietResponse merged = new DietResponse(edited.items());
+            String mismatch = dietMismatch(merged, after);
+            if (mismatch == null) return diffResult("diet", start, edited, merged);
+            log.warn("Diet revision does not fit the new request ({}), regenerating", mismatch);
+        }
+        if (edited.items() != null || PlanSource.REASON_INVALID.equals(edited.failureReason())) {
+            return full("diet", start, () -> aiService.generateDietPlan(after));
+        }
+        return local("diet", start, fallbackPlanEngine.diet(after), edited.failureReason());
+    }
+
+    GeneratedPlan<RunningPlanResponse> reviseRunningPlanWithSource(RunningPlanRevisionRequest revision) {
+        long start = System.nanoTime();
+        RunningPlanRequest before = revision.previousRequest();
+        RunningPlanRequest after = require(revision.request());
+        List<RunningWeek> current = revision.previousPlan() == null ? null : revision.previousPlan().weeks();
+        if (before == null || current == null || current.isEmpty()
+                || !same(before.goal(), after.goal()) || !same(before.fitnessLevel(), after.fitnessLevel())) {
+            return full("running", start, () -> aiService.generateRunningPlanWithSource(after));
+        }
+        List<String> changes = new ArrayList<>();
+        diff(changes, "timeframe", before.timeframe(), after.timeframe());
+        if (changes.isEmpty()) return unchanged("running", start, revision.previousPlan());
+
+        int targetWeeks = AIService.extractWeeks(after.timeframe());
+        String constraint = targetWeeks > 0
+                ? String.format(" The revised plan must have exactly %d weeks (currently %d); add or remove weeks at the end and adjust the final weeks to peak and taper.", targetWeeks, current.size())
+                : "";
+        Revision<RunningWeek> edited = revise("running plan", "week",
+                String.format("a running plan to achieve %s within %s, %s level", after.goal(), after.timeframe(), after.fitnessLevel()),
+                changes, constraint,
+                current, PlanRevisionService::weekLine,
+                "{\"weekNumber\":1,\"sessions\":[{\"day\":\"Mon\",\"type\":\"Easy Run\",\"distance\":\"3 km\",\"notes\":\"...\"}]}",
+                RunningWeek.class, PlanResponseRepair::checkWeek);
+        if (edited.items() != null && (targetWeeks <= 0 || edited.items().size() == targetWeeks)) {
+            List<RunningWeek> numbered = new ArrayList<>(edited.items().size());
+            for (int i = 0; i < edited.items().size(); i++) {
+                numbered.add(new RunningWeek(i + 1, edited.items().get(i).sessions()));
+            }
+            return diffResult("running", start, edited, new RunningPlanResponse(numbered));
+        }
+        if (edited.items() != null || PlanSource.REASON_INVALID.equals(edited.failureReason())) {
+            log.warn("Running plan revision did not yield {} weeks, regenerating", targetWeeks);
+            return full("running", start, () -> aiService.generateRunningPlanWithSource(after));
+        }
+        return local("running", start, aiService.createFallbackRunningPlan(after), edited.failureReason());
+    }
+
+    /** Merged items, or null with the reason the edit answer could not be used. */
+    record Revision<T>(List<T> items, String failureReason, int edits) {}
+
+    private <T> Revision<T> revise(String plan, String item, String context, List<String> changes, String constraint,
+                                   List<T> current, Function<T, String> line, String itemFormat,
+                                   Class<T> itemType, UnaryOperator<T> check) {
+        // callGemini logs the prompt and answer of sampled calls to the payload log
+        String prompt = buildRevisionPrompt(plan, item, context, changes, constraint, current, line, itemFormat);
+        AIService.GeminiReply reply = aiService.callGemini(prompt, plan + " revision",
+                aiService.jsonOutput(revisionMaxTokens, editsSchema(itemType)));
+        if (reply.text() == null) return new Revision<>(null, reply.failureReason(), 0);
+        try {
+            JsonNode edits = jsonCodecs.mapper().readTree(aiService.extractJsonFromResponse(reply.text()));
+            return applyEdits(edits, current, itemType, check);
+        } catch (Exception ex) {
+            log.warn("Failed to apply Gemini {} revision: {}", plan, ex.getMessage());
+            payloadLog.rejected(plan + " revision", reply.text());
+            return new Revision<>(null, PlanSource.REASON_INVALID, 0);
+        }
+    }
+
+    /** Response schema for the edits answer: {"replace":[{"index","item"}],"add":[item],"remove":[index]}. */
+    static Map<String, Object> editsSchema(Class<?> itemType) {
+        Map<String, Object> item = GeminiSchemas.of(itemType);
+        Map<String, Object> replacement = Map.of("type", "OBJECT",
+                "properties", Map.of("index", Map.of("type", "INTEGER"), "item", item),
+                "required", List.of("index", "item"));
+        return Map.of("type", "OBJECT", "properties", Map.of(
+                "replace", Map.of("type", "ARRAY", "items", replacement),
+                "add", Map.of("type", "ARRAY", "items", item),
+                "remove", Map.of("type", "ARRAY", "items", Map.of("type", "INTEGER"))));
+    }
+
+    static <T> String buildRevisionPrompt(String plan, String item, String context, List<String> changes, String constraint,
+                                          List<T> current, Function<T, String> line, String itemFormat) {
+        StringBuilder numbered = new StringBuilder();
+        for (int i = 0; i < current.size(); i++) {
+            numbered.append(i + 1).append(". ").append(line.apply(current.get(i))).append('\n');
+        }
+        return String.format("""
+                You are revising an existing %s, now %s.
+                The user changed: %s.
+                Current %ss:
+                %sChange only what the new parameters require and leave every other %s untouched.%s
+                Respond ONLY with valid JSON (no markdown) listing the edits:
+                {"replace":[{"index":1,"item":%s}],"add":[%s],"remove":[2]}
+                index refers to the numbers above. Omit empty lists. Do not repeat unchanged %ss. No extra keys.
+                """, plan, context, String.join("; ", changes), item, numbered, item, constraint, itemFormat, itemFormat, item);
+    }
+
+    <T> Revision<T> applyEdits(JsonNode edits, List<T> current, Class<T> itemType, UnaryOperator<T> check) throws Exception {
+        List<T> merged = new ArrayList<>(current);
+        Set<Integer> touched = new HashSet<>();
+        int count = 0;
+        for (JsonNode op : edits.path("replace")) {
+            int index = op.path("index").asInt(0);
+            JsonNode node = op.get("item");
+            if (index < 1 || index > current.size() || !touched.add(index) || node == null || !node.isObject()) {
+                throw new IllegalArgumentException("bad replace at index " + index);
+            }
+            merged.set(index - 1, readValid(node, itemType, check));
+            count++;
+        }
+        List<Integer> removals = new ArrayList<>();
+        for (JsonNode index : edits.path("remove")) {
+            int i = index.asInt(0);
+            if (i < 1 || i > current.size() || !touched.add(i)) {
+                throw new IllegalArgumentException("bad remove at index " + i);
+            }
+            removals.add(i);
+        }
+        removals.sort((a, b) -> b - a);
+        for (int i : removals) merged.remove(i - 1);
+        count += removals.size();
+        for (JsonNode node : edits.path("add")) {
+            merged.add(readValid(node, itemType, check));
+            count++;
+        }
+        if (merged.isEmpty()) throw new IllegalArgumentException("revision removed every item");
+        return new Revision<>(List.copyOf(merged), null, count);
+    }
+
+    /** The item in {@code node} as {@link PlanResponseRepair} would accept it in a full answer. */
+    private <T> T readValid(JsonNode node, Class<T> itemType, UnaryOperator<T> check) throws Exception {
+        T item = jsonCodecs.reader(itemType).readValue(node);
+        T checked = item == null ? null : check.apply(item);
+        if (checked == null) throw new IllegalArgumentException("unusable " + itemType.getSimpleName());
+        return checked;
+    }
+
+    /**
+     * Why merged exercises do not suit {@code request}, or null if they do: fewer than a full
+     * answer must have, or more than fit the new duration at {@link #MIN_MINUTES_PER_EXERCISE}.
+     */
+    static String workoutMismatch(WorkoutResponse plan, WorkoutRequest request) {
+        int count = plan.exercises().size();
+        if (count < PlanResponseRepair.MIN_EXERCISES) return count + " exercises";
+        int max = Math.max(MAX_PROMPTED_EXERCISES, request.durationInMinutes() / MIN_MINUTES_PER_EXERCISE);
+        if (count > max) return count + " exercises for " + request.durationInMinutes() + " minutes";
+        return null;
+    }
+
+    /**
+     * Why merged meals do not suit {@code request}, or null if they do. Edits are checked one by
+     * one, but only the merged day shows whether an untouched meal still holds a newly listed
+     * allergen or whether the total moved to the new calorie target.
+     */
+    static String dietMismatch(DietResponse plan, DietRequest request) {
+        Set<String> allergens = FallbackPlanEngine.parseAllergies(request.allergies());
+        if (!allergens.isEmpty()) {
+            for (Meal meal : plan.meals()) {
+                Set<String> found = new HashSet<>(FallbackPlanEngine.parseAllergies(meal.name() + ", " + meal.ingredients()));
+                found.retainAll(allergens);
+                if (!found.isEmpty()) return meal.name() + " contains " + String.join(", ", found);
+            }
+        }
+        int target = request.dailyCalories();
+        int total = plan.totalKcal();
+        if (target > 0 && Math.abs(total - target) > target * KCAL_TOLERANCE) {
+            return total + " kcal instead of " + target;
+        }
+        return null;
+    }
+
+    private static String weekLine(RunningWeek week) {
+        return "week " + week.weekNumber() + ": " + week.sessions().stream()
+                .map(s -> s.day() + " " + s.type() + " " + s.distance())
+                .collect(Collectors.joining(", "));
+    }
+
+    private <T> GeneratedPlan<T> diffResult(String type, long start, Revision<?> edited, T plan) {
+        log.info("Revised {} via Gemini with {} edits", type, edited.edits());
+        DistributionSummary.builder("fitness.revise.edits")
+                .description("Items replaced, added or removed per revision")
+                .tag("type", type)
+                .register(meterRegistry)
+                .record(edited.edits());
+        return timed(type, MODE_DIFF, start, GeneratedPlan.gemini(plan));
+    }
+
+    private <T> GeneratedPlan<T> full(String type, long start, Supplier<GeneratedPlan<T>> regenerate) {
+        log.info("Revision of {} needs a full regeneration", type);
+        return timed(type, MODE_FULL, start, regenerate.get());
+    }
+
+    private <T> GeneratedPlan<T> unchanged(String type, long start, T plan) {
+        return timed(type, MODE_UNCHANGED, start, new GeneratedPlan<>(plan, PlanSource.UNCHANGED, null));
+    }
+
+    private <T> GeneratedPlan<T> local(String type, long start, T plan, String reason) {
+        log.warn("Falling back to dynamic {} for revision", type);
+        return timed(type, MODE_LOCAL, start, GeneratedPlan.local(plan, reason));
+    }
+
+    private <T> GeneratedPlan<T> timed(String type, String mode, long start, GeneratedPlan<T> result) {
+        Timer.builder("fitness.revise")
+                .tag("type", type)
+                .tag("mode", mode)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return result;
+    }
+
+    private static <T> T require(T request) {
+        if (request == null) throw new IllegalArgumentException("Revision request must contain the new request parameters");
+        return request;
+    }
+
+    private static void diff(List<String> changes, String field, Object before, Object after) {
+        boolean changed = before instanceof String || after instanceof String
+                ? !same((String) before, (String) after)
+                : !Objects.equals(before, after);
+        if (changed) changes.add(field + " " + before + " -> " + after);
+    }
+
+    private static boolean same(String a, String b) {
+        return normalize(a).equals(normalize(b));
+    }
+
+    private static String normalize(String s) {
+        return s == null ? "" : s.trim().toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,340 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Read-only, memory-mapped snapshot of generated plans (workout, diet, yoga, running) keyed by
+ * string. Opening a snapshot only validates the header; lookups binary-search the index and
+ * decode the one plan straight from the mapping, so the file costs no heap until it is read.
+ *
+ * <pre>
+ * header   magic "FPSP", u16 version, u16 flags, i32 entryCount, i32 stringCount,
+ *          i32 stringOffsetsPos, i32 stringDataPos, i32 indexPos, i32 dataPos
+ * strings  (stringCount + 1) i32 offsets into the UTF-8 string data; string id n spans
+ *          [offset[n-1], offset[n]), id 0 is null. Every distinct string (keys, exercise and
+ *          meal names, descriptions, ...) is stored once.
+ * index    entryCount x (i32 keyHash, i32 keyId, i32 type, i32 dataOffset, i32 dataLength,
+ *          i64 generatedAt), sorted by keyHash then key
+ * data     per plan: varint item count, then per item its string ids as varints
+ *          (running weeks: varint weekNumber, varint session count, sessions)
+ * </pre>
+ *
+ * Files are written to a temp file, fsynced and atomically renamed over the target, so a crash
+ * leaves either the old or the new snapshot. Readers reject unknown versions.
+ */
+public final class PlanSnapshot {
+
+    static final int MAGIC = 0x46505350; // "FPSP"
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 32;
+    static final int INDEX_ENTRY_SIZE = 28;
+
+    static final int TYPE_WORKOUT = 1;
+    static final int TYPE_DIET = 2;
+    static final int TYPE_YOGA = 3;
+    static final int TYPE_RUNNING = 4;
+
+    /** A plan (one of the four response DTOs) under its key. */
+    public record Entry(String key, Object plan, long generatedAt) {}
+
+    private final ByteBuffer buffer;
+    private final int entryCount;
+    private final int stringOffsetsPos;
+    private final int stringDataPos;
+    private final int indexPos;
+    private final int dataPos;
+
+    private PlanSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) throw new IOException("not a plan snapshot");
+        short version = buffer.getShort(4);
+        if (version != VERSION) throw new IOException("unsupported plan snapshot version " + version);
+        this.entryCount = buffer.getInt(8);
+        this.stringOffsetsPos = buffer.getInt(16);
+        this.stringDataPos = buffer.getInt(20);
+        this.indexPos = buffer.getInt(24);
+        this.dataPos = buffer.getInt(28);
+        if (indexPos + (long) entryCount * INDEX_ENTRY_SIZE > dataPos || dataPos > buffer.capacity()) {
+            throw new IOException("truncated plan snapshot");
+        }
+    }
+
+    public static PlanSnapshot open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("plan snapshot larger than 2 GB");
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new PlanSnapshot(mapped);
+        }
+    }
+
+    public int size() {
+        return entryCount;
+    }
+
+    public Object get(String key) {
+        int i = find(key);
+        return i < 0 ? null : decodePlan(i);
+    }
+
+    public <T> T get(String key, Class<T> type) {
+        Object plan = get(key);
+        return type.isInstance(plan) ? type.cast(plan) : null;
+    }
+
+    public Entry entry(String key) {
+        int i = find(key);
+        return i < 0 ? null : new Entry(key, decodePlan(i), buffer.getLong(indexAt(i) + 20));
+    }
+
+    /** Decodes every entry in index order. */
+    public void forEach(Consumer<Entry> action) {
+        for (int i = 0; i < entryCount; i++) {
+            int at = indexAt(i);
+            action.accept(new Entry(string(buffer.getInt(at + 4)), decodePlan(i), buffer.getLong(at + 20)));
+        }
+    }
+
+    private int indexAt(int i) {
+        return indexPos + i * INDEX_ENTRY_SIZE;
+    }
+
+    private int find(String key) {
+        int hash = key.hashCode();
+        int lo = 0, hi = entryCount;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (buffer.getInt(indexAt(mid)) < hash) lo = mid + 1;
+            else hi = mid;
+        }
+        byte[] target = null;
+        for (int i = lo; i < entryCount && buffer.getInt(indexAt(i)) == hash; i++) {
+            if (target == null) target = key.getBytes(StandardCharsets.UTF_8);
+            if (stringEquals(buffer.getInt(indexAt(i) + 4), target)) return i;
+        }
+        return -1;
+    }
+
+    private boolean stringEquals(int id, byte[] target) {
+        int start = buffer.getInt(stringOffsetsPos + (id - 1) * 4);
+        int end = buffer.getInt(stringOffsetsPos + id * 4);
+        if (end - start != target.length) return false;
+        for (int i = 0; i < target.length; i++) {
+            if (buffer.get(stringDataPos + start + i) != target[i]) return false;
+        }
+        return true;
+    }
+
+    String string(int id) {
+        if (id == 0) return null;
+        int start = buffer.getInt(stringOffsetsPos + (id - 1) * 4);
+        int end = buffer.getInt(stringOffsetsPos + id * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringDataPos + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private Object decodePlan(int i) {
+        int at = indexAt(i);
+        int type = buffer.getInt(at + 8);
+        Cursor in = new Cursor(dataPos + buffer.getInt(at + 12));
+        int n = in.varint();
+        switch (type) {
+            case TYPE_WORKOUT -> {
+                List<Exercise> exercises = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) exercises.add(new Exercise(in.string(), in.string(), in.string(), in.string()));
+                return new WorkoutResponse(exercises);
+            }
+            case TYPE_DIET -> {
+                List<Meal> meals = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) meals.add(new Meal(in.string(), in.string(), in.string(), in.string()));
+                return new DietResponse(meals);
+            }
+            case TYPE_YOGA -> {
+                List<YogaPose> poses = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) poses.add(new YogaPose(in.string(), in.string(), in.string()));
+                return new YogaPlanResponse(poses);
+            }
+            case TYPE_RUNNING -> {
+                List<RunningWeek> weeks = new ArrayList<>(n);
+                for (int k = 0; k < n; k++) {
+                    int weekNumber = in.varint();
+                    int sessionCount = in.varint();
+                    List<RunningSession> sessions = new ArrayList<>(sessionCount);
+                    for (int s = 0; s < sessionCount; s++) {
+                        sessions.add(new RunningSession(in.string(), in.string(), in.string(), in.string()));
+                    }
+                    weeks.add(new RunningWeek(weekNumber, sessions));
+                }
+                return new RunningPlanResponse(weeks);
+            }
+            default -> throw new IllegalStateException("unknown plan type " + type);
+        }
+    }
+
+    /** Absolute read position over the shared buffer; one per decode, so reads are thread-safe. */
+    private final class Cursor {
+        private int pos;
+
+        Cursor(int pos) {
+            this.pos = pos;
+        }
+
+        int varint() {
+            int value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = buffer.get(pos++);
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) return value;
+            }
+        }
+
+        String string() {
+            return PlanSnapshot.this.string(varint());
+        }
+    }
+
+    // ---- writing ----
+
+    /** Writes {@code entries} to {@code target} crash-safely (temp file, fsync, atomic rename). */
+    public static void write(Path target, Collection<Entry> entries) throws IOException {
+        Encoder encoder = new Encoder();
+        List<int[]> index = new ArrayList<>(entries.size());
+        List<Long> generatedAt = new ArrayList<>(entries.size());
+        for (Entry e : entries) {
+            int keyId = encoder.id(e.key());
+            int offset = encoder.data.size();
+            int type = encoder.plan(e.plan());
+            index.add(new int[]{e.key().hashCode(), keyId, type, offset, encoder.data.size() - offset, generatedAt.size()});
+            generatedAt.add(e.generatedAt());
+        }
+        List<String> strings = encoder.strings;
+        index.sort(Comparator.<int[]>comparingInt(r -> r[0]).thenComparing(r -> strings.get(r[1] - 1)));
+
+        byte[][] utf8 = new byte[strings.size()][];
+        long stringBytes = 0;
+        for (int i = 0; i < utf8.length; i++) {
+            utf8[i] = strings.get(i).getBytes(StandardCharsets.UTF_8);
+            stringBytes += utf8[i].length;
+        }
+        long stringOffsetsPos = HEADER_SIZE;
+        long stringDataPos = stringOffsetsPos + 4L * (strings.size() + 1);
+        long indexPos = stringDataPos + stringBytes;
+        long dataPos = indexPos + (long) INDEX_ENTRY_SIZE * index.size();
+        if (dataPos + encoder.data.size() > Integer.MAX_VALUE) throw new IOException("plan snapshot would exceed 2 GB");
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeShort(VERSION);
+                out.writeShort(0);
+                out.writeInt(index.size());
+                out.writeInt(strings.size());
+                out.writeInt((int) stringOffsetsPos);
+                out.writeInt((int) stringDataPos);
+                out.writeInt((int) indexPos);
+                out.writeInt((int) dataPos);
+                int offset = 0;
+                out.writeInt(offset);
+                for (byte[] s : utf8) {
+                    offset += s.length;
+                    out.writeInt(offset);
+                }
+                for (byte[] s : utf8) out.write(s);
+                for (int[] r : index) {
+                    out.writeInt(r[0]);
+                    out.writeInt(r[1]);
+                    out.writeInt(r[2]);
+                    out.writeInt(r[3]);
+                    out.writeInt(r[4]);
+                    out.writeLong(generatedAt.get(r[5]));
+                }
+                encoder.data.writeTo(out);
+                out.flush();
+                channel.force(true);
+            }
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /** Dictionary-encodes strings and serializes plans into one data block. */
+    private static final class Encoder {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> strings = new ArrayList<>();
+        final ByteArrayOutputStream data = new ByteArrayOutputStream(1 << 16);
+
+        int id(String s) {
+            if (s == null) return 0;
+            return ids.computeIfAbsent(s, k -> {
+                strings.add(k);
+                return strings.size();
+            });
+        }
+
+        int plan(Object plan) {
+            if (plan instanceof WorkoutResponse w) {
+                varint(w.exercises().size());
+                for (Exercise e : w.exercises()) strings(e.name(), e.sets(), e.reps(), e.description());
+                return TYPE_WORKOUT;
+            }
+            if (plan instanceof DietResponse d) {
+                varint(d.meals().size());
+                for (Meal m : d.meals()) strings(m.name(), m.ingredients(), m.calories(), m.description());
+                return TYPE_DIET;
+            }
+            if (plan instanceof YogaPlanResponse y) {
+                varint(y.poses().size());
+                for (YogaPose p : y.poses()) strings(p.name(), p.hold(), p.description());
+                return TYPE_YOGA;
+            }
+            if (plan instanceof RunningPlanResponse r) {
+                varint(r.weeks().size());
+                for (RunningWeek w : r.weeks()) {
+                    varint(w.weekNumber());
+                    varint(w.sessions().size());
+                    for (RunningSession s : w.sessions()) strings(s.day(), s.type(), s.distance(), s.notes());
+                }
+                return TYPE_RUNNING;
+            }
+            throw new IllegalArgumentException("not a plan: " + (plan == null ? null : plan.getClass().getName()));
+        }
+
+        private void strings(String... values) {
+            for (String v : values) varint(id(v));
+        }
+
+        private void varint(int value) {
+            while ((value & ~0x7F) != 0) {
+                data.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data.write(value);
+        }
+    }
+}
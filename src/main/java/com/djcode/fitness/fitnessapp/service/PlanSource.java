@@ -0,0 +1,52 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Records, per HTTP request, whether the returned plan came from Gemini or from the local
+ * generators (and why). Written to the response as X-Plan-Source / X-Plan-Fallback-Reason.
+ * Calls outside a request thread (warm-up, background jobs) are ignored.
+ */
+public final class PlanSource {
+
+    public static final String SOURCE_ATTRIBUTE = PlanSource.class.getName() + ".source";
+    public static final String REASON_ATTRIBUTE = PlanSource.class.getName() + ".reason";
+
+    public static final String GEMINI = "gemini";
+    public static final String LOCAL = "local";
+    /** Served from the snapshot built by the precompute job. */
+    public static final String PRECOMPUTED = "precomputed";
+    /** Served from the plan cache (an earlier Gemini answer for the same parameters). */
+    public static final String CACHED = "cached";
+    /** A revision with no parameter change: the caller's plan is returned as is. */
+    public static final String UNCHANGED = "unchanged";
+
+    public static final String REASON_SHED = "shed";
+    public static final String REASON_UNAVAILABLE = "unavailable";
+    public static final String REASON_INVALID = "invalid-response";
+    public static final String REASON_PARTIAL = "partial";
+
+    private PlanSource() {}
+
+    /** Records the plan's source on the current request and returns the plan. */
+    public static <T> T record(GeneratedPlan<T> generated) {
+        set(SOURCE_ATTRIBUTE, generated.source(), true);
+        if (generated.reason() != null) set(REASON_ATTRIBUTE, generated.reason(), false);
+        return generated.plan();
+    }
+
+    /** The source recorded on the current request so far; null outside a request or before any. */
+    public static String recorded() {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        return attrs == null ? null : (String) attrs.getAttribute(SOURCE_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    private static void set(String name, String value, boolean overwrite) {
+        RequestAttributes attrs = RequestContextHolder.getRequestAttributes();
+        if (attrs == null) return;
+        if (overwrite || attrs.getAttribute(name, RequestAttributes.SCOPE_REQUEST) == null) {
+            attrs.setAttribute(name, value, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Workout plans precomputed for the most requested parameter combinations. Plans live in a
+ * memory-mapped {@link PlanSnapshot}: startup only maps the file, a plan is decoded from the
+ * mapping on its first hit and kept decoded (with pooled components) afterwards. While precompute is
+ * enabled it also counts workout requests per normalized key so {@link PlanPrecomputeJob} knows which
+ * combinations are worth precomputing. At most {@code max-tracked-keys} keys are counted; beyond that
+ * the least requested tenth is dropped, so distinct request parameters cannot grow the map between decays.
+ */
+@Component
+@Slf4j
+public class PrecomputedPlanCatalog {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** A stored plan and when Gemini generated it. */
+    public record Entry(WorkoutResponse plan, long generatedAt) {}
+
+    private final Path snapshotPath;
+    private final PlanContentPool contentPool;
+    private final boolean countTraffic;
+    private final int maxTrackedKeys;
+    private final Map<String, LongAdder> traffic = new ConcurrentHashMap<>();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+    private final Counter hits;
+    private final Counter misses;
+
+    // Replaced as a whole on publish; readers never see a half-built snapshot
+    private volatile Loaded loaded = Loaded.EMPTY;
+
+    public PrecomputedPlanCatalog(@Value("${app.precompute.enabled:false}") boolean countTraffic,
+                                  @Value("${app.precompute.max-tracked-keys:10000}") int maxTrackedKeys,
+                                  @Value("${app.precompute.snapshot-path:data/workout-catalog.snap}") Path snapshotPath,
+                                  PlanContentPool contentPool,
+                                  MeterRegistry meterRegistry) {
+        this.countTraffic = countTraffic;
+        this.maxTrackedKeys = maxTrackedKeys;
+        this.snapshotPath = snapshotPath;
+        this.contentPool = contentPool;
+        this.hits = meterRegistry.counter("fitness.catalog", "result", "hit");
+        this.misses = meterRegistry.counter("fitness.catalog", "result", "miss");
+        Gauge.builder("fitness.catalog.size", this, c -> c.loaded.size()).register(meterRegistry);
+        load();
+    }
+
+    /**
+     * Normalized lookup key, e.g. "upper chest|30|beginner". The muscle is kept as written (case
+     * and spacing aside): the fallback engine's groups would serve a chest plan for "neck" or a
+     * legs plan for "hip flexors".
+     */
+    public static String key(WorkoutRequest request) {
+        return muscle(request.targetMuscle()) + "|" + request.durationInMinutes()
+                + "|" + FallbackPlanEngine.normalizeLevel(request.fitnessLevel());
+    }
+
+    private static String muscle(String targetMuscle) {
+        if (targetMuscle == null) return "";
+        return WHITESPACE.matcher(targetMuscle.replace('|', ' ').trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    static WorkoutRequest request(String key) {
+        String[] parts = key.split("\\|");
+        return new WorkoutRequest(parts[0], Integer.parseInt(parts[1]), parts[2]);
+    }
+
+    /** Counts the request (if precompute is enabled) and returns its precomputed plan, or null. */
+    public WorkoutResponse lookup(WorkoutRequest request) {
+        String key = key(request);
+        if (countTraffic) count(key);
+        WorkoutResponse plan = loaded.get(key, contentPool);
+        (plan == null ? misses : hits).increment();
+        return plan;
+    }
+
+    public int size() {
+        return loaded.size();
+    }
+
+    private void count(String key) {
+        traffic.computeIfAbsent(key, k -> new LongAdder()).increment();
+        if (traffic.size() > maxTrackedKeys && pruning.compareAndSet(false, true)) {
+            try {
+                dropLeastRequested(traffic.size() - maxTrackedKeys * 9 / 10);
+            } finally {
+                pruning.set(false);
+            }
+        }
+    }
+
+    private void dropLeastRequested(int count) {
+        traffic.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().sum()))
+                .sorted(Map.Entry.comparingByValue())
+                .limit(count)
+                .toList()
+                .forEach(e -> traffic.remove(e.getKey()));
+    }
+
+    int trackedKeys() {
+        return traffic.size();
+    }
+
+    /** Keys requested at least {@code minRequests} times, most requested first. */
+    List<String> topKeys(int n, long minRequests) {
+        return traffic.entrySet().stream()
+                .filter(e -> e.getValue().sum() >= minRequests)
+                .sorted(Map.Entry.<String, LongAdder>comparingByValue(Comparator.comparingLong(LongAdder::sum)).reversed())
+                .limit(n)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+
+    /** Halves all counts so the ranking follows recent traffic; drops keys that reach zero. */
+    void decayTraffic() {
+        traffic.entrySet().removeIf(e -> {
+            long half = e.getValue().sumThenReset() / 2;
+            e.getValue().add(half);
+            return half == 0;
+        });
+    }
+
+    Map<String, Entry> entries() {
+        Map<String, Entry> out = new LinkedHashMap<>();
+        PlanSnapshot snapshot = loaded.snapshot();
+        if (snapshot != null) {
+            snapshot.forEach(e -> out.put(e.key(), new Entry((WorkoutResponse) e.plan(), e.generatedAt())));
+        }
+        return out;
+    }
+
+    /** Writes {@code entries} as the new snapshot (crash-safe, see {@link PlanSnapshot}) and serves it. */
+    synchronized void publish(Map<String, Entry> entries) throws IOException {
+        List<PlanSnapshot.Entry> out = new ArrayList<>(entries.size());
+        entries.forEach((key, e) -> out.add(new PlanSnapshot.Entry(key, e.plan(), e.generatedAt())));
+        PlanSnapshot.write(snapshotPath, out);
+        load();
+    }
+
+    private void load() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            log.info("No precomputed plan snapshot at {}", snapshotPath);
+            loaded = Loaded.EMPTY;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            PlanSnapshot snapshot = PlanSnapshot.open(snapshotPath);
+            loaded = new Loaded(snapshot, new ConcurrentHashMap<>());
+            log.info("Mapped {} precomputed plans from {} in {} µs", snapshot.size(), snapshotPath, (System.nanoTime() - start) / 1_000);
+        } catch (Exception ex) {
+            log.warn("Ignoring unreadable plan snapshot {}: {}", snapshotPath, ex.getMessage());
+            loaded = Loaded.EMPTY;
+        }
+    }
+
+    /** The mapped snapshot plus the plans decoded from it so far. */
+    private record Loaded(PlanSnapshot snapshot, Map<String, WorkoutResponse> decoded) {
+        static final Loaded EMPTY = new Loaded(null, Map.of());
+
+        int size() {
+            return snapshot == null ? 0 : snapshot.size();
+        }
+
+        WorkoutResponse get(String key, PlanContentPool pool) {
+            if (snapshot == null) return null;
+            WorkoutResponse plan = decoded.get(key);
+            if (plan == null) {
+                plan = snapshot.get(key, WorkoutResponse.class);
+                if (plan != null) decoded.putIfAbsent(key, plan = pool.intern(plan));
+            }
+            return plan;
+        }
+    }
+}
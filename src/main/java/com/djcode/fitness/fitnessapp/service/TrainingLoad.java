@@ -0,0 +1,82 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * What one saved plan adds to its user's weekly analytics. A workout adds its sets under the
+ * target muscle and a diet its daily calories, both to the week it was saved in; week N of a
+ * running plan adds its distance to the N-th week from the save.
+ */
+public final class TrainingLoad {
+
+    static final String UNSPECIFIED_MUSCLE = "unspecified";
+
+    /** Contribution to the week starting {@code start}; {@code plans} is 1 only for the save week. */
+    public record Week(LocalDate start, long meters, long kcal, Map<String, Integer> setsByMuscle, int plans) {}
+
+    private TrainingLoad() {}
+
+    /** Monday of the (UTC) week containing {@code at}. */
+    public static LocalDate weekOf(Instant at) {
+        return weekOf(LocalDate.ofInstant(at, ZoneOffset.UTC));
+    }
+
+    /** Monday of the week containing {@code day}. */
+    public static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    public static List<Week> workout(String targetMuscle, WorkoutResponse plan, LocalDate week) {
+        int sets = 0;
+        if (plan != null && plan.exercises() != null) {
+            for (Exercise e : plan.exercises()) {
+                if (e != null) sets += e.setCount();
+            }
+        }
+        Map<String, Integer> bySets = sets == 0 ? Map.of() : Map.of(muscleKey(targetMuscle), sets);
+        return List.of(new Week(week, 0, 0, bySets, 1));
+    }
+
+    public static List<Week> diet(DietResponse plan, LocalDate week) {
+        return List.of(new Week(week, 0, plan == null ? 0 : plan.totalKcal(), Map.of(), 1));
+    }
+
+    public static List<Week> running(RunningPlanResponse plan, LocalDate week) {
+        List<Week> out = new ArrayList<>();
+        out.add(new Week(week, 0, 0, Map.of(), 1));
+        if (plan == null || plan.weeks() == null) return out;
+        for (int i = 0; i < plan.weeks().size(); i++) {
+            RunningWeek w = plan.weeks().get(i);
+            if (w == null) continue;
+            int meters = w.totalMeters();
+            if (meters == 0) continue;
+            // Fall back to list position for weeks the model numbered oddly
+            int offset = w.weekNumber() > 0 ? w.weekNumber() - 1 : i;
+            if (offset == 0) {
+                Week first = out.get(0);
+                out.set(0, new Week(week, first.meters() + meters, 0, Map.of(), 1));
+            } else {
+                out.add(new Week(week.plusWeeks(offset), meters, 0, Map.of(), 0));
+            }
+        }
+        return out;
+    }
+
+    /**
+     * The muscle group sets are counted under, one of the fallback engine's groups. It becomes a
+     * Mongo field name, so it must come from a small fixed set, never from the user's text.
+     */
+    public static String muscleKey(String targetMuscle) {
+        if (targetMuscle == null || targetMuscle.isBlank()) return UNSPECIFIED_MUSCLE;
+        return FallbackPlanEngine.normalizeMuscle(targetMuscle);
+    }
+}
@@ -0,0 +1,266 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.djcode.fitness.fitnessapp.entity.PlanRecord;
+import com.djcode.fitness.fitnessapp.entity.WeeklyAnalytics;
+import com.djcode.fitness.fitnessapp.repository.PlanRecordRepository;
+import com.djcode.fitness.fitnessapp.repository.WeeklyAnalyticsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Per-user weekly training load (running distance, calories, sets per muscle). Every saved plan is
+ * stored in {@code plans} and its {@link TrainingLoad} is added to the affected weeks with atomic
+ * {@code $inc} upserts, so reading a week is one lookup by id regardless of the history size.
+ * {@link #rebuild()} recomputes all weeks from the stored plans.
+ */
+@Service
+@Slf4j
+@DeferredInit
+public class WeeklyAnalyticsService {
+
+    static final String WORKOUT = "workout";
+    static final String DIET = "diet";
+    static final String RUNNING = "running";
+
+    // Lowest possible ObjectId, the keyset start of a full scan
+    private static final String MIN_ID = "000000000000000000000000";
+
+    private final PlanRecordRepository planRecords;
+    private final WeeklyAnalyticsRepository weeklyAnalytics;
+    private final MongoTemplate mongoTemplate;
+    private final JsonCodecs jsonCodecs;
+    private final ThreadPoolTaskExecutor planExecutor;
+    private final MeterRegistry meterRegistry;
+    private final int rebuildBatchSize;
+
+    public WeeklyAnalyticsService(PlanRecordRepository planRecords,
+                                  WeeklyAnalyticsRepository weeklyAnalytics,
+                                  MongoTemplate mongoTemplate,
+                                  JsonCodecs jsonCodecs,
+                                  @Qualifier("planExecutor") ThreadPoolTaskExecutor planExecutor,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.analytics.rebuild-batch-size:500}") int rebuildBatchSize) {
+        this.planRecords = planRecords;
+        this.weeklyAnalytics = weeklyAnalytics;
+        this.mongoTemplate = mongoTemplate;
+        this.jsonCodecs = jsonCodecs;
+        this.planExecutor = planExecutor;
+        this.meterRegistry = meterRegistry;
+        this.rebuildBatchSize = rebuildBatchSize;
+    }
+
+    public void recordWorkout(String userId, WorkoutRequest request, WorkoutResponse plan) {
+        save(userId, WORKOUT, request == null ? null : request.targetMuscle(), plan);
+    }
+
+    public void recordDiet(String userId, DietResponse plan) {
+        save(userId, DIET, null, plan);
+    }
+
+    public void recordRunning(String userId, RunningPlanResponse plan) {
+        save(userId, RUNNING, null, plan);
+    }
+
+    public void recordBatch(String userId, BatchPlanRequest request, BatchPlanResponse response) {
+        if (response.workout() != null) recordWorkout(userId, request.workout(), response.workout());
+        if (response.diet() != null) recordDiet(userId, response.diet());
+        if (response.running() != null) recordRunning(userId, response.running());
+    }
+
+    /** Totals of the week containing {@code day}; all zero when nothing was saved that week. */
+    public WeeklyAnalyticsResponse weekly(String userId, LocalDate day) {
+        LocalDate weekStart = TrainingLoad.weekOf(day);
+        return weeklyAnalytics.findById(WeeklyAnalytics.id(userId, weekStart))
+                .map(w -> new WeeklyAnalyticsResponse(weekStart, w.getRunningMeters() / 1000.0, w.getKcal(),
+                        w.getSetsByMuscle() == null ? Map.of() : w.getSetsByMuscle(), w.getPlans()))
+                .orElseGet(() -> new WeeklyAnalyticsResponse(weekStart, 0, 0, Map.of(), 0));
+    }
+
+    // Off the request thread: the caller already has its plan, history and analytics can lag a little
+    private void save(String userId, String type, String targetMuscle, Object plan) {
+        if (userId == null || plan == null) return;
+        Instant now = Instant.now();
+        planExecutor.execute(() -> {
+            try {
+                byte[] json = jsonCodecs.write(plan);
+                PlanRecord record = planRecords.save(PlanRecord.builder()
+                        .userId(userId)
+                        .type(type)
+                        .targetMuscle(targetMuscle)
+                        .createdAt(now)
+                        .plan(new String(json, StandardCharsets.UTF_8))
+                        .contentHash(ContentHash.of(json))
+                        .build());
+                for (TrainingLoad.Week week : load(type, record.getTargetMuscle(), plan, TrainingLoad.weekOf(now))) {
+                    increment(userId, week);
+                }
+                meterRegistry.counter("fitness.analytics.updates", "type", type, "outcome", "ok").increment();
+            } catch (Exception ex) {
+                log.warn("Could not record {} plan for analytics: {}", type, ex.getMessage());
+                meterRegistry.counter("fitness.analytics.updates", "type", type, "outcome", "failed").increment();
+            }
+        });
+    }
+
+    private void increment(String userId, TrainingLoad.Week week) {
+        Update update = new Update()
+                .setOnInsert("userId", userId)
+                .setOnInsert("weekStart", week.start())
+                .currentDate("updatedAt");
+        if (week.meters() != 0) update.inc("runningMeters", week.meters());
+        if (week.kcal() != 0) update.inc("kcal", week.kcal());
+        if (week.plans() != 0) update.inc("plans", week.plans());
+        week.setsByMuscle().forEach((muscle, sets) -> update.inc("setsByMuscle." + muscle, sets));
+        Query query = Query.query(Criteria.where("_id").is(WeeklyAnalytics.id(userId, week.start())));
+        mongoTemplate.upsert(query, update, WeeklyAnalytics.class);
+    }
+
+    /**
+     * Recomputes every week from the stored plans. History is read in keyset pages of
+     * {@code rebuild-batch-size}; each page is summed on the plan executor while the next one is
+     * fetched, and the partial totals are merged and written at the end (see {@link #write}).
+     * Weeks with no plans left are deleted.
+     */
+    @Scheduled(cron = "${app.analytics.rebuild-cron:0 30 4 * * SUN}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        Instant cutoff = Instant.now();
+        Pageable page = PageRequest.of(0, rebuildBatchSize, Sort.by("id"));
+        List<CompletableFuture<Map<String, WeeklyAnalytics>>> partials = new ArrayList<>();
+        String after = MIN_ID;
+        long plans = 0;
+        while (true) {
+            List<PlanRecord> batch = planRecords.findByIdGreaterThan(after, page);
+            if (batch.isEmpty()) break;
+            plans += batch.size();
+            after = batch.get(batch.size() - 1).getId();
+            partials.add(CompletableFuture.supplyAsync(() -> totals(batch), planExecutor));
+            if (batch.size() < rebuildBatchSize) break;
+        }
+
+        Map<String, WeeklyAnalytics> weeks = new HashMap<>();
+        for (CompletableFuture<Map<String, WeeklyAnalytics>> partial : partials) {
+            partial.join().forEach((id, w) -> weeks.merge(id, w, WeeklyAnalyticsService::merge));
+        }
+        write(weeks.values(), cutoff);
+        long removed = mongoTemplate.remove(Query.query(Criteria.where("updatedAt").lt(cutoff)), WeeklyAnalytics.class)
+                .getDeletedCount();
+
+        Duration took = Duration.ofNanos(System.nanoTime() - start);
+        meterRegistry.timer("fitness.analytics.rebuild").record(took);
+        log.info("Analytics rebuild: {} plans in {} batches -> {} weeks ({} stale removed) in {} ms",
+                plans, partials.size(), weeks.size(), removed, took.toMillis());
+    }
+
+    /**
+     * Writes rebuilt totals in two unordered bulks. The first overwrites weeks last updated before
+     * {@code cutoff}; a week a plan was added to since then keeps its incremental totals until the
+     * next rebuild instead of losing that {@code $inc}. The second inserts weeks that do not exist
+     * yet and leaves existing ones alone.
+     */
+    private void write(Collection<WeeklyAnalytics> weeks, Instant cutoff) {
+        if (weeks.isEmpty()) return;
+        BulkOperations overwrite = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WeeklyAnalytics.class);
+        BulkOperations insert = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, WeeklyAnalytics.class);
+        for (WeeklyAnalytics w : weeks) {
+            Map<String, Object> fields = Map.of(
+                    "userId", w.getUserId(),
+                    "weekStart", w.getWeekStart(),
+                    "runningMeters", w.getRunningMeters(),
+                    "kcal", w.getKcal(),
+                    "setsByMuscle", w.getSetsByMuscle(),
+                    "plans", w.getPlans(),
+                    "updatedAt", cutoff);
+            Update set = new Update();
+            Update setOnInsert = new Update();
+            fields.forEach(set::set);
+            fields.forEach(setOnInsert::setOnInsert);
+            overwrite.updateOne(Query.query(Criteria.where("_id").is(w.getId()).and("updatedAt").lt(cutoff)), set);
+            insert.upsert(Query.query(Criteria.where("_id").is(w.getId())), setOnInsert);
+        }
+        overwrite.execute();
+        insert.execute();
+    }
+
+    /** Weekly totals of one batch of stored plans, keyed by {@link WeeklyAnalytics#id}. */
+    Map<String, WeeklyAnalytics> totals(List<PlanRecord> batch) {
+        Map<String, WeeklyAnalytics> weeks = new HashMap<>();
+        for (PlanRecord record : batch) {
+            Object plan;
+            try {
+                plan = jsonCodecs.read(record.getPlan(), planType(record.getType()));
+            } catch (Exception ex) {
+                log.warn("Skipping unreadable {} plan {}: {}", record.getType(), record.getId(), ex.getMessage());
+                continue;
+            }
+            LocalDate saved = TrainingLoad.weekOf(record.getCreatedAt());
+            for (TrainingLoad.Week week : load(record.getType(), record.getTargetMuscle(), plan, saved)) {
+                WeeklyAnalytics w = WeeklyAnalytics.builder()
+                        .id(WeeklyAnalytics.id(record.getUserId(), week.start()))
+                        .userId(record.getUserId())
+                        .weekStart(week.start())
+                        .runningMeters(week.meters())
+                        .kcal(week.kcal())
+                        .setsByMuscle(new HashMap<>())
+                        .plans(week.plans())
+                        .build();
+                week.setsByMuscle().forEach((muscle, sets) -> w.getSetsByMuscle().put(muscle, (long) sets));
+                weeks.merge(w.getId(), w, WeeklyAnalyticsService::merge);
+            }
+        }
+        return weeks;
+    }
+
+    static WeeklyAnalytics merge(WeeklyAnalytics into, WeeklyAnalytics other) {
+        into.setRunningMeters(into.getRunningMeters() + other.getRunningMeters());
+        into.setKcal(into.getKcal() + other.getKcal());
+        into.setPlans(into.getPlans() + other.getPlans());
+        other.getSetsByMuscle().forEach((muscle, sets) -> into.getSetsByMuscle().merge(muscle, sets, Long::sum));
+        return into;
+    }
+
+    private static List<TrainingLoad.Week> load(String type, String targetMuscle, Object plan, LocalDate week) {
+        return switch (type) {
+            case WORKOUT -> TrainingLoad.workout(targetMuscle, (WorkoutResponse) plan, week);
+            case DIET -> TrainingLoad.diet((DietResponse) plan, week);
+            case RUNNING -> TrainingLoad.running((RunningPlanResponse) plan, week);
+            default -> List.of();
+        };
+    }
+
+    private static Class<?> planType(String type) {
+        return switch (type) {
+            case WORKOUT -> WorkoutResponse.class;
+            case DIET -> DietResponse.class;
+            case RUNNING -> RunningPlanResponse.class;
+            default -> throw new IllegalArgumentException("Unknown plan type " + type);
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServer;
+import org.springframework.http.HttpStatus;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Server-side cost of 1k concurrent requests that each wait on Gemini, per web stack: Tomcat
+ * with one blocked thread per request (as the servlet build does on the RestTemplate call) and
+ * Netty waiting without a thread (as the reactive build does on the WebClient). While all
+ * requests are in flight it samples live threads, retained heap after GC and, on Linux, RSS,
+ * each relative to the idle server. The client runs in the same JVM on a fixed 4-thread pool;
+ * its share is the same for both stacks.
+ * Run with: mvn -Preactive,benchmark test -Dtest=WebStackMemoryBenchmarkTest
+ */
+@Tag("benchmark")
+class WebStackMemoryBenchmarkTest {
+
+    private static final int CONNECTIONS = 1_000;
+    private static final Duration GEMINI_LATENCY = Duration.ofSeconds(4);
+    private static final Duration SAMPLE_AFTER = Duration.ofSeconds(2);
+
+    @Test
+    void reactiveStackHoldsConnectionsWithoutThreads() throws Exception {
+        Sample servlet = measure(servletServer());
+        Sample reactive = measure(reactiveServer());
+
+        System.out.printf("%-24s %10s %14s %12s%n", "per 1k connections", "threads", "heap (KiB)", "rss (KiB)");
+        servlet.print("servlet (Tomcat)");
+        reactive.print("reactive (Netty)");
+    }
+
+    private static WebServer servletServer() {
+        TomcatServletWebServerFactory factory = new TomcatServletWebServerFactory(0);
+        // Enough workers to hold every request; with the default 200 the rest would queue unanswered
+        factory.addConnectorCustomizers(connector -> connector.setProperty("maxThreads", String.valueOf(CONNECTIONS + 50)));
+        return factory.getWebServer(context -> context.addServlet("gemini", new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                try {
+                    Thread.sleep(GEMINI_LATENCY.toMillis());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                resp.getWriter().write("ok");
+            }
+        }).addMapping("/*"));
+    }
+
+    private static WebServer reactiveServer() {
+        return new NettyReactiveWebServerFactory(0).getWebServer((request, response) -> {
+            response.setStatusCode(HttpStatus.OK);
+            return Mono.delay(GEMINI_LATENCY).then(response.setComplete());
+        });
+    }
+
+    private record Sample(long threads, long heapBytes, long rssBytes) {
+        void print(String stack) {
+            System.out.printf("%-24s %10d %14d %12s%n", stack, threads, heapBytes / 1024,
+                    rssBytes < 0 ? "n/a" : String.valueOf(rssBytes / 1024));
+        }
+    }
+
+    private static Sample measure(WebServer server) throws Exception {
+        server.start();
+        ExecutorService clientPool = Executors.newFixedThreadPool(4);
+        try {
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientPool)
+                    .build();
+            URI uri = URI.create("http://localhost:" + server.getPort() + "/generate");
+            // Warm both the server and the client so class loading is not counted as load
+            client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+
+            Sample idle = sample();
+            List<CompletableFuture<HttpResponse<Void>>> inFlight = new ArrayList<>(CONNECTIONS);
+            for (int i = 0; i < CONNECTIONS; i++) {
+                inFlight.add(client.sendAsync(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding()));
+            }
+            Thread.sleep(SAMPLE_AFTER.toMillis());
+            Sample loaded = sample();
+            for (CompletableFuture<HttpResponse<Void>> response : inFlight) {
+                assertEquals(200, response.get().statusCode());
+            }
+            return new Sample(loaded.threads() - idle.threads(), loaded.heapBytes() - idle.heapBytes(),
+                    idle.rssBytes() < 0 ? -1 : loaded.rssBytes() - idle.rssBytes());
+        } finally {
+            clientPool.shutdownNow();
+            server.stop();
+        }
+    }
+
+    private static Sample sample() throws IOException {
+        System.gc();
+        long heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        return new Sample(ManagementFactory.getThreadMXBean().getThreadCount(), heap, rss());
+    }
+
+    /** Resident set size from /proc, including thread stacks and direct buffers; -1 off Linux. */
+    private static long rss() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) return -1;
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        return -1;
+    }
+}
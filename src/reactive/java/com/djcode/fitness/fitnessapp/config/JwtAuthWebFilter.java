@@ -0,0 +1,51 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.service.JwtService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * {@link JwtAuthFilter} for WebFlux: a valid bearer token puts its user into the reactive
+ * security context of the exchange. Added to the security chain by {@link ReactiveSecurityConfig}
+ * only; as a bean WebFlux would also run it outside the chain.
+ */
+public class JwtAuthWebFilter implements WebFilter {
+
+    private final JwtService jwtService;
+    private final ReactiveUserDetailsService userDetailsService;
+
+    public JwtAuthWebFilter(JwtService jwtService, ReactiveUserDetailsService userDetailsService) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+    }
+
+    @Override
+    @NonNull
+    public Mono<Void> filter(@NonNull ServerWebExchange exchange, @NonNull WebFilterChain chain) {
+        final String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return chain.filter(exchange);
+        }
+
+        final String jwt = authHeader.substring(7);
+        final String userEmail = jwtService.extractUsername(jwt);
+        if (userEmail == null) {
+            return chain.filter(exchange);
+        }
+
+        return userDetailsService.findByUsername(userEmail)
+                .filter(userDetails -> jwtService.isTokenValid(jwt, userDetails))
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+}
@@ -0,0 +1,48 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+/**
+ * Gemini client of the reactive build. Runs on the server's Netty event loops with the same
+ * connect and read timeouts as the RestTemplate in {@link AIConfig}.
+ */
+@Configuration
+@ReactiveStack
+public class ReactiveAIConfig {
+
+    @Value("${gemini.api.key}")
+    private String apiKey;
+
+    @Value("${gemini.api.model}")
+    private String model;
+
+    @Bean
+    @DeferredInit
+    public ReactiveGeminiClient reactiveGeminiClient(WebClient.Builder builder) {
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 8000)
+                .responseTimeout(Duration.ofMillis(25000));
+        // Builder carries Boot's codecs, i.e. the shared (Blackbird) ObjectMapper
+        WebClient webClient = builder.clientConnector(new ReactorClientHttpConnector(httpClient)).build();
+        return new ReactiveGeminiClient(webClient, apiKey, model);
+    }
+
+    /** Boot auto-configures the builder for servlet apps only; chunked running plans still use the blocking client. */
+    @Bean
+    public RestTemplateBuilder restTemplateBuilder(ObjectMapper objectMapper) {
+        return new RestTemplateBuilder()
+                .messageConverters(new StringHttpMessageConverter(), new MappingJackson2HttpMessageConverter(objectMapper));
+    }
+}
@@ -0,0 +1,49 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.dto.ErrorResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.time.Instant;
+
+/**
+ * {@link GlobalExceptionHandler} for WebFlux, with the same error bodies and status codes.
+ */
+@RestControllerAdvice
+@ReactiveStack
+public class ReactiveExceptionHandler {
+
+    private ResponseEntity<ErrorResponse> build(HttpStatus status, String err, String msg, ServerWebExchange exchange){
+        return ResponseEntity.status(status).body(new ErrorResponse(
+                err,
+                msg,
+                status.value(),
+                Instant.now(),
+                exchange.getRequest().getPath().value()
+        ));
+    }
+
+    @ExceptionHandler(BadCredentialsException.class)
+    public ResponseEntity<ErrorResponse> badCredentials(BadCredentialsException ex, ServerWebExchange exchange){
+        return build(HttpStatus.UNAUTHORIZED, "BAD_CREDENTIALS", "Invalid email or password", exchange);
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ErrorResponse> validation(WebExchangeBindException ex, ServerWebExchange exchange){
+        String msg = ex.getBindingResult().getAllErrors().stream().findFirst().map(e -> e.getDefaultMessage()).orElse("Validation error");
+        return build(HttpStatus.BAD_REQUEST, "VALIDATION_ERROR", msg, exchange);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> runtime(RuntimeException ex, ServerWebExchange exchange){
+        if(ex.getMessage()!=null && ex.getMessage().toLowerCase().contains("email already")){
+            return build(HttpStatus.BAD_REQUEST, "EMAIL_EXISTS", ex.getMessage(), exchange);
+        }
+        return build(HttpStatus.BAD_REQUEST, "RUNTIME_ERROR", ex.getMessage()==null?"Unexpected error":ex.getMessage(), exchange);
+    }
+}
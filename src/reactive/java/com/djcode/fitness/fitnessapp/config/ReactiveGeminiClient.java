@@ -0,0 +1,50 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiRequest;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResponse;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResult;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking {@link GeminiClient}: the same generateContent call on a WebClient, so a request
+ * waiting for Gemini holds no thread. Request and response mapping are shared with the blocking
+ * client; failures resolve to {@link GeminiResult#FAILED} rather than an error signal.
+ */
+@Slf4j
+public class ReactiveGeminiClient {
+
+    private final WebClient webClient;
+    private final String apiKey;
+    private final String model;
+
+    public ReactiveGeminiClient(WebClient webClient, String apiKey, String model) {
+        this.webClient = webClient;
+        this.apiKey = apiKey;
+        this.model = model;
+    }
+
+    public Mono<GeminiResult> generate(String prompt, GenerationConfig config) {
+        if (!GeminiClient.hasApiKey(apiKey)) {
+            log.warn("Gemini API key missing or placeholder");
+            return Mono.just(GeminiResult.FAILED);
+        }
+        return webClient.post()
+                .uri(GeminiClient.ENDPOINT_PATTERN.formatted(model, apiKey))
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON)
+                .bodyValue(GeminiRequest.of(prompt, config))
+                .retrieve()
+                .bodyToMono(GeminiResponse.class)
+                .map(GeminiClient::toResult)
+                .switchIfEmpty(Mono.fromSupplier(() -> GeminiClient.toResult(null)))
+                .onErrorResume(ex -> {
+                    log.error("Gemini request failed: {}: {}", ex.getClass().getSimpleName(), ex.getMessage());
+                    return Mono.just(GeminiResult.FAILED);
+                });
+    }
+}
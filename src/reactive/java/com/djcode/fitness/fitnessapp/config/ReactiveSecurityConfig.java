@@ -0,0 +1,122 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.repository.ReactiveUserRepository;
+import com.djcode.fitness.fitnessapp.service.JwtService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.userdetails.ReactiveUserDetailsService;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.server.MatcherSecurityWebFilterChain;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.CorsProcessor;
+import org.springframework.web.cors.reactive.CorsUtils;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.DefaultCorsProcessor;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.server.WebFilter;
+
+import java.util.List;
+
+/**
+ * {@link SecurityConfig} for WebFlux: stateless JWT auth, the same CORS rules and the same
+ * public paths, minus the SPA and Swagger UI, which the reactive build does not serve.
+ */
+@Configuration
+@EnableWebFluxSecurity
+@ReactiveStack
+@RequiredArgsConstructor
+public class ReactiveSecurityConfig {
+
+    private final ReactiveUserRepository userRepository;
+    private final JwtService jwtService;
+    private final CorsConfiguration corsConfiguration = SecurityConfig.corsConfiguration();
+
+    // Health checks skip authentication, as in the servlet stack's public chain
+    @Bean
+    @Order(0)
+    public SecurityWebFilterChain publicWebFilterChain() {
+        PathPrefixMatcher paths = new PathPrefixMatcher(List.of("/health"));
+        return new MatcherSecurityWebFilterChain(
+                exchange -> paths.matches(exchange.getRequest().getPath().pathWithinApplication().value())
+                        ? ServerWebExchangeMatcher.MatchResult.match()
+                        : ServerWebExchangeMatcher.MatchResult.notMatch(),
+                List.of(new CorsWebFilter(corsConfigurationSource())));
+    }
+
+    @Bean
+    @Order(1)
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        return http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+                .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                // Same status as the servlet chain for unauthenticated calls
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(new HttpStatusServerEntryPoint(HttpStatus.FORBIDDEN)))
+                .authorizeExchange(auth -> auth
+                        .pathMatchers(HttpMethod.OPTIONS, "/**").permitAll() // allow preflight
+                        .pathMatchers("/api/auth/**").permitAll()
+                        .anyExchange().authenticated()
+                )
+                .addFilterAt(new JwtAuthWebFilter(jwtService, userDetailsService()), SecurityWebFiltersOrder.AUTHENTICATION)
+                .build();
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", corsConfiguration);
+        return source;
+    }
+
+    /** Answers CORS preflights ahead of the security chain, like {@link CorsPreflightFilter}. */
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE + 10)
+    public WebFilter corsPreflightFilter() {
+        CorsProcessor processor = new DefaultCorsProcessor();
+        return (exchange, chain) -> {
+            if (CorsUtils.isPreFlightRequest(exchange.getRequest())) {
+                processor.process(corsConfiguration, exchange);
+                return exchange.getResponse().setComplete();
+            }
+            return chain.filter(exchange);
+        };
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    @Bean
+    public ReactiveUserDetailsService userDetailsService() {
+        return username -> userRepository.findAuthByEmail(username).cast(UserDetails.class);
+    }
+
+    /** Checks passwords on the bounded elastic scheduler, keeping BCrypt off the event loops. */
+    @Bean
+    public ReactiveAuthenticationManager authenticationManager() {
+        UserDetailsRepositoryReactiveAuthenticationManager manager =
+                new UserDetailsRepositoryReactiveAuthenticationManager(userDetailsService());
+        manager.setPasswordEncoder(passwordEncoder());
+        return manager;
+    }
+}
@@ -0,0 +1,24 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the reactive build on Netty. Tomcat stays on the classpath for the servlet build and
+ * would otherwise be Boot's first choice for a reactive server too, with a thread per
+ * in-flight request again. server.* and server.netty.* settings still apply.
+ */
+@Configuration
+@ReactiveStack
+public class ReactiveServerConfig {
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory factory = new NettyReactiveWebServerFactory();
+        factory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return factory;
+    }
+}
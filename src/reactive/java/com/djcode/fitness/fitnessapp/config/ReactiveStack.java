@@ -0,0 +1,16 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+
+import java.lang.annotation.*;
+
+/**
+ * Counterpart of {@link ServletStack}: marks a WebFlux component of the reactive build, active
+ * only when the application runs as a reactive web application.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public @interface ReactiveStack {
+}
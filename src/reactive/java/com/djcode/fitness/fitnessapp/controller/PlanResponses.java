@@ -0,0 +1,31 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.PlanSourceHeaderAdvice;
+import com.djcode.fitness.fitnessapp.service.GeneratedPlan;
+import org.springframework.http.ResponseEntity;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Response helpers of the reactive plan controllers, which have no per-request thread for
+ * {@code PlanSource} and {@link PlanSourceHeaderAdvice} to work with.
+ */
+final class PlanResponses {
+
+    private PlanResponses() {}
+
+    /** 200 with the plan and its X-Plan-Source / X-Plan-Fallback-Reason headers. */
+    static <T> ResponseEntity<T> ok(GeneratedPlan<T> generated) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .header(PlanSourceHeaderAdvice.SOURCE_HEADER, generated.source());
+        if (generated.reason() != null) response.header(PlanSourceHeaderAdvice.REASON_HEADER, generated.reason());
+        return response.body(generated.plan());
+    }
+
+    /**
+     * Runs analytics bookkeeping off the event loop: it is asynchronous already, but a full plan
+     * executor queue makes the submitting thread save the plan itself.
+     */
+    static void record(Runnable bookkeeping) {
+        Schedulers.boundedElastic().schedule(bookkeeping);
+    }
+}
@@ -0,0 +1,33 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.AuthRequest;
+import com.djcode.fitness.fitnessapp.dto.AuthResponse;
+import com.djcode.fitness.fitnessapp.dto.RegisterRequest;
+import com.djcode.fitness.fitnessapp.service.ReactiveAuthService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AuthController} on WebFlux.
+ */
+@RestController
+@ReactiveStack
+@RequestMapping("/api/auth")
+@RequiredArgsConstructor
+public class ReactiveAuthController {
+
+    private final ReactiveAuthService authService;
+
+    @PostMapping("/register")
+    public Mono<ResponseEntity<AuthResponse>> register(@RequestBody RegisterRequest request) {
+        return authService.register(request).map(ResponseEntity::ok);
+    }
+
+    @PostMapping("/login")
+    public Mono<ResponseEntity<AuthResponse>> login(@RequestBody AuthRequest request) {
+        return authService.login(request).map(ResponseEntity::ok);
+    }
+}
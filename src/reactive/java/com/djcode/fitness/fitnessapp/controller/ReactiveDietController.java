@@ -0,0 +1,37 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.DietRequest;
+import com.djcode.fitness.fitnessapp.dto.DietResponse;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.ReactiveAIService;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link DietController#generateDiet} on WebFlux.
+ */
+@RestController
+@ReactiveStack
+@RequestMapping("/api/diet")
+@RequiredArgsConstructor
+@DeferredInit
+public class ReactiveDietController {
+
+    private final ReactiveAIService aiService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+
+    @PostMapping("/generate")
+    public Mono<ResponseEntity<DietResponse>> generateDiet(@AuthenticationPrincipal AuthUser user,
+                                                           @RequestBody DietRequest request) {
+        return aiService.generateDiet(request).map(generated -> {
+            PlanResponses.record(() -> weeklyAnalyticsService.recordDiet(user == null ? null : user.id(), generated.plan()));
+            return PlanResponses.ok(generated);
+        });
+    }
+}
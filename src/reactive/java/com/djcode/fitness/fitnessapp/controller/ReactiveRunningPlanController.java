@@ -0,0 +1,37 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanResponse;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.ReactiveAIService;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link RunningPlanController#generateRunningPlan} on WebFlux.
+ */
+@RestController
+@ReactiveStack
+@RequestMapping("/api/running")
+@RequiredArgsConstructor
+@DeferredInit
+public class ReactiveRunningPlanController {
+
+    private final ReactiveAIService aiService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+
+    @PostMapping("/generate")
+    public Mono<ResponseEntity<RunningPlanResponse>> generateRunningPlan(@AuthenticationPrincipal AuthUser user,
+                                                                         @RequestBody RunningPlanRequest request) {
+        return aiService.generateRunningPlan(request).map(generated -> {
+            PlanResponses.record(() -> weeklyAnalyticsService.recordRunning(user == null ? null : user.id(), generated.plan()));
+            return PlanResponses.ok(generated);
+        });
+    }
+}
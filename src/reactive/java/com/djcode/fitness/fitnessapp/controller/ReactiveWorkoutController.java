@@ -0,0 +1,37 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutResponse;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.service.ReactiveAIService;
+import com.djcode.fitness.fitnessapp.service.WeeklyAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link WorkoutController#generateWorkout} on WebFlux.
+ */
+@RestController
+@ReactiveStack
+@RequestMapping("/api/workout")
+@RequiredArgsConstructor
+@DeferredInit
+public class ReactiveWorkoutController {
+
+    private final ReactiveAIService aiService;
+    private final WeeklyAnalyticsService weeklyAnalyticsService;
+
+    @PostMapping("/generate")
+    public Mono<ResponseEntity<WorkoutResponse>> generateWorkout(@AuthenticationPrincipal AuthUser user,
+                                                                 @RequestBody WorkoutRequest request) {
+        return aiService.generateWorkout(request).map(generated -> {
+            PlanResponses.record(() -> weeklyAnalyticsService.recordWorkout(user == null ? null : user.id(), request, generated.plan()));
+            return PlanResponses.ok(generated);
+        });
+    }
+}
@@ -0,0 +1,29 @@
+package com.djcode.fitness.fitnessapp.controller;
+
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.YogaPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.YogaPlanResponse;
+import com.djcode.fitness.fitnessapp.service.ReactiveAIService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link YogaController#generateYoga} on WebFlux.
+ */
+@RestController
+@ReactiveStack
+@RequestMapping("/api/yoga")
+@RequiredArgsConstructor
+@DeferredInit
+public class ReactiveYogaController {
+
+    private final ReactiveAIService aiService;
+
+    @PostMapping("/generate")
+    public Mono<ResponseEntity<YogaPlanResponse>> generateYoga(@RequestBody YogaPlanRequest request) {
+        return aiService.generateYogaPlan(request).map(PlanResponses::ok);
+    }
+}
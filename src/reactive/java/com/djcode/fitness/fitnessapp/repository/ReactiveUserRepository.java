@@ -0,0 +1,17 @@
+package com.djcode.fitness.fitnessapp.repository;
+
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.entity.User;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link UserRepository} on the reactive driver, with the same index-only and projected lookups.
+ */
+@Repository
+public interface ReactiveUserRepository extends ReactiveMongoRepository<User, String> {
+    Mono<Boolean> existsByEmail(String email);
+
+    Mono<AuthUser> findAuthByEmail(String email);
+}
@@ -0,0 +1,93 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.config.DeferredInit;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.config.ReactiveGeminiClient;
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.djcode.fitness.fitnessapp.service.AIService.GeminiReply;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * {@link AIService} for the reactive build. Catalog, cache, prompts, parsing and fallbacks are
+ * the same code; only the Gemini call is asynchronous, so a request waiting for Gemini holds no
+ * thread. The plan source is returned with the plan instead of being recorded on the request.
+ * Chunked running plans fan out on the plan executor and run the blocking path off the event loop.
+ */
+@Service
+@ReactiveStack
+@RequiredArgsConstructor
+@Slf4j
+@DeferredInit
+public class ReactiveAIService {
+
+    private final AIService aiService;
+    private final ReactiveGeminiClient geminiClient;
+    private final GeminiAdmissionController admissionController;
+    private final PayloadLog payloadLog;
+
+    public Mono<GeneratedPlan<WorkoutResponse>> generateWorkout(WorkoutRequest request) {
+        return Mono.defer(() -> {
+            GeneratedPlan<WorkoutResponse> precomputed = aiService.precomputed(request);
+            if (precomputed != null) return Mono.just(precomputed);
+            return cached(PlanResponseCache.key(request), WorkoutResponse.class, () ->
+                    callGemini(aiService.buildWorkoutPrompt(request), "workout", aiService.workoutOutput())
+                            .map(reply -> aiService.workoutFrom(request, reply)));
+        });
+    }
+
+    public Mono<GeneratedPlan<DietResponse>> generateDiet(DietRequest request) {
+        return Mono.defer(() -> cached(PlanResponseCache.key(request), DietResponse.class, () ->
+                callGemini(aiService.buildDietPrompt(request), "diet", aiService.dietOutput())
+                        .map(reply -> aiService.dietFrom(request, reply))));
+    }
+
+    public Mono<GeneratedPlan<YogaPlanResponse>> generateYogaPlan(YogaPlanRequest request) {
+        return Mono.defer(() -> cached(PlanResponseCache.key(request), YogaPlanResponse.class, () ->
+                callGemini(aiService.buildYogaPrompt(request), "yoga", aiService.yogaOutput())
+                        .map(reply -> aiService.yogaFrom(request, reply))));
+    }
+
+    public Mono<GeneratedPlan<RunningPlanResponse>> generateRunningPlan(RunningPlanRequest request) {
+        int weeks = AIService.extractWeeks(request.timeframe());
+        if (aiService.isChunked(weeks)) {
+            return Mono.fromCallable(() -> aiService.generateRunningPlanWithSource(request))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+        return Mono.defer(() -> cached(PlanResponseCache.key(request), RunningPlanResponse.class, () ->
+                callGemini(aiService.buildRunningPlanPrompt(request), "runningPlan", aiService.runningOutput(weeks))
+                        .map(reply -> aiService.runningFrom(request, weeks, reply))));
+    }
+
+    private <T> Mono<GeneratedPlan<T>> cached(String key, Class<T> type, Supplier<Mono<GeneratedPlan<T>>> generate) {
+        GeneratedPlan<T> hit = aiService.fromCache(key, type);
+        return hit != null ? Mono.just(hit) : generate.get().map(generated -> aiService.store(key, generated));
+    }
+
+    /** {@link AIService#callGemini} with the call itself on the WebClient; the permit is held until it completes. */
+    Mono<GeminiReply> callGemini(String prompt, String type, GenerationConfig config) {
+        // tryAcquire may wait up to the admission interval, which must not happen on an event loop
+        return Mono.fromCallable(() -> Optional.ofNullable(admissionController.tryAcquire()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(permit -> {
+                    if (permit.isEmpty()) {
+                        log.warn("Gemini at capacity ({} in flight), serving {} locally", admissionController.inFlight(), type);
+                        return Mono.just(new GeminiReply(null, PlanSource.REASON_SHED));
+                    }
+                    boolean sampled = payloadLog.sample();
+                    payloadLog.log(sampled, type, "prompt", prompt);
+                    long start = System.nanoTime();
+                    return geminiClient.generate(prompt, config)
+                            .doFinally(signal -> permit.get().close())
+                            .map(result -> aiService.toReply(type, config, result, System.nanoTime() - start, sampled));
+                });
+    }
+}
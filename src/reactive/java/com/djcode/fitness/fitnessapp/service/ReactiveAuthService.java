@@ -0,0 +1,71 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.ReactiveStack;
+import com.djcode.fitness.fitnessapp.dto.AuthRequest;
+import com.djcode.fitness.fitnessapp.dto.AuthResponse;
+import com.djcode.fitness.fitnessapp.dto.RegisterRequest;
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.entity.User;
+import com.djcode.fitness.fitnessapp.repository.ReactiveUserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * {@link AuthService} on reactive Mongo. Same checks and token claims; BCrypt hashing runs on
+ * the bounded elastic scheduler instead of an event loop.
+ */
+@Service
+@ReactiveStack
+@RequiredArgsConstructor
+public class ReactiveAuthService {
+
+    private final ReactiveUserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final JwtService jwtService;
+    private final ReactiveAuthenticationManager authenticationManager;
+
+    public Mono<AuthResponse> register(RegisterRequest request) {
+        return userRepository.existsByEmail(request.email())
+                .flatMap(exists -> {
+                    // Duplicate email safeguard
+                    if (exists) return Mono.error(new RuntimeException("Email already registered"));
+                    return Mono.fromCallable(() -> passwordEncoder.encode(request.password()))
+                            .subscribeOn(Schedulers.boundedElastic());
+                })
+                .flatMap(encoded -> userRepository.save(User.builder()
+                        .username(request.username())
+                        .email(request.email())
+                        .password(encoded)
+                        .roles(List.of("ROLE_USER"))
+                        .build()))
+                .map(user -> issue(user, user.getId(), user.getEmail(), user.getRoles()));
+    }
+
+    public Mono<AuthResponse> login(AuthRequest request) {
+        return authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(request.email(), request.password()))
+                // Principal is the AuthUser projection loaded for the password check; no second lookup
+                .map(authentication -> (AuthUser) authentication.getPrincipal())
+                .map(user -> issue(user, user.id(), user.email(), user.roles()));
+    }
+
+    private AuthResponse issue(UserDetails user, String id, String email, List<String> roles) {
+        var now = Instant.now();
+        var claims = new HashMap<String,Object>();
+        claims.put("uid", id);
+        claims.put("roles", roles);
+        var jwtToken = jwtService.generateToken(claims, user);
+        var expiresAt = now.plusMillis(jwtService.getJwtExpiration());
+
+        return new AuthResponse(jwtToken, id, user.getUsername(), email, roles, now, expiresAt);
+    }
+}
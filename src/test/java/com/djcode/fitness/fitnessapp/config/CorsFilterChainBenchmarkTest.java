@@ -0,0 +1,108 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Filter overhead per request in front of the controllers: a CORS preflight through the full
+ * Spring Security chain (as before) vs answered by {@link CorsPreflightFilter}, an authenticated-path
+ * GET with an Origin through the security chain, and the origin check itself with regex patterns vs
+ * the exact-origin set, for the default list and a 50-origin one. The servlet and handler are not
+ * part of the measurement: the chain ends in a no-op.
+ * Run with: mvn -Pbenchmark test -Dtest=CorsFilterChainBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class CorsFilterChainBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 50_000;
+    private static final int MEASURE_ROUNDS = 200_000;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter securityChain;
+
+    @Test
+    void preflightsSkipTheSecurityChain() throws Exception {
+        CorsPreflightFilter preflightFilter = new CorsPreflightFilter(SecurityConfig.corsConfiguration());
+
+        double securityOnly = nanosPerRequest(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            securityChain.doFilter(CorsPreflightFilterTest.preflight("http://localhost:5173"), response, new MockFilterChain());
+            return response.getStatus();
+        });
+        double fastPath = nanosPerRequest(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            preflightFilter.doFilter(CorsPreflightFilterTest.preflight("http://localhost:5173"), response, new MockFilterChain());
+            return response.getStatus();
+        });
+        double healthGet = nanosPerRequest(() -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/health");
+            request.addHeader(HttpHeaders.ORIGIN, "http://localhost:5173");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            preflightFilter.doFilter(request, response, (req, res) -> securityChain.doFilter(req, res, new MockFilterChain()));
+            return response.getStatus();
+        });
+        double baseline = nanosPerRequest(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            CorsPreflightFilterTest.preflight("http://localhost:5173");
+            return response.getStatus();
+        });
+
+        System.out.printf("%-44s %10s%n", "request", "ns/req");
+        System.out.printf("%-44s %10.0f%n", "mock request/response only", baseline);
+        System.out.printf("%-44s %10.0f%n", "preflight via security chain (before)", securityOnly);
+        System.out.printf("%-44s %10.0f%n", "preflight via CorsPreflightFilter (after)", fastPath);
+        System.out.printf("%-44s %10.0f%n", "GET /health with Origin, both filters", healthGet);
+    }
+
+    @Test
+    void exactOriginLookupBeatsPatterns() throws Exception {
+        List<String> many = new ArrayList<>();
+        for (int i = 0; i < 50; i++) many.add("https://tenant-" + i + ".example.com");
+
+        System.out.printf("%-32s %14s %14s%n", "origins", "patterns ns", "exact set ns");
+        for (List<String> origins : List.of(List.of("http://localhost:5173", "http://localhost:5174",
+                "http://127.0.0.1:5173", "http://127.0.0.1:5174", "http://localhost:8080",
+                "http://127.0.0.1:8080", "https://localhost:5173", "https://localhost:5174"), many)) {
+            String last = origins.get(origins.size() - 1);
+            CorsConfiguration patterns = new CorsConfiguration();
+            patterns.setAllowedOriginPatterns(origins);
+            CorsConfiguration exact = new ExactOriginCorsConfiguration(origins);
+            assertEquals(last, patterns.checkOrigin(last));
+            assertEquals(last, exact.checkOrigin(last));
+
+            double patternNs = nanosPerRequest(() -> patterns.checkOrigin(last).length());
+            double exactNs = nanosPerRequest(() -> exact.checkOrigin(last).length());
+            System.out.printf("%-32s %14.1f %14.1f%n", origins.size() + " (last one matches)", patternNs, exactNs);
+        }
+    }
+
+    private interface Op {
+        int run() throws Exception;
+    }
+
+    private static double nanosPerRequest(Op op) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink += op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) sink += op.run();
+        long elapsed = System.nanoTime() - start;
+        if (sink == 0) throw new IllegalStateException();
+        return (double) elapsed / MEASURE_ROUNDS;
+    }
+}
@@ -0,0 +1,62 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.cors.CorsConfiguration;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorsPreflightFilterTest {
+
+    @Test
+    void matchesExactOriginsWithoutPatternsAndWildcardsWithThem() {
+        CorsConfiguration config = new ExactOriginCorsConfiguration(
+                List.of("https://app.example.com", "https://*.preview.example.com"));
+
+        assertEquals("https://app.example.com", config.checkOrigin("https://app.example.com"));
+        assertEquals("HTTPS://App.Example.com/", config.checkOrigin("HTTPS://App.Example.com/"));
+        assertEquals("https://pr-12.preview.example.com", config.checkOrigin("https://pr-12.preview.example.com"));
+        assertNull(config.checkOrigin("https://evil.example.com"));
+        assertNull(config.checkOrigin(null));
+    }
+
+    @Test
+    void answersPreflightsWithoutCallingTheChain() throws Exception {
+        CorsPreflightFilter filter = new CorsPreflightFilter(SecurityConfig.corsConfiguration());
+
+        MockHttpServletResponse allowed = new MockHttpServletResponse();
+        MockFilterChain allowedChain = new MockFilterChain();
+        filter.doFilter(preflight("http://localhost:5173"), allowed, allowedChain);
+        assertNull(allowedChain.getRequest());
+        assertEquals(200, allowed.getStatus());
+        assertEquals("http://localhost:5173", allowed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN));
+        assertEquals("POST", allowed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_METHODS));
+        assertEquals("authorization, content-type", allowed.getHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_HEADERS));
+        assertEquals("86400", allowed.getHeader(HttpHeaders.ACCESS_CONTROL_MAX_AGE));
+
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        MockFilterChain rejectedChain = new MockFilterChain();
+        filter.doFilter(preflight("https://evil.example.com"), rejected, rejectedChain);
+        assertNull(rejectedChain.getRequest());
+        assertEquals(403, rejected.getStatus());
+
+        MockHttpServletRequest get = new MockHttpServletRequest("GET", "/api/plans");
+        get.addHeader(HttpHeaders.ORIGIN, "http://localhost:5173");
+        MockFilterChain getChain = new MockFilterChain();
+        filter.doFilter(get, new MockHttpServletResponse(), getChain);
+        assertSame(get, getChain.getRequest());
+    }
+
+    static MockHttpServletRequest preflight(String origin) {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/workout/generate");
+        request.addHeader(HttpHeaders.ORIGIN, origin);
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_HEADERS, "authorization, content-type");
+        return request;
+    }
+}
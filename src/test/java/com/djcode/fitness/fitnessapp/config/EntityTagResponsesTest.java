@@ -0,0 +1,66 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.service.ContentHash;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityTagResponsesTest {
+
+    private final EntityTagResponses responses =
+            new EntityTagResponses(new JsonCodecs(new ObjectMapper()), DataSize.ofBytes(64), 6);
+
+    @Test
+    void tagsPerRepresentationAndAnswersEitherTagWith304() throws Exception {
+        byte[] body = ("{\"weeks\":[" + "{\"weekNumber\":1},".repeat(20) + "{}]}").getBytes(StandardCharsets.UTF_8);
+        String hash = ContentHash.of(body);
+
+        ResponseEntity<byte[]> plain = responses.json(new MockHttpServletRequest(), body, hash);
+        assertEquals("\"" + hash + "\"", plain.getHeaders().getETag());
+        assertArrayEquals(body, plain.getBody());
+
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate, br");
+        ResponseEntity<byte[]> gzipped = responses.json(gzipRequest, body, hash);
+        assertEquals("\"" + hash + "-gzip\"", gzipped.getHeaders().getETag());
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped.getBody()))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+
+        for (String validator : new String[]{plain.getHeaders().getETag(), "W/" + gzipped.getHeaders().getETag(), "\"other\", " + plain.getHeaders().getETag()}) {
+            MockHttpServletRequest revalidate = new MockHttpServletRequest();
+            revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, validator);
+            ResponseEntity<byte[]> notModified = responses.json(revalidate, body, hash);
+            assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode(), validator);
+            assertNull(notModified.getBody());
+        }
+
+        MockHttpServletRequest stale = new MockHttpServletRequest();
+        stale.addHeader(HttpHeaders.IF_NONE_MATCH, "\"" + ContentHash.of(new byte[]{1}) + "\"");
+        assertEquals(HttpStatus.OK, responses.json(stale, body, hash).getStatusCode());
+    }
+
+    @Test
+    void smallBodiesAndRefusedGzipStayUncompressed() {
+        assertTrue(EntityTagResponses.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertFalse(EntityTagResponses.acceptsGzip("gzip;q=0, br"));
+        assertFalse(EntityTagResponses.acceptsGzip(null));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> small = responses.json(request, java.util.Map.of("plans", 0));
+        assertNull(small.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"plans\":0}", new String(small.getBody(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,38 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiRequest;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiSchemasTest {
+
+    @Test
+    void requestCarriesGenerationConfigWithSchemaFromRecords() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        GeminiRequest request = GeminiRequest.of("prompt",
+                GenerationConfig.json(800, null, GeminiSchemas.of(RunningPlanResponse.class)));
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(request));
+        JsonNode config = json.get("generationConfig");
+        assertEquals(800, config.get("maxOutputTokens").asInt());
+        assertEquals("application/json", config.get("responseMimeType").asText());
+        assertFalse(config.has("temperature"), "unset fields are left to the model");
+
+        JsonNode weeks = config.at("/responseSchema/properties/weeks");
+        assertEquals("ARRAY", weeks.get("type").asText());
+        assertEquals("Ordered list of training weeks", weeks.get("description").asText());
+        JsonNode week = weeks.get("items");
+        assertEquals("INTEGER", week.at("/properties/weekNumber/type").asText());
+        assertEquals("STRING", week.at("/properties/sessions/items/properties/distance/type").asText());
+        assertEquals("[\"weekNumber\",\"sessions\"]", week.get("required").toString());
+        // Derived server-side, so not requested from the model
+        assertFalse(week.at("/properties/sessions/items/properties").has("meters"));
+
+        assertFalse(mapper.readTree(mapper.writeValueAsString(GeminiRequest.of("prompt"))).has("generationConfig"));
+    }
+}
@@ -0,0 +1,99 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Serialize/deserialize throughput per DTO: plain reflective ObjectMapper (what AIService used
+ * to create) vs the shared Blackbird mapper through pre-built readers/writers.
+ * Run with: mvn -Pbenchmark test -Dtest=JsonCodecsBenchmarkTest
+ */
+@Tag("benchmark")
+class JsonCodecsBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 20_000;
+    private static final int MEASURE_ROUNDS = 100_000;
+
+    @Test
+    void serializeDeserializeThroughputPerDto() throws Exception {
+        ObjectMapper plain = new ObjectMapper();
+        JsonCodecs tuned = new JsonCodecs(Jackson2ObjectMapperBuilder.json()
+                .modules(new BlackbirdModule())
+                .featuresToDisable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build());
+
+        List<Object> samples = List.of(sampleWorkout(), sampleDiet(), sampleYoga(), sampleRunning(16));
+        System.out.printf("%-22s %14s %14s %14s %14s%n", "dto", "ser plain/s", "ser tuned/s", "de plain/s", "de tuned/s");
+        for (Object sample : samples) {
+            Class<?> type = sample.getClass();
+            String json = plain.writeValueAsString(sample);
+            assertEquals(sample, tuned.read(json, type));
+
+            double serPlain = opsPerSecond(() -> plain.writeValueAsBytes(sample));
+            double serTuned = opsPerSecond(() -> tuned.write(sample));
+            double dePlain = opsPerSecond(() -> plain.readValue(json, type));
+            double deTuned = opsPerSecond(() -> tuned.read(json, type));
+            System.out.printf("%-22s %14.0f %14.0f %14.0f %14.0f%n", type.getSimpleName(), serPlain, serTuned, dePlain, deTuned);
+        }
+    }
+
+    private interface Op {
+        Object run() throws Exception;
+    }
+
+    private static double opsPerSecond(Op op) throws Exception {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink = op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) sink = op.run();
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) throw new IllegalStateException();
+        return MEASURE_ROUNDS / (elapsed / 1e9);
+    }
+
+    private static WorkoutResponse sampleWorkout() {
+        return new WorkoutResponse(List.of(
+                new Exercise("Standard Push-ups", "3", "10-15", "Classic bodyweight chest exercise"),
+                new Exercise("Wide-Grip Push-ups", "3", "8-12", "Push-ups with wider hand placement"),
+                new Exercise("Diamond Push-ups", "3", "6-10", "Push-ups with hands in diamond shape"),
+                new Exercise("Decline Push-ups", "3", "8-12", "Push-ups with feet elevated")));
+    }
+
+    private static DietResponse sampleDiet() {
+        return new DietResponse(List.of(
+                new Meal("Balanced Breakfast", "Oatmeal, berries, protein powder, nuts", "350", "Well-rounded morning meal"),
+                new Meal("Chicken Quinoa Bowl", "Grilled chicken, quinoa, mixed vegetables", "450", "Balanced lunch option"),
+                new Meal("Lean Protein Dinner", "Fish, sweet potato, broccoli", "500", "Balanced evening meal"),
+                new Meal("Mixed Nuts", "Almonds, walnuts, dried fruit", "200", "Healthy balanced snack")));
+    }
+
+    private static YogaPlanResponse sampleYoga() {
+        return new YogaPlanResponse(List.of(
+                new YogaPose("Cat-Cow", "6 breaths", "Alternate spinal flexion/extension with inhales and exhales"),
+                new YogaPose("Downward Dog", "60 sec", "Press through palms, lengthen spine, soften knees"),
+                new YogaPose("Warrior II", "45 sec each", "Front knee bent, arms extended, gaze over front hand"),
+                new YogaPose("Savasana", "2 min", "Relax fully, natural breath, release tension")));
+    }
+
+    private static RunningPlanResponse sampleRunning(int weeks) {
+        List<RunningWeek> list = new ArrayList<>();
+        for (int w = 1; w <= weeks; w++) {
+            list.add(new RunningWeek(w, List.of(
+                    new RunningSession("Mon", "Rest", "-", "Recovery / mobility"),
+                    new RunningSession("Tue", "Easy Run", (3 + w) + " km", "Comfortable pace"),
+                    new RunningSession("Sat", "Tempo", (4 + w) + " km", "Sustained comfortably hard"),
+                    new RunningSession("Sun", "Long Run", (7 + w) + " km", "Endurance building"))));
+        }
+        return new RunningPlanResponse(list);
+    }
+}
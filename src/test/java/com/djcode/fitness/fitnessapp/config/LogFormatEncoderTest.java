@@ -0,0 +1,50 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.status.Status;
+import ch.qos.logback.core.status.StatusUtil;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LogFormatEncoderTest {
+
+    @Test
+    void writesJsonOrTextByFormat() {
+        LoggerContext context = new LoggerContext();
+
+        String json = encode(context, "JSON", "hello json");
+        String text = encode(context, "text", "hello text");
+
+        assertTrue(json.startsWith("{") && json.contains("\"formattedMessage\":\"hello json\""), json);
+        assertEquals("INFO hello text\n", text);
+        assertEquals(Status.INFO, new StatusUtil(context).getHighestLevel(0));
+    }
+
+    @Test
+    void unknownFormatWarnsAndFallsBackToText() {
+        LoggerContext context = new LoggerContext();
+
+        String text = encode(context, "jsno", "still logged");
+
+        assertEquals("INFO still logged\n", text);
+        assertEquals(Status.WARN, new StatusUtil(context).getHighestLevel(0));
+    }
+
+    private static String encode(LoggerContext context, String format, String message) {
+        LogFormatEncoder encoder = new LogFormatEncoder();
+        encoder.setContext(context);
+        encoder.setFormat(format);
+        encoder.setPattern("%level %msg%n");
+        encoder.setCharset(StandardCharsets.UTF_8);
+        encoder.start();
+        LoggingEvent event = new LoggingEvent("test", context.getLogger("test"), Level.INFO, message, null, null);
+        event.setMDCPropertyMap(Map.of());
+        return new String(encoder.encode(event), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,48 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ConnectionPoolSettings;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionCheckOutFailedEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MongoConfigTest {
+
+    @Test
+    void appliesPoolSettingsAndTimesCheckouts() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MongoClientSettings.Builder builder = MongoClientSettings.builder();
+        new MongoConfig().mongoPoolSettings(5, 50, Duration.ofSeconds(2), Duration.ofMinutes(5), "secondaryPreferred", registry)
+                .customize(builder);
+        MongoClientSettings settings = builder.build();
+
+        ConnectionPoolSettings pool = settings.getConnectionPoolSettings();
+        assertEquals(5, pool.getMinSize());
+        assertEquals(50, pool.getMaxSize());
+        assertEquals(2000, pool.getMaxWaitTime(TimeUnit.MILLISECONDS));
+        assertEquals(300_000, pool.getMaxConnectionIdleTime(TimeUnit.MILLISECONDS));
+        assertEquals(ReadPreference.secondaryPreferred(), settings.getReadPreference());
+
+        ServerId server = new ServerId(new ClusterId(), new ServerAddress("localhost", 27017));
+        ConnectionPoolListener listener = pool.getConnectionPoolListeners().get(0);
+        listener.connectionCheckedOut(new ConnectionCheckedOutEvent(new ConnectionId(server), 1, TimeUnit.MILLISECONDS.toNanos(3)));
+        listener.connectionCheckOutFailed(new ConnectionCheckOutFailedEvent(server, 2,
+                ConnectionCheckOutFailedEvent.Reason.TIMEOUT, TimeUnit.SECONDS.toNanos(2)));
+
+        assertEquals(3.0, registry.get("mongodb.driver.pool.checkout.wait").tag("outcome", "ok").timer()
+                .totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertEquals(1, registry.get("mongodb.driver.pool.checkout.wait").tag("outcome", "timeout").timer().count());
+    }
+}
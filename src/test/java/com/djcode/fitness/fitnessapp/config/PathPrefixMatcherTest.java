@@ -0,0 +1,31 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathPrefixMatcherTest {
+
+    private final PathPrefixMatcher matcher = new PathPrefixMatcher(SecurityConfig.PUBLIC_PATHS);
+
+    @Test
+    void matchesLiteralsSubtreesAndExtensions() {
+        for (String path : List.of("/", "/health", "/index.html", "/dashboard", "/assets", "/assets/",
+                "/assets/index-4f2a.js", "/swagger-ui/index.html", "/v3/api-docs", "/v3/api-docs/swagger-config",
+                "/vite.svg", "/vite-9b1c.svg", "/favicon.ico")) {
+            assertTrue(matcher.matches(path), path);
+        }
+        for (String path : List.of("", "health", "/healthz", "/health/x", "/api/plans", "/api/auth/login",
+                "/assetsx/a.js", "/v3", "/v3/other", "/img/logo.svg", "/vite.svg.map", "//health")) {
+            assertFalse(matcher.matches(path), path);
+        }
+    }
+
+    @Test
+    void rejectsUnsupportedPatterns() {
+        assertThrows(IllegalArgumentException.class, () -> new PathPrefixMatcher(List.of("/api/*/plans")));
+        assertThrows(IllegalArgumentException.class, () -> new PathPrefixMatcher(List.of("health")));
+    }
+}
@@ -0,0 +1,57 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PayloadLogTest {
+
+    @Test
+    void logsOnlySampledCallsAndTruncates() {
+        ListAppender<ILoggingEvent> events = new ListAppender<>();
+        Logger logger = logger(Level.DEBUG, events);
+        PayloadLog sampled = new PayloadLog(logger, 20, 10);
+
+        int hits = 0;
+        for (int i = 0; i < 20_000; i++) if (sampled.sample()) hits++;
+        assertTrue(hits > 800 && hits < 1200, "about 1 in 20: " + hits);
+
+        sampled.log(false, "workout", "prompt", "not logged");
+        sampled.log(true, "workout", "answer", "{\"exercises\":[]}");
+        sampled.rejected("diet", "{\"meals\":");
+        assertEquals(2, events.list.size());
+        assertEquals("Gemini workout answer (16 chars): {\"exercise...[truncated]", events.list.get(0).getFormattedMessage());
+        assertEquals("Gemini diet rejected answer (9 chars): {\"meals\":", events.list.get(1).getFormattedMessage());
+    }
+
+    @Test
+    void offWhenDisabledOrAboveDebug() {
+        ListAppender<ILoggingEvent> offEvents = new ListAppender<>();
+        ListAppender<ILoggingEvent> quietEvents = new ListAppender<>();
+        PayloadLog off = new PayloadLog(logger(Level.DEBUG, offEvents), 0, 100);
+        PayloadLog quiet = new PayloadLog(logger(Level.INFO, quietEvents), 1, 100);
+
+        assertFalse(off.sample());
+        assertFalse(quiet.sample());
+        off.rejected("yoga", "{}");
+        quiet.rejected("yoga", "{}");
+        assertTrue(offEvents.list.isEmpty());
+        assertTrue(quietEvents.list.isEmpty());
+        assertTrue(new PayloadLog(logger(Level.DEBUG, new ListAppender<>()), 1, 100).sample());
+    }
+
+    private static Logger logger(Level level, ListAppender<ILoggingEvent> appender) {
+        LoggerContext context = new LoggerContext();
+        appender.setContext(context);
+        appender.start();
+        Logger logger = context.getLogger(PayloadLog.LOGGER_NAME);
+        logger.setLevel(level);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
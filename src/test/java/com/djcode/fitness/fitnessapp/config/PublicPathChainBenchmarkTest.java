@@ -0,0 +1,98 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.web.FilterChainProxy;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Security overhead per request on public paths: {@code /health}, an asset and the SPA root through
+ * the authenticated chain alone (JWT filter, authorization; every request took it before) vs the
+ * public chain picked by {@link PathPrefixMatcher}, and the permit-list match itself as Ant patterns
+ * tried in turn vs the trie. The controllers are not part of the measurement: the chain ends in a no-op.
+ * Run with: mvn -Pbenchmark test -Dtest=PublicPathChainBenchmarkTest
+ */
+@Tag("benchmark")
+@SpringBootTest
+class PublicPathChainBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 50_000;
+    private static final int MEASURE_ROUNDS = 200_000;
+
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter securityChain;
+
+    @Autowired
+    @Qualifier("securityFilterChain")
+    private SecurityFilterChain authenticatedChain;
+
+    @Test
+    void publicPathsSkipAuthentication() throws Exception {
+        Filter authenticatedOnly = new FilterChainProxy(authenticatedChain);
+        assertEquals(200, status(securityChain, "/health"));
+
+        System.out.printf("%-36s %16s %16s%n", "path", "authenticated ns", "public chain ns");
+        for (String path : new String[]{"/health", "/assets/index-4f2a.js", "/"}) {
+            double before = nanosPerRequest(() -> status(authenticatedOnly, path));
+            double after = nanosPerRequest(() -> status(securityChain, path));
+            System.out.printf("%-36s %16.0f %16.0f%n", path, before, after);
+        }
+        double api = nanosPerRequest(() -> status(securityChain, "/api/plans"));
+        System.out.printf("%-36s %16.0f %16s%n", "/api/plans (no token, 403)", api, "-");
+    }
+
+    @Test
+    void trieBeatsPatternList() throws Exception {
+        RequestMatcher ant = new OrRequestMatcher(SecurityConfig.PUBLIC_PATHS.stream()
+                .map(pattern -> (RequestMatcher) new AntPathRequestMatcher(pattern)).toList());
+        RequestMatcher trie = new PathPrefixMatcher(SecurityConfig.PUBLIC_PATHS);
+
+        System.out.printf("%-36s %16s %16s%n", "path", "ant list ns", "trie ns");
+        for (String path : new String[]{"/health", "/assets/index-4f2a.js", "/api/plans"}) {
+            MockHttpServletRequest request = request(path);
+            assertEquals(ant.matches(request), trie.matches(request));
+            double antNs = nanosPerRequest(() -> ant.matches(request) ? 1 : 2);
+            double trieNs = nanosPerRequest(() -> trie.matches(request) ? 1 : 2);
+            System.out.printf("%-36s %16.1f %16.1f%n", path, antNs, trieNs);
+        }
+    }
+
+    private static int status(Filter chain, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        chain.doFilter(request(path), response, new MockFilterChain());
+        return response.getStatus();
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+
+    private interface Op {
+        int run() throws Exception;
+    }
+
+    private static double nanosPerRequest(Op op) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink += op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) sink += op.run();
+        long elapsed = System.nanoTime() - start;
+        if (sink == 0) throw new IllegalStateException();
+        return (double) elapsed / MEASURE_ROUNDS;
+    }
+}
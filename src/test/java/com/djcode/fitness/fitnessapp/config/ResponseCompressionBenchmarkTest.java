@@ -0,0 +1,83 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bytes on the wire and compression CPU per plan payload: identity vs gzip at levels 1, 6 (the
+ * default, and what Tomcat uses) and 9, plus the 304 revalidation that sends no body at all.
+ * Run with: mvn -Pbenchmark test -Dtest=ResponseCompressionBenchmarkTest
+ */
+@Tag("benchmark")
+class ResponseCompressionBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 5_000;
+    private static final int MEASURE_ROUNDS = 10_000;
+
+    @Test
+    void gzipShrinksPlanPayloads() throws Exception {
+        JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+        List<Object[]> payloads = List.of(
+                new Object[]{"workout (5 exercises)", codecs.write(workout())},
+                new Object[]{"running plan (4 weeks)", codecs.write(running(4))},
+                new Object[]{"running plan (16 weeks)", codecs.write(running(16))},
+                new Object[]{"running plan (52 weeks)", codecs.write(running(52))});
+
+        System.out.printf("%-26s %9s %7s %9s %12s %9s %12s %9s %12s %8s%n", "payload", "identity",
+                "304", "gzip-1", "us/op", "gzip-6", "us/op", "gzip-9", "us/op", "MB/s@6");
+        for (Object[] payload : payloads) {
+            byte[] body = (byte[]) payload[1];
+            StringBuilder row = new StringBuilder(String.format("%-26s %9d %7d", payload[0], body.length, 0));
+            double mbPerSecondDefault = 0;
+            for (int level : new int[]{1, 6, 9}) {
+                int size = EntityTagResponses.gzip(body, level).length;
+                assertTrue(size < body.length || body.length < 200);
+                double micros = microsPerOp(body, level);
+                if (level == 6) mbPerSecondDefault = body.length / micros;
+                row.append(String.format(" %9d %12.1f", size, micros));
+            }
+            System.out.println(row.append(String.format(" %8.0f", mbPerSecondDefault)));
+        }
+    }
+
+    private static double microsPerOp(byte[] body, int level) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink += EntityTagResponses.gzip(body, level).length;
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) sink += EntityTagResponses.gzip(body, level).length;
+        long elapsed = System.nanoTime() - start;
+        if (sink == 0) throw new IllegalStateException();
+        return elapsed / 1e3 / MEASURE_ROUNDS;
+    }
+
+    private static WorkoutResponse workout() {
+        List<Exercise> exercises = new ArrayList<>();
+        for (String name : List.of("Push-ups", "Incline Dumbbell Press", "Cable Fly", "Dips", "Plank")) {
+            exercises.add(new Exercise(name, "3", "10-12", name + ": controlled tempo, full range of motion, brace the core"));
+        }
+        return new WorkoutResponse(exercises);
+    }
+
+    private static RunningPlanResponse running(int weeks) {
+        List<RunningWeek> out = new ArrayList<>();
+        for (int w = 1; w <= weeks; w++) {
+            int easy = 3 + (w - 1) % 12;
+            out.add(new RunningWeek(w, List.of(
+                    new RunningSession("Mon", "Rest", "-", "Recovery / mobility"),
+                    new RunningSession("Tue", "Easy Run", easy + " km", "Comfortable pace"),
+                    new RunningSession("Wed", "Intervals", (easy - 1) + " km", "6 x 400 m at 5 km pace, 90 s jog recovery"),
+                    new RunningSession("Thu", "Easy Run", easy + " km", "Steady aerobic"),
+                    new RunningSession("Fri", "Rest", "-", "Sleep & nutrition focus"),
+                    new RunningSession("Sat", "Tempo", (easy + 1) + " km", "Sustained comfortably hard"),
+                    new RunningSession("Sun", "Long Run", (easy + 4) + " km", "Endurance building"))));
+        }
+        return new RunningPlanResponse(out);
+    }
+}
@@ -0,0 +1,49 @@
+package com.djcode.fitness.fitnessapp.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaIndexTest {
+
+    @Test
+    void servesIndexFromMemoryWithRevalidation() {
+        byte[] html = ("<!doctype html><html><body><div id=\"root\"></div>" + "<!-- -->".repeat(100) + "</body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+        SpaIndex index = new SpaIndex(new ByteArrayResource(html), DataSize.ofBytes(256), 6);
+
+        ResponseEntity<byte[]> plain = index.response(new MockHttpServletRequest());
+        assertArrayEquals(html, plain.getBody());
+        assertEquals("no-cache", plain.getHeaders().getCacheControl());
+        assertEquals("text/html;charset=UTF-8", plain.getHeaders().getContentType().toString());
+
+        MockHttpServletRequest gzipRequest = new MockHttpServletRequest();
+        gzipRequest.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        ResponseEntity<byte[]> gzipped = index.response(gzipRequest);
+        assertEquals("gzip", gzipped.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertTrue(gzipped.getBody().length < html.length);
+        // Compressed once, then served as is
+        assertSame(gzipped.getBody(), index.response(gzipRequest).getBody());
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest();
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, gzipped.getHeaders().getETag());
+        ResponseEntity<byte[]> notModified = index.response(revalidate);
+        assertEquals(HttpStatus.NOT_MODIFIED, notModified.getStatusCode());
+        assertEquals("no-cache", notModified.getHeaders().getCacheControl());
+    }
+
+    @Test
+    void notFoundWithoutBuiltFrontend() {
+        SpaIndex index = new SpaIndex(new ClassPathResource("static/missing-index.html"), DataSize.ofKilobytes(2), 6);
+        assertEquals(HttpStatus.NOT_FOUND, index.response(new MockHttpServletRequest()).getStatusCode());
+    }
+}
@@ -0,0 +1,60 @@
+package com.djcode.fitness.fitnessapp.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanNumbersTest {
+
+    @Test
+    void parsesFreeFormQuantities() {
+        Exercise range = new Exercise("Squat", "3-4", "10-12", null);
+        assertEquals(3, range.setCount());
+        assertEquals(10, range.repsMin());
+        assertEquals(12, range.repsMax());
+        Exercise perSide = new Exercise("Lunge", "3", "12 each leg", null);
+        assertEquals(12, perSide.repsMin());
+        assertEquals(12, perSide.repsMax());
+        Exercise timed = new Exercise("Plank", "3", "30 sec", null);
+        assertEquals(0, timed.repsMin());
+        assertEquals(0, new Exercise("Burpees", "three", "AMRAP", null).setCount());
+
+        assertEquals(350, new Meal("Oats", null, "350 kcal", null).kcal());
+        assertEquals(1200, new Meal("Feast", null, "1,200", null).kcal());
+        assertEquals(375, new Meal("Bowl", null, "350-400", null).kcal());
+        assertEquals(0, new Meal("Water", null, null, null).kcal());
+
+        assertEquals(3000, PlanNumbers.meters("3 km"));
+        assertEquals(5500, PlanNumbers.meters("5.5km"));
+        assertEquals(800, PlanNumbers.meters("800 m"));
+        assertEquals(1500, PlanNumbers.meters("1,500 m"));
+        assertEquals(3218, PlanNumbers.meters("2 miles"));
+        assertEquals(6000, PlanNumbers.meters("6"));
+        assertEquals(0, PlanNumbers.meters("-"));
+        assertEquals(0, PlanNumbers.meters("30 min"));
+    }
+
+    @Test
+    void numbersAreDerivedWhenBindingGeminiJsonAndSerializedForClients() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        // Gemini answers carry only the strings; a client-sent setCount is recomputed, not trusted
+        DietResponse diet = mapper.readValue("""
+                {"meals":[{"name":"Oats","calories":"350"},{"name":"Salad","calories":"450 kcal","kcal":9999}]}""",
+                DietResponse.class);
+        assertEquals(800, diet.totalKcal());
+
+        RunningWeek week = new RunningWeek(1, List.of(
+                new RunningSession("Mon", "Rest", "-", null),
+                new RunningSession("Tue", "Easy Run", "5 km", null),
+                new RunningSession("Sun", "Long Run", "12.5 km", null)));
+        assertEquals(17_500, week.totalMeters());
+
+        JsonNode json = mapper.readTree(mapper.writeValueAsString(week));
+        assertEquals(5000, json.at("/sessions/1/meters").asInt());
+        assertFalse(json.has("totalMeters"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.djcode.fitness.fitnessapp.repository;
+
+import com.djcode.fitness.fitnessapp.entity.AuthUser;
+import com.djcode.fitness.fitnessapp.entity.User;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.lang.reflect.RecordComponent;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Client-side cost of a user lookup per access path: the full {@link User} document, the
+ * {@link AuthUser} projection used by login and JWT checks, and the count reply behind
+ * {@code existsByEmail}. Measures bytes on the wire and BSON -> object decoding through the same
+ * MappingMongoConverter setup the repositories use; server time is not included.
+ * Run with: mvn -Pbenchmark test -Dtest=UserProjectionBenchmarkTest
+ */
+@Tag("benchmark")
+class UserProjectionBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 50_000;
+    private static final int MEASURE_ROUNDS = 500_000;
+
+    @Test
+    void projectedLookupsTransferAndDecodeLess() {
+        MongoMappingContext context = new MongoMappingContext();
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, context);
+        converter.afterPropertiesSet();
+
+        ObjectId id = new ObjectId();
+        Document full = new Document("_id", id)
+                .append("username", "Jane Runner")
+                .append("email", "jane.runner@example.com")
+                .append("password", "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BWX4Z4Nq6bG6C8s0Cq0hY7sLQ2hK")
+                .append("roles", List.of("ROLE_USER"))
+                .append("_class", User.class.getName());
+        Document projected = new Document("_id", id);
+        for (RecordComponent c : AuthUser.class.getRecordComponents()) {
+            if (!c.getName().equals("id")) projected.append(c.getName(), full.get(c.getName()));
+        }
+        Document countReply = new Document("n", 1);
+
+        RawBsonDocument fullBytes = RawBsonDocument.parse(full.toJson());
+        RawBsonDocument projectedBytes = RawBsonDocument.parse(projected.toJson());
+        RawBsonDocument countBytes = RawBsonDocument.parse(countReply.toJson());
+        DocumentCodec codec = new DocumentCodec();
+
+        AuthUser auth = converter.read(AuthUser.class, decode(projectedBytes, codec));
+        assertEquals(new AuthUser(id.toHexString(), "jane.runner@example.com", full.getString("password"), List.of("ROLE_USER")), auth);
+        assertEquals("jane.runner@example.com", converter.read(User.class, decode(fullBytes, codec)).getEmail());
+
+        double fullOps = opsPerSecond(() -> converter.read(User.class, decode(fullBytes, codec)));
+        double projectedOps = opsPerSecond(() -> converter.read(AuthUser.class, decode(projectedBytes, codec)));
+        double countOps = opsPerSecond(() -> decode(countBytes, codec).get("n"));
+
+        System.out.printf("%-30s %10s %14s%n", "lookup", "bytes", "decodes/s");
+        System.out.printf("%-30s %10d %14.0f%n", "findByEmail (User)", fullBytes.getByteBuffer().remaining(), fullOps);
+        System.out.printf("%-30s %10d %14.0f%n", "findAuthByEmail (AuthUser)", projectedBytes.getByteBuffer().remaining(), projectedOps);
+        System.out.printf("%-30s %10d %14.0f%n", "existsByEmail (count)", countBytes.getByteBuffer().remaining(), countOps);
+    }
+
+    private static Document decode(RawBsonDocument raw, DocumentCodec codec) {
+        return codec.decode(raw.asBsonReader(), DecoderContext.builder().build());
+    }
+
+    private interface Op {
+        Object run();
+    }
+
+    private static double opsPerSecond(Op op) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) sink = op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ROUNDS; i++) sink = op.run();
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) throw new IllegalStateException();
+        return MEASURE_ROUNDS / (elapsed / 1e9);
+    }
+}
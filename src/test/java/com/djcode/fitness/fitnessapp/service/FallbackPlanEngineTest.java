@@ -0,0 +1,118 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FallbackPlanEngineTest {
+
+    private static FallbackPlanEngine engine;
+
+    @BeforeAll
+    static void load() throws Exception {
+        engine = new FallbackPlanEngine(new JsonCodecs(new ObjectMapper()));
+    }
+
+    @Test
+    void workoutRespectsLevel() {
+        List<String> beginner = names(engine.workout(new WorkoutRequest("back", 30, "beginner")));
+        List<String> advanced = names(engine.workout(new WorkoutRequest("back", 30, "advanced")));
+        assertTrue(beginner.size() >= 3);
+        assertTrue(advanced.size() >= 3);
+        assertNotEquals(beginner, advanced);
+        assertFalse(beginner.contains("Pull-ups"));
+    }
+
+    @Test
+    void longerWorkoutGetsMoreWork() {
+        WorkoutResponse shortPlan = engine.workout(new WorkoutRequest("legs", 15, "intermediate"));
+        WorkoutResponse longPlan = engine.workout(new WorkoutRequest("legs", 60, "intermediate"));
+        assertTrue(totalSets(longPlan) > totalSets(shortPlan));
+    }
+
+    @Test
+    void muscleAliasesMatchWholeWords() {
+        assertEquals("legs", FallbackPlanEngine.normalizeMuscle("Calves"));
+        assertEquals("legs", FallbackPlanEngine.normalizeMuscle("calf"));
+        assertEquals("core", FallbackPlanEngine.normalizeMuscle("abs"));
+        assertEquals("chest", FallbackPlanEngine.normalizeMuscle("Upper chest."));
+        assertEquals("arms", FallbackPlanEngine.normalizeMuscle("biceps/triceps"));
+        assertEquals("full body", FallbackPlanEngine.normalizeMuscle("stability"));
+        assertEquals("full body", FallbackPlanEngine.normalizeMuscle("warm-up"));
+        assertEquals("full body", FallbackPlanEngine.normalizeMuscle("lateral chain"));
+    }
+
+    @Test
+    void unknownMuscleFallsBackToFullBody() {
+        assertFalse(engine.workout(new WorkoutRequest("elbows", 30, "beginner")).exercises().isEmpty());
+    }
+
+    @Test
+    void dietExcludesAllergensAndTracksCalories() {
+        DietResponse diet = engine.diet(new DietRequest("vegetarian", "weight loss", 1600, "nuts, dairy"));
+        assertTrue(diet.meals().size() >= 3);
+        int kcal = 0;
+        for (Meal m : diet.meals()) {
+            String text = (m.name() + " " + m.ingredients()).toLowerCase();
+            assertFalse(text.contains("almond") || text.contains("nut") || text.contains("cheese") || text.contains("yogurt"), m.name());
+            kcal += Integer.parseInt(m.calories());
+        }
+        assertTrue(Math.abs(kcal - 1600) < 400, "kcal " + kcal);
+    }
+
+    @Test
+    void higherCalorieTargetYieldsMoreCalories() {
+        assertTrue(calories(engine.diet(new DietRequest("balanced", "muscle gain", 2800, "none")))
+                > calories(engine.diet(new DietRequest("balanced", "weight loss", 1400, "none"))));
+    }
+
+    @Test
+    void yogaFitsDurationAndKeepsOpeningAndClosing() {
+        YogaPlanResponse plan = engine.yoga(new YogaPlanRequest("Stress Relief", 15));
+        assertTrue(plan.poses().size() >= 5);
+        assertEquals("Centering Breath", plan.poses().get(0).name());
+        assertEquals("Savasana", plan.poses().get(plan.poses().size() - 1).name());
+    }
+
+    @Test
+    @Tag("benchmark")
+    void planAssemblyLatency() {
+        WorkoutRequest w = new WorkoutRequest("chest", 45, "intermediate");
+        DietRequest d = new DietRequest("vegan", "maintenance", 2200, "soy, gluten");
+        YogaPlanRequest y = new YogaPlanRequest("Flexibility", 20);
+        int rounds = 200_000;
+        for (int i = 0; i < rounds; i++) {
+            engine.workout(w);
+            engine.diet(d);
+            engine.yoga(y);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) engine.workout(w);
+        long mid1 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) engine.diet(d);
+        long mid2 = System.nanoTime();
+        for (int i = 0; i < rounds; i++) engine.yoga(y);
+        long end = System.nanoTime();
+        System.out.printf("workout %.2f us, diet %.2f us, yoga %.2f us per plan%n",
+                (mid1 - start) / 1e3 / rounds, (mid2 - mid1) / 1e3 / rounds, (end - mid2) / 1e3 / rounds);
+    }
+
+    private static List<String> names(WorkoutResponse r) {
+        return r.exercises().stream().map(Exercise::name).toList();
+    }
+
+    private static int totalSets(WorkoutResponse r) {
+        return r.exercises().stream().mapToInt(e -> Integer.parseInt(e.sets())).sum();
+    }
+
+    private static int calories(DietResponse r) {
+        return r.meals().stream().mapToInt(m -> Integer.parseInt(m.calories())).sum();
+    }
+}
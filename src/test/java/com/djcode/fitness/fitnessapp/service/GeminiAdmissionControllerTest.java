@@ -0,0 +1,46 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GeminiAdmissionControllerTest {
+
+    @Test
+    void shedsWhenSaturatedAndCountsIt() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GeminiAdmissionController controller = new GeminiAdmissionController(1, 5, 50, registry);
+
+        GeminiAdmissionController.Permit held = controller.tryAcquire();
+        assertNotNull(held);
+        assertEquals(1, controller.inFlight());
+
+        long start = System.nanoTime();
+        assertNull(controller.tryAcquire());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 1_000, "should not wait for the in-flight call");
+        assertEquals(1.0, registry.get("gemini.admission").tag("outcome", "shed").counter().count());
+
+        held.close();
+        held.close(); // idempotent
+        assertEquals(0, controller.inFlight());
+        try (GeminiAdmissionController.Permit p = controller.tryAcquire()) {
+            assertNotNull(p);
+        }
+    }
+
+    @Test
+    void shortensWaitOnceQueueStaysAboveTarget() throws Exception {
+        GeminiAdmissionController controller = new GeminiAdmissionController(1, 5, 50, new SimpleMeterRegistry());
+        GeminiAdmissionController.Permit held = controller.tryAcquire();
+
+        // First interval: requests wait the full interval and get shed
+        assertNull(controller.tryAcquire());
+        Thread.sleep(60);
+        // Queue never drained in the last interval, so the next wait is capped at the target
+        long start = System.nanoTime();
+        assertNull(controller.tryAcquire());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 40);
+        held.close();
+    }
+}
@@ -0,0 +1,155 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.JsonEncoder;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResult;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Request-thread latency of a 12-week running plan request (prompt, Gemini answered instantly by a
+ * stub, parse and repair) with payload logging off, on for every call as before (full payloads,
+ * synchronous appender), on for every call behind the async appender, and sampled 1 in 20 with
+ * 2000-char truncation as configured, in text and JSON. Log output goes to a file under target/
+ * so the console write cost is comparable without flooding the build output.
+ * Run with: mvn -Pbenchmark test -Dtest=PayloadLoggingBenchmarkTest
+ */
+@Tag("benchmark")
+class PayloadLoggingBenchmarkTest {
+
+    private static final int WARMUP_ROUNDS = 5_000;
+    private static final int MEASURE_ROUNDS = 10_000;
+    private static final RunningPlanRequest REQUEST = new RunningPlanRequest("Half marathon", "12 weeks", "intermediate");
+
+    @Test
+    void sampledAsyncPayloadLoggingStaysOffTheRequestPath() {
+        Logger serviceLog = (Logger) LoggerFactory.getLogger(AIService.class);
+        Level previous = serviceLog.getLevel();
+        // The service's own INFO lines are the same in every scenario; keep them out of the output
+        serviceLog.setLevel(Level.WARN);
+        try {
+            // The first pass only warms up the JIT for every scenario
+            for (boolean print : new boolean[]{false, true}) {
+                if (print) System.out.printf("%-40s %10s %10s%n", "payload logging", "mean us", "p99 us");
+                run(print, "off", 0, 2000, false, false);
+                run(print, "every call, full, sync (before)", 1, 0, false, false);
+                run(print, "every call, full, async", 1, 0, true, false);
+                run(print, "1 in 20, 2000 chars, async", 20, 2000, true, false);
+                run(print, "1 in 20, 2000 chars, async, JSON", 20, 2000, true, true);
+            }
+        } finally {
+            serviceLog.setLevel(previous);
+        }
+    }
+
+    private void run(boolean print, String label, int sampleEvery, int maxChars, boolean async, boolean json) {
+        LoggerContext context = new LoggerContext();
+        Logger logger = context.getLogger(PayloadLog.LOGGER_NAME);
+        logger.setLevel(Level.DEBUG);
+        logger.addAppender(appender(context, async, json));
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.initialize();
+        try {
+            AIService service = service(new PayloadLog(logger, sampleEvery, maxChars), executor);
+            for (int i = 0; i < WARMUP_ROUNDS; i++) request(service);
+            long[] nanos = new long[MEASURE_ROUNDS];
+            for (int i = 0; i < MEASURE_ROUNDS; i++) nanos[i] = request(service);
+            Arrays.sort(nanos);
+            double mean = Arrays.stream(nanos).average().orElseThrow() / 1e3;
+            if (print) System.out.printf("%-40s %10.1f %10.1f%n", label, mean, nanos[MEASURE_ROUNDS * 99 / 100] / 1e3);
+        } finally {
+            executor.shutdown();
+            context.stop();
+        }
+    }
+
+    private static long request(AIService service) {
+        long start = System.nanoTime();
+        GeneratedPlan<?> plan = service.generateRunningPlanWithSource(REQUEST);
+        long elapsed = System.nanoTime() - start;
+        assertEquals(PlanSource.GEMINI, plan.source());
+        return elapsed;
+    }
+
+    private static Appender<ILoggingEvent> appender(LoggerContext context, boolean async, boolean json) {
+        Encoder<ILoggingEvent> encoder;
+        if (json) {
+            JsonEncoder jsonEncoder = new JsonEncoder();
+            jsonEncoder.setWithContext(false);
+            jsonEncoder.setWithArguments(false);
+            jsonEncoder.setWithMessage(false);
+            jsonEncoder.setWithFormattedMessage(true);
+            encoder = jsonEncoder;
+        } else {
+            PatternLayoutEncoder patternEncoder = new PatternLayoutEncoder();
+            patternEncoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5level --- [%15.15thread] %-40.40logger{39} : %msg%n");
+            encoder = patternEncoder;
+        }
+        encoder.setContext(context);
+        encoder.start();
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(Path.of("target", "payload-benchmark.log").toString());
+        file.setAppend(false);
+        file.setEncoder(encoder);
+        file.start();
+        if (!async) return file;
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.addAppender(file);
+        asyncAppender.start();
+        return asyncAppender;
+    }
+
+    private static AIService service(PayloadLog payloadLog, ThreadPoolTaskExecutor executor) {
+        return TestAIService.builder().gemini(new InstantGemini(12)).executor(executor).maxConcurrency(16)
+                .payloadLog(payloadLog).build();
+    }
+
+    /** Answers with the same full running plan (seven sessions a week, about 9 KB) right away. */
+    private static final class InstantGemini extends GeminiClient {
+        private final GeminiResult answer;
+
+        InstantGemini(int weeks) {
+            super(null, "stub", "stub");
+            String[] days = {"Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"};
+            StringBuilder json = new StringBuilder("{\"weeks\":[");
+            for (int w = 1; w <= weeks; w++) {
+                if (w > 1) json.append(',');
+                json.append("{\"weekNumber\":").append(w).append(",\"sessions\":[");
+                for (int d = 0; d < days.length; d++) {
+                    if (d > 0) json.append(',');
+                    json.append("{\"day\":\"").append(days[d]).append("\",\"type\":\"Easy Run\",\"distance\":\"")
+                            .append(4 + d % 3).append(" km\",\"notes\":\"Conversational pace, keep heart rate in zone 2\"}");
+                }
+                json.append("]}");
+            }
+            answer = new GeminiResult(json.append("]}").toString(), 900, "STOP");
+        }
+
+        @Override
+        public GeminiResult generate(String prompt, GenerationConfig config) {
+            return answer;
+        }
+    }
+}
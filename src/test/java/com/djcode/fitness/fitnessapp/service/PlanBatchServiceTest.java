@@ -0,0 +1,137 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResult;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanBatchServiceTest {
+
+    private final JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private FallbackPlanEngine engine;
+    private ThreadPoolTaskExecutor executor;
+    private PlanBatchService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        engine = new FallbackPlanEngine(codecs);
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.initialize();
+        service = service(TestAIService.builder());
+    }
+
+    private PlanBatchService service(TestAIService aiService) {
+        return new PlanBatchService(aiService.codecs(codecs).registry(registry).engine(engine).executor(executor).build(),
+                engine, codecs, new PlanResponseRepair(codecs, registry), new PayloadLog(20, 2000), executor, registry, 4096);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void demultiplexesCombinedAnswerAndFallsBackPerSection() {
+        String answer = """
+                ```json
+                {"workout":{"exercises":[{"name":"Push-ups","sets":"3","reps":"10","description":"Chest"},
+                   {"name":"Bench Press","sets":"40","reps":"8","description":"Typo"},
+                   {"name":"Incline Push-ups","sets":"3","reps":"12","description":"Upper chest"},
+                   {"name":"Chest Dips","sets":"3","reps":"8","description":"Lower chest"},
+                   {"name":"Plank","sets":"3","reps":"30 sec","description":"Core"}]},
+                 "diet":{"meals":[]}}
+                ```""";
+        BatchPlanRequest request = new BatchPlanRequest(
+                new WorkoutRequest("chest", 30, "beginner"),
+                new DietRequest("balanced", "maintenance", 2000, "none"),
+                new YogaPlanRequest("Stress Relief", 20),
+                null);
+
+        BatchPlanResponse response = GeminiClient.withCannedResponse(answer, () -> service.generate(request));
+
+        // The out-of-range exercise is dropped as in a single-plan answer; four are left, so no top-up
+        assertEquals(List.of("Push-ups", "Incline Push-ups", "Chest Dips", "Plank"),
+                response.workout().exercises().stream().map(Exercise::name).toList());
+        assertEquals(PlanSource.GEMINI, response.sources().get("workout"));
+        assertFalse(response.diet().meals().isEmpty());
+        assertEquals(PlanSource.LOCAL, response.sources().get("diet"));
+        assertEquals(PlanSource.REASON_INVALID, response.fallbackReasons().get("diet"));
+        assertFalse(response.yoga().poses().isEmpty());
+        assertEquals(PlanSource.LOCAL, response.sources().get("yoga"));
+        assertNull(response.running());
+        assertFalse(response.sources().containsKey("running"));
+    }
+
+    @Test
+    void combinedBatchAsksOnlyForSectionsNotAlreadyCached() {
+        List<String> prompts = new ArrayList<>();
+        GeminiClient gemini = new GeminiClient(null, "CHANGE_ME", "test-model") {
+            @Override
+            public GeminiResult generate(String prompt, GenerationConfig config) {
+                prompts.add(prompt);
+                return new GeminiResult("""
+                        {"workout":{"exercises":[{"name":"Squats","sets":"3","reps":"12","description":"Quads"},
+                           {"name":"Lunges","sets":"3","reps":"10","description":"Glutes"},
+                           {"name":"Deadlifts","sets":"3","reps":"8","description":"Hamstrings"},
+                           {"name":"Calf Raises","sets":"3","reps":"15","description":"Calves"}]},
+                         "yoga":{"poses":[{"name":"Mountain Pose","hold":"60 sec","description":"Breathe"},
+                           {"name":"Cat-Cow","hold":"60 sec","description":"Spine"},
+                           {"name":"Downward Dog","hold":"60 sec","description":"Stretch"},
+                           {"name":"Warrior II","hold":"45 sec","description":"Legs"},
+                           {"name":"Seated Forward Bend","hold":"60 sec","description":"Calm"},
+                           {"name":"Child's Pose","hold":"90 sec","description":"Rest"}]}}""", 0, null);
+            }
+        };
+        PlanResponseCache cache = new PlanResponseCache(true, Path.of("target/batch-test-cache.snap"),
+                Duration.ofHours(1), 100, new PlanContentPool(registry), registry);
+        PlanBatchService cached = service(TestAIService.builder().gemini(gemini).cache(cache));
+        WorkoutRequest workout = new WorkoutRequest("legs", 30, "beginner");
+        YogaPlanRequest yoga = new YogaPlanRequest("Stress Relief", 20);
+
+        BatchPlanResponse first = cached.generate(new BatchPlanRequest(workout, null, yoga, null));
+        BatchPlanResponse second = cached.generate(new BatchPlanRequest(
+                workout, new DietRequest("balanced", "maintenance", 2000, "none"), yoga, null));
+
+        assertEquals(PlanSource.GEMINI, first.sources().get("workout"));
+        assertEquals(PlanSource.GEMINI, first.sources().get("yoga"));
+        assertEquals(PlanSource.CACHED, second.sources().get("workout"));
+        assertEquals(PlanSource.CACHED, second.sources().get("yoga"));
+        assertEquals(first.workout(), second.workout());
+        assertEquals(2, prompts.size());
+        assertTrue(prompts.get(1).contains("\"diet\""), prompts.get(1));
+        assertFalse(prompts.get(1).contains("\"workout\""), prompts.get(1));
+        assertEquals(List.of("workout", "diet", "yoga"), List.copyOf(second.sources().keySet()));
+    }
+
+    @Test
+    void overBudgetBatchRunsItemsInParallel() {
+        BatchPlanRequest request = new BatchPlanRequest(
+                new WorkoutRequest("legs", 45, "intermediate"), null, null,
+                new RunningPlanRequest("Marathon", "24 weeks", "intermediate"));
+        assertTrue(PlanBatchService.estimateOutputTokens(request) > 4096);
+
+        // Canned answers are thread-local, so worker threads see no API response and fall back
+        BatchPlanResponse response = service.generate(request);
+
+        assertEquals(24, response.running().weeks().size());
+        assertEquals(PlanSource.LOCAL, response.sources().get("running"));
+        assertEquals(PlanSource.LOCAL, response.sources().get("workout"));
+    }
+}
@@ -0,0 +1,86 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanContentPoolTest {
+
+    private final JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+    private final FallbackPlanEngine engine;
+
+    PlanContentPoolTest() throws Exception {
+        engine = new FallbackPlanEngine(codecs);
+    }
+
+    @Test
+    void internedPlansShareComponentsAndStayEqual() throws Exception {
+        PlanContentPool pool = new PlanContentPool(new SimpleMeterRegistry());
+        WorkoutResponse a = decoded(engine.workout(new WorkoutRequest("legs", 30, "beginner")), WorkoutResponse.class);
+        WorkoutResponse b = decoded(a, WorkoutResponse.class);
+        assertNotSame(a.exercises().get(0), b.exercises().get(0));
+
+        WorkoutResponse pa = pool.intern(a);
+        WorkoutResponse pb = pool.intern(b);
+        assertEquals(a, pa);
+        assertSame(pa.exercises().get(0), pb.exercises().get(0));
+
+        RunningPlanResponse running = new RunningPlanResponse(List.of(
+                new RunningWeek(1, List.of(new RunningSession("Mon", "Easy Run", "3 km", null))),
+                new RunningWeek(2, List.of(new RunningSession("Mon", "Easy Run", "3 km", null)))));
+        RunningPlanResponse pr = pool.intern(running);
+        assertEquals(running, pr);
+        assertSame(pr.weeks().get(0).sessions().get(0), pr.weeks().get(1).sessions().get(0));
+        String other = "not a plan";
+        assertSame(other, pool.intern(other));
+    }
+
+    /**
+     * Heap per cached entry for plans as decoded from Gemini JSON, before and after pooling.
+     * Run with: mvn -Pbenchmark test -Dtest=PlanContentPoolTest
+     */
+    @Test
+    @Tag("benchmark")
+    void heapPerEntryBeforeAndAfterPooling() throws Exception {
+        int count = 5_000;
+        List<Object> samples = new ArrayList<>();
+        for (String muscle : new String[]{"chest", "back", "legs", "shoulders", "arms", "core"}) {
+            for (String level : new String[]{"beginner", "intermediate", "advanced"}) {
+                samples.add(engine.workout(new WorkoutRequest(muscle, 30, level)));
+            }
+        }
+        for (String pref : new String[]{"balanced", "vegan", "vegetarian", "keto"}) {
+            samples.add(engine.diet(new DietRequest(pref, "maintenance", 2000, "none")));
+        }
+
+        // Every decode allocates its own strings, as each Gemini reply does
+        List<Object> plain = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Object sample = samples.get(i % samples.size());
+            plain.add(decoded(sample, sample.getClass()));
+        }
+        PlanContentPool pool = new PlanContentPool(new SimpleMeterRegistry());
+        List<Object> pooled = new ArrayList<>(count);
+        for (Object plan : plain) pooled.add(pool.intern(plan));
+
+        long before = GraphLayout.parseInstance(plain.toArray()).totalSize() / count;
+        long after = GraphLayout.parseInstance(pooled.toArray()).totalSize() / count;
+        System.out.printf("heap per cached plan: %,d bytes plain, %,d bytes pooled (%d pooled objects)%n",
+                before, after, pool.size());
+        assertEquals(plain, pooled);
+        assertTrue(after * 4 < before, "pooling should cut per-entry heap by more than 4x");
+    }
+
+    private <T> T decoded(Object plan, Class<T> type) throws Exception {
+        return codecs.reader(type).readValue(codecs.mapper().writeValueAsBytes(plan));
+    }
+}
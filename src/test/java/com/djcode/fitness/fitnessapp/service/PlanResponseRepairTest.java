@@ -0,0 +1,120 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Repair of recorded-style Gemini answers from src/test/resources/gemini-fixtures. */
+class PlanResponseRepairTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+    private final PlanResponseRepair repair = new PlanResponseRepair(codecs, registry);
+    private final FallbackPlanEngine engine;
+
+    PlanResponseRepairTest() throws Exception {
+        engine = new FallbackPlanEngine(codecs);
+    }
+
+    @Test
+    void keepsCompleteItemsOfTruncatedAnswer() throws Exception {
+        GeneratedPlan<WorkoutResponse> plan = repair.workout(fixture("workout-truncated.txt"),
+                () -> fail("enough items, no top-up expected"));
+
+        assertEquals(List.of("Goblet Squat", "Romanian Deadlift", "Walking Lunges", "Glute Bridge"),
+                plan.plan().exercises().stream().map(Exercise::name).toList());
+        assertEquals(PlanSource.GEMINI, plan.source());
+        assertEquals(1.0, outcomes("workout", PlanResponseRepair.OUTCOME_SALVAGED));
+    }
+
+    @Test
+    void dropsOutOfRangeItemsAndTopsUpFromLocalPlan() throws Exception {
+        WorkoutRequest request = new WorkoutRequest("chest", 30, "beginner");
+        GeneratedPlan<WorkoutResponse> plan = repair.workout(fixture("workout-out-of-range.txt"), () -> engine.workout(request));
+
+        List<String> names = plan.plan().exercises().stream().map(Exercise::name).toList();
+        assertEquals(List.of("Push-ups", "Plank", "Chest Fly"), names.subList(0, 3));
+        assertEquals(PlanResponseRepair.MIN_EXERCISES, names.size());
+        assertEquals(PlanSource.LOCAL, plan.source());
+        assertEquals(PlanSource.REASON_PARTIAL, plan.reason());
+        assertEquals(3.0, registry.get("fitness.gemini.repair.items").tags("type", "workout", "action", "dropped").counter().count());
+    }
+
+    @Test
+    void readsSloppyJsonAndRejectsImplausibleCalories() throws Exception {
+        GeneratedPlan<DietResponse> plan = repair.diet(fixture("diet-malformed.txt"), () -> fail("no top-up expected"));
+
+        assertEquals(List.of("Oatmeal with Berries", "Grilled Chicken Salad", "Salmon with Quinoa", "Greek Yogurt"),
+                plan.plan().meals().stream().map(Meal::name).toList());
+        assertEquals(PlanSource.GEMINI, plan.source());
+    }
+
+    @Test
+    void fillsMissingRunningWeeksFromProgressivePlan() throws Exception {
+        List<RunningWeek> fallback = progressiveWeeks(8);
+        GeneratedPlan<List<RunningWeek>> plan = repair.runningWeeks(fixture("running-truncated.txt"), 1, fallback);
+
+        assertEquals(8, plan.plan().size());
+        for (int i = 0; i < 8; i++) assertEquals(i + 1, plan.plan().get(i).weekNumber());
+        assertEquals("8 km", plan.plan().get(0).sessions().get(2).distance());
+        assertEquals(2, plan.plan().get(1).sessions().size(), "900 km session is dropped");
+        assertSame(fallback.get(3).sessions(), plan.plan().get(3).sessions());
+        assertEquals(PlanSource.REASON_PARTIAL, plan.reason());
+    }
+
+    @Test
+    void checksSessionDistancesInMetersAndCountsDroppedSessions() {
+        String answer = """
+                {"weeks":[{"weekNumber":1,"sessions":[
+                  {"day":"Tue","type":"Intervals","distance":"6 x 400 m","notes":"Fast"},
+                  {"day":"Thu","type":"Strides","distance":"800 m","notes":"Relaxed"},
+                  {"day":"Sun","type":"Long Run","distance":"150 km","notes":"Typo"}]}]}""";
+
+        GeneratedPlan<List<RunningWeek>> plan = repair.runningWeeks(answer, 1, null);
+
+        assertEquals(List.of("6 x 400 m", "800 m"),
+                plan.plan().get(0).sessions().stream().map(RunningSession::distance).toList());
+        assertEquals(PlanSource.GEMINI, plan.source());
+        assertEquals(1.0, outcomes("runningPlan", PlanResponseRepair.OUTCOME_SALVAGED));
+        assertEquals(1.0, registry.get("fitness.gemini.repair.items").tags("type", "runningPlan", "action", "dropped").counter().count());
+    }
+
+    @Test
+    void cleanAnswerIsValidAndUnusableAnswerIsDiscarded() throws Exception {
+        GeneratedPlan<YogaPlanResponse> yoga = repair.yoga(fixture("yoga-valid.txt"), () -> fail("no top-up expected"));
+        assertEquals(6, yoga.plan().poses().size());
+        assertEquals(PlanSource.GEMINI, yoga.source());
+        assertEquals(1.0, outcomes("yoga", PlanResponseRepair.OUTCOME_VALID));
+
+        assertNull(repair.workout(fixture("refusal.txt"), () -> fail("discarded answers are not topped up")));
+        assertNull(repair.workout("{\"exercises\":[{\"name\":\"Plank\",\"sets\":\"3\",\"re", () -> fail("")));
+        assertEquals(2.0, outcomes("workout", PlanResponseRepair.OUTCOME_DISCARDED));
+    }
+
+    private double outcomes(String type, String outcome) {
+        return registry.get("fitness.gemini.repair").tags("type", type, "outcome", outcome).counter().count();
+    }
+
+    private static String fixture(String name) throws Exception {
+        try (InputStream in = PlanResponseRepairTest.class.getResourceAsStream("/gemini-fixtures/" + name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<RunningWeek> progressiveWeeks(int n) {
+        return IntStream.rangeClosed(1, n)
+                .mapToObj(w -> new RunningWeek(w, List.of(
+                        new RunningSession("Mon", "Rest", "-", "Recovery / mobility"),
+                        new RunningSession("Sun", "Long Run", (6 + w) + " km", "Endurance building"))))
+                .toList();
+    }
+}
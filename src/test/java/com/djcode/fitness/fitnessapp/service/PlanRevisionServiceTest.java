@@ -0,0 +1,114 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanRevisionServiceTest {
+
+    private static final WorkoutRequest BEFORE = new WorkoutRequest("chest", 30, "beginner");
+    private static final WorkoutResponse PLAN = new WorkoutResponse(List.of(
+            new Exercise("Push-ups", "3", "10-12", "Chest"),
+            new Exercise("Incline Push-ups", "3", "12", "Upper chest"),
+            new Exercise("Plank", "3", "30 sec", "Core")));
+
+    private SimpleMeterRegistry registry;
+    private PlanRevisionService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+        registry = new SimpleMeterRegistry();
+        FallbackPlanEngine engine = new FallbackPlanEngine(codecs);
+        AIService aiService = TestAIService.builder().codecs(codecs).registry(registry).engine(engine).build();
+        service = new PlanRevisionService(aiService, engine, codecs, registry, new PayloadLog(20, 2000));
+    }
+
+    @Test
+    void appliesOnlyTheReturnedEdits() {
+        String edits = """
+                {"replace":[{"index":2,"item":{"name":"Decline Push-ups","sets":"4","reps":"10","description":"Upper chest"}}],
+                 "add":[{"name":"Chest Dips","sets":"3","reps":"8","description":"Lower chest"}]}""";
+        WorkoutRevisionRequest revision = new WorkoutRevisionRequest(BEFORE, PLAN, new WorkoutRequest("chest", 45, "beginner"));
+
+        GeneratedPlan<WorkoutResponse> revised = GeminiClient.withCannedResponse(edits, () -> service.reviseWorkoutPlan(revision));
+
+        assertEquals(PlanSource.GEMINI, revised.source());
+        assertEquals(List.of("Push-ups", "Decline Push-ups", "Plank", "Chest Dips"),
+                revised.plan().exercises().stream().map(Exercise::name).toList());
+        assertSame(PLAN.exercises().get(0), revised.plan().exercises().get(0));
+        assertEquals(2.0, registry.get("fitness.revise.edits").summary().totalAmount());
+    }
+
+    @Test
+    void rejectsOutOfRangeEditsAndRegenerates() {
+        String edits = """
+                {"replace":[{"index":7,"item":{"name":"Bench Press","sets":"4","reps":"8","description":"..."}}]}""";
+        WorkoutRevisionRequest revision = new WorkoutRevisionRequest(BEFORE, PLAN, new WorkoutRequest("chest", 30, "advanced"));
+
+        GeneratedPlan<WorkoutResponse> revised = GeminiClient.withCannedResponse(edits, () -> service.reviseWorkoutPlan(revision));
+
+        // The full regeneration gets the same canned (non-workout) answer and ends in the local generator
+        assertEquals(PlanSource.LOCAL, revised.source());
+        assertFalse(revised.plan().exercises().isEmpty());
+        assertEquals(1, registry.get("fitness.revise").tag("mode", PlanRevisionService.MODE_FULL).timer().count());
+    }
+
+    @Test
+    void regeneratesWorkoutLeftWithTooFewExercises() {
+        WorkoutResponse four = new WorkoutResponse(List.of(PLAN.exercises().get(0), PLAN.exercises().get(1), PLAN.exercises().get(2),
+                new Exercise("Chest Dips", "3", "8", "Lower chest")));
+        String edits = """
+                {"remove":[2,3,4]}""";
+        WorkoutRevisionRequest revision = new WorkoutRevisionRequest(BEFORE, four, new WorkoutRequest("chest", 15, "beginner"));
+
+        GeneratedPlan<WorkoutResponse> revised = GeminiClient.withCannedResponse(edits, () -> service.reviseWorkoutPlan(revision));
+
+        assertEquals(PlanSource.LOCAL, revised.source());
+        assertEquals(1, registry.get("fitness.revise").tag("mode", PlanRevisionService.MODE_FULL).timer().count());
+        assertNotNull(PlanRevisionService.workoutMismatch(new WorkoutResponse(Collections.nCopies(12, four.exercises().get(0))),
+                new WorkoutRequest("chest", 30, "beginner")));
+        assertNull(PlanRevisionService.workoutMismatch(four, new WorkoutRequest("chest", 30, "beginner")));
+    }
+
+    @Test
+    void regeneratesDietWhoseUntouchedMealsHoldANewAllergen() {
+        DietRequest before = new DietRequest("balanced", "maintenance", 1800, "none");
+        DietResponse plan = new DietResponse(List.of(
+                new Meal("Overnight Oats", "Oats, milk, berries", "400", "Breakfast"),
+                new Meal("Chicken Rice Bowl", "Chicken, rice, broccoli", "600", "Lunch"),
+                new Meal("Salmon and Potatoes", "Salmon, potatoes, green beans", "650", "Dinner"),
+                new Meal("Apple", "Apple", "150", "Snack")));
+        // Swaps the salmon but leaves the oats made with milk in place although dairy is now excluded
+        String edits = """
+                {"replace":[{"index":3,"item":{"name":"Turkey and Potatoes","ingredients":"Turkey, potatoes, green beans","calories":"650","description":"Dinner"}}]}""";
+        DietRevisionRequest revision = new DietRevisionRequest(before, plan, new DietRequest("balanced", "maintenance", 1800, "dairy"));
+
+        GeneratedPlan<DietResponse> revised = GeminiClient.withCannedResponse(edits, () -> service.reviseDietPlan(revision));
+
+        assertEquals(PlanSource.LOCAL, revised.source());
+        assertEquals(1, registry.get("fitness.revise").tag("mode", PlanRevisionService.MODE_FULL).timer().count());
+        assertNull(PlanRevisionService.dietMismatch(new DietResponse(List.of(plan.meals().get(1), plan.meals().get(3),
+                new Meal("Turkey and Potatoes", "Turkey, potatoes", "1000", "Dinner"))), revision.request()));
+    }
+
+    @Test
+    void returnsPlanUnchangedWithoutCallingGemini() {
+        WorkoutRevisionRequest revision = new WorkoutRevisionRequest(BEFORE, PLAN, new WorkoutRequest(" Chest", 30, "Beginner"));
+
+        GeneratedPlan<WorkoutResponse> revised = service.reviseWorkoutPlan(revision);
+
+        assertEquals(PlanSource.UNCHANGED, revised.source());
+        assertSame(PLAN, revised.plan());
+    }
+}
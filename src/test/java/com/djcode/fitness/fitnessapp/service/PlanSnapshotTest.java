@@ -0,0 +1,161 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsAllPlanTypesWithSharedStrings() throws Exception {
+        WorkoutResponse workout = new WorkoutResponse(List.of(
+                new Exercise("Plank", "3", "30 sec", "Core"),
+                new Exercise("Squats", "3", "12", null)));
+        WorkoutResponse workout2 = new WorkoutResponse(List.of(new Exercise("Plank", "3", "45 sec", "Core")));
+        DietResponse diet = new DietResponse(List.of(new Meal("Oatmeal", "Oats, berries", "350", "Breakfast – ünïcode")));
+        YogaPlanResponse yoga = new YogaPlanResponse(List.of(new YogaPose("Mountain Pose", "60 sec", "Stand tall")));
+        RunningPlanResponse running = new RunningPlanResponse(List.of(
+                new RunningWeek(1, List.of(new RunningSession("Mon", "Rest", "-", "Recovery"))),
+                new RunningWeek(2, List.of())));
+        Path file = dir.resolve("plans.snap");
+
+        PlanSnapshot.write(file, List.of(
+                new PlanSnapshot.Entry("w1", workout, 1L),
+                new PlanSnapshot.Entry("w2", workout2, 2L),
+                new PlanSnapshot.Entry("d", diet, 3L),
+                new PlanSnapshot.Entry("y", yoga, 4L),
+                new PlanSnapshot.Entry("r", running, 5L)));
+        PlanSnapshot snapshot = PlanSnapshot.open(file);
+
+        assertEquals(5, snapshot.size());
+        assertEquals(workout, snapshot.get("w1"));
+        assertEquals(workout2, snapshot.get("w2", WorkoutResponse.class));
+        assertEquals(diet, snapshot.get("d"));
+        assertEquals(yoga, snapshot.get("y"));
+        assertEquals(running, snapshot.get("r"));
+        assertEquals(3L, snapshot.entry("d").generatedAt());
+        assertNull(snapshot.get("missing"));
+        assertNull(snapshot.get("d", WorkoutResponse.class));
+        // "Plank", "3" and "Core" are stored once
+        assertEquals(1, Files.readString(file, java.nio.charset.StandardCharsets.ISO_8859_1).split("Plank", -1).length - 1);
+    }
+
+    @Test
+    void rejectsOtherVersions() throws Exception {
+        Path file = dir.resolve("plans.snap");
+        PlanSnapshot.write(file, List.of());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer.wrap(bytes).putShort(4, (short) (PlanSnapshot.VERSION + 1));
+        Files.write(file, bytes);
+
+        Exception ex = assertThrows(java.io.IOException.class, () -> PlanSnapshot.open(file));
+        assertTrue(ex.getMessage().contains("version"));
+    }
+
+    /** mvn -Pbenchmark test -Dtest=PlanSnapshotTest -Dbench.plans=1000000 */
+    @Test
+    @Tag("benchmark")
+    void loadTimeAndHeapAgainstJson() throws Exception {
+        int count = Integer.getInteger("bench.plans", 1_000_000);
+        JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+        List<Object> pool = planPool(new FallbackPlanEngine(codecs));
+        List<PlanSnapshot.Entry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(new PlanSnapshot.Entry("user-" + i, pool.get(i % pool.size()), i));
+        }
+
+        Path snap = dir.resolve("plans.snap");
+        long t0 = System.nanoTime();
+        PlanSnapshot.write(snap, entries);
+        long writeSnapMs = (System.nanoTime() - t0) / 1_000_000;
+
+        Path json = dir.resolve("plans.jsonl");
+        t0 = System.nanoTime();
+        try (BufferedWriter out = Files.newBufferedWriter(json)) {
+            for (PlanSnapshot.Entry e : entries) {
+                out.write(codecs.mapper().writeValueAsString(Map.of("key", e.key(), "type", e.plan().getClass().getSimpleName(),
+                        "generatedAt", e.generatedAt(), "plan", e.plan())));
+                out.newLine();
+            }
+        }
+        long writeJsonMs = (System.nanoTime() - t0) / 1_000_000;
+        entries = null;
+
+        long heap0 = usedHeap();
+        t0 = System.nanoTime();
+        PlanSnapshot snapshot = PlanSnapshot.open(snap);
+        long loadSnapUs = (System.nanoTime() - t0) / 1_000;
+        long heapSnap = usedHeap() - heap0;
+
+        Map<String, Class<?>> types = Map.of("WorkoutResponse", WorkoutResponse.class, "DietResponse", DietResponse.class,
+                "YogaPlanResponse", YogaPlanResponse.class);
+        heap0 = usedHeap();
+        t0 = System.nanoTime();
+        Map<String, Object> loaded = new HashMap<>(count * 2);
+        try (BufferedReader in = Files.newBufferedReader(json)) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                JsonNode node = codecs.mapper().readTree(line);
+                loaded.put(node.get("key").asText(), codecs.reader(types.get(node.get("type").asText())).readValue(node.get("plan")));
+            }
+        }
+        long loadJsonMs = (System.nanoTime() - t0) / 1_000_000;
+        long heapJson = usedHeap() - heap0;
+
+        Random random = new Random(42);
+        int lookups = 200_000;
+        t0 = System.nanoTime();
+        for (int i = 0; i < lookups; i++) assertNotNull(snapshot.get("user-" + random.nextInt(count)));
+        double snapGetUs = (System.nanoTime() - t0) / 1e3 / lookups;
+
+        System.out.printf("%,d plans: snapshot %,d MB written in %,d ms, opened in %,d us, heap %+,d KB, get+decode %.2f us%n",
+                count, Files.size(snap) >> 20, writeSnapMs, loadSnapUs, heapSnap >> 10, snapGetUs);
+        System.out.printf("%,d plans: json     %,d MB written in %,d ms, loaded in %,d ms, heap %+,d MB%n",
+                loaded.size(), Files.size(json) >> 20, writeJsonMs, loadJsonMs, heapJson >> 20);
+    }
+
+    private static List<Object> planPool(FallbackPlanEngine engine) {
+        List<Object> pool = new ArrayList<>();
+        String[] levels = {"beginner", "intermediate", "advanced"};
+        for (String muscle : new String[]{"chest", "back", "legs", "shoulders", "arms", "core", "full body"}) {
+            for (int minutes = 15; minutes <= 60; minutes += 15) {
+                for (String level : levels) pool.add(engine.workout(new WorkoutRequest(muscle, minutes, level)));
+            }
+        }
+        for (String pref : new String[]{"balanced", "vegan", "vegetarian", "keto", "high protein"}) {
+            for (int kcal = 1500; kcal <= 3000; kcal += 250) {
+                pool.add(engine.diet(new DietRequest(pref, "maintenance", kcal, "none")));
+            }
+        }
+        for (String goal : new String[]{"stress", "sleep", "energy", "flexibility", "strength"}) {
+            for (int minutes = 10; minutes <= 40; minutes += 10) pool.add(engine.yoga(new YogaPlanRequest(goal, minutes)));
+        }
+        return pool;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,95 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.WorkoutRequest;
+import com.djcode.fitness.fitnessapp.dto.WorkoutResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecomputedPlanCatalogTest {
+
+    private static final String GEMINI_WORKOUT = """
+            {"exercises":[{"name":"Bench Press","sets":"4","reps":"6-8","description":"Heavy compound press"},
+            {"name":"Incline Dumbbell Press","sets":"3","reps":"8-10","description":"Upper chest"},
+            {"name":"Weighted Dips","sets":"3","reps":"8","description":"Lean forward"},
+            {"name":"Cable Fly","sets":"3","reps":"12","description":"Controlled stretch"}]}""";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void precomputesTopKeysWithinBudgetAndServesThemAfterRestart() throws Exception {
+        JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        Path snapshot = dir.resolve("catalog.snap");
+        PrecomputedPlanCatalog catalog = new PrecomputedPlanCatalog(true, 100, snapshot, new PlanContentPool(registry), registry);
+
+        for (int i = 0; i < 5; i++) assertNull(catalog.lookup(new WorkoutRequest("Pecs", 45, "Advanced")));
+        for (int i = 0; i < 3; i++) catalog.lookup(new WorkoutRequest("chest", 30, "beginner"));
+        catalog.lookup(new WorkoutRequest("legs", 30, "beginner"));
+
+        AIService aiService = TestAIService.builder().codecs(codecs).registry(registry).catalog(catalog).build();
+        DefaultListableBeanFactory beans = new DefaultListableBeanFactory();
+        beans.registerSingleton("aiService", aiService);
+        PlanPrecomputeJob job = new PlanPrecomputeJob(catalog, beans.getBeanProvider(AIService.class), registry);
+        ReflectionTestUtils.setField(job, "topN", 10);
+        ReflectionTestUtils.setField(job, "minRequests", 3L);
+        ReflectionTestUtils.setField(job, "maxGeminiCalls", 1);
+        ReflectionTestUtils.setField(job, "refreshAfter", Duration.ofDays(7));
+
+        GeminiClient.withCannedResponse(GEMINI_WORKOUT, () -> {
+            job.run();
+            return null;
+        });
+
+        assertTrue(Files.exists(snapshot));
+        assertEquals(1.0, registry.get("fitness.precompute.calls").counter().count());
+        try (var files = Files.list(dir)) {
+            assertEquals(1, files.count(), "temp file must be renamed away");
+        }
+
+        PrecomputedPlanCatalog restarted = new PrecomputedPlanCatalog(true, 100, snapshot, new PlanContentPool(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        assertEquals(1, restarted.size());
+        WorkoutResponse served = restarted.lookup(new WorkoutRequest(" PECS", 45, "advanced"));
+        assertNotNull(served);
+        assertEquals("Bench Press", served.exercises().get(0).name());
+        // Same engine group as "pecs", but not the same request
+        assertNull(restarted.lookup(new WorkoutRequest("chest", 45, "advanced")));
+        assertNull(restarted.lookup(new WorkoutRequest("chest", 30, "beginner")));
+    }
+
+    @Test
+    void keepsTrafficCountsBoundedAndOffWhenDisabled() {
+        Path snapshot = dir.resolve("none.snap");
+        PrecomputedPlanCatalog catalog = new PrecomputedPlanCatalog(true, 100, snapshot, new PlanContentPool(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        for (int i = 0; i < 5; i++) catalog.lookup(new WorkoutRequest("chest", 30, "beginner"));
+        for (int i = 0; i < 1_000; i++) catalog.lookup(new WorkoutRequest("muscle " + i, i, "beginner"));
+
+        assertTrue(catalog.trackedKeys() <= 100, "tracked " + catalog.trackedKeys());
+        assertEquals("chest|30|beginner", catalog.topKeys(1, 1).get(0));
+
+        PrecomputedPlanCatalog disabled = new PrecomputedPlanCatalog(false, 100, snapshot, new PlanContentPool(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        disabled.lookup(new WorkoutRequest("chest", 30, "beginner"));
+        assertEquals(0, disabled.trackedKeys());
+    }
+
+    @Test
+    void ignoresCorruptSnapshot() throws Exception {
+        Path snapshot = dir.resolve("catalog.snap");
+        Files.writeString(snapshot, "not a snapshot");
+        PrecomputedPlanCatalog catalog = new PrecomputedPlanCatalog(true, 100, snapshot, new PlanContentPool(new SimpleMeterRegistry()), new SimpleMeterRegistry());
+        assertEquals(0, catalog.size());
+        assertNull(catalog.lookup(new WorkoutRequest("chest", 30, "beginner")));
+    }
+}
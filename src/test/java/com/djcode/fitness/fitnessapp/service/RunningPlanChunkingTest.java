@@ -0,0 +1,149 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiResult;
+import com.djcode.fitness.fitnessapp.config.AIConfig.GenerationConfig;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanRequest;
+import com.djcode.fitness.fitnessapp.dto.RunningPlanResponse;
+import com.djcode.fitness.fitnessapp.dto.RunningWeek;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RunningPlanChunkingTest {
+
+    private static final Pattern CHUNK = Pattern.compile("Write ONLY weeks (\\d+)-(\\d+)");
+    private static final Pattern WHOLE = Pattern.compile("within (\\d+) weeks");
+
+    private ThreadPoolTaskExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.initialize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void mergesChunksInOrderAndFallsBackPerChunk() {
+        // Weeks 5-8 come back malformed and are filled from the progressive local plan
+        StubGemini gemini = new StubGemini(0, 0, Set.of(5));
+        AIService service = service(gemini, 4);
+
+        GeneratedPlan<RunningPlanResponse> plan =
+                service.generateRunningPlanWithSource(new RunningPlanRequest("Half marathon", "10 weeks", "beginner"));
+
+        assertEquals(10, plan.plan().weeks().size());
+        for (int i = 0; i < 10; i++) {
+            RunningWeek week = plan.plan().weeks().get(i);
+            assertEquals(i + 1, week.weekNumber());
+            String notes = week.sessions().get(0).notes();
+            if (i >= 4 && i < 8) assertNotEquals("stub", notes);
+            else assertEquals("stub", notes);
+        }
+        assertEquals(PlanSource.LOCAL, plan.source());
+        assertEquals(PlanSource.REASON_PARTIAL, plan.reason());
+        assertEquals(3, gemini.prompts.size());
+        assertTrue(gemini.prompts.stream().anyMatch(p -> p.contains("Previous phase, weeks 5-8 (build)")));
+        // Output budget follows each chunk's week count: 4 + 4 + 2 weeks at 400 tokens
+        assertEquals(Set.of(1600, 800), gemini.budgets);
+    }
+
+    @Test
+    void capsTimeframeAtMaxWeeks() {
+        StubGemini gemini = new StubGemini(0, 0, Set.of());
+
+        GeneratedPlan<RunningPlanResponse> plan =
+                service(gemini, 4).generateRunningPlanWithSource(new RunningPlanRequest("Ultra", "100000 weeks", "advanced"));
+
+        assertEquals(AIService.MAX_WEEKS, plan.plan().weeks().size());
+        assertEquals(AIService.MAX_WEEKS / 4, gemini.prompts.size());
+        assertEquals(0, AIService.extractWeeks("-3 weeks"));
+    }
+
+    @Test
+    @Tag("benchmark")
+    void latencyByPlanLength() {
+        // Simulated Gemini: 300 ms fixed + 120 ms per generated week
+        for (int weeks : new int[]{4, 8, 16, 24}) {
+            RunningPlanRequest request = new RunningPlanRequest("Marathon", weeks + " weeks", "intermediate");
+            long single = time(service(new StubGemini(300, 120, Set.of()), 0), request);
+            long chunked = time(service(new StubGemini(300, 120, Set.of()), 4), request);
+            System.out.printf("running plan %2d weeks: single=%5d ms chunked=%5d ms%n", weeks, single, chunked);
+        }
+    }
+
+    private long time(AIService service, RunningPlanRequest request) {
+        long start = System.nanoTime();
+        GeneratedPlan<?> plan = service.generateRunningPlanWithSource(request);
+        assertEquals(PlanSource.GEMINI, plan.source());
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+
+    private AIService service(GeminiClient gemini, int chunkWeeks) {
+        return TestAIService.builder().gemini(gemini).executor(executor).maxConcurrency(16).runningChunkWeeks(chunkWeeks).build();
+    }
+
+    /** Answers running plan prompts with the requested weeks after a size-proportional delay. */
+    private static final class StubGemini extends GeminiClient {
+        private final long baseMs;
+        private final long perWeekMs;
+        private final Set<Integer> malformedChunks;
+        final Set<String> prompts = ConcurrentHashMap.newKeySet();
+        final Set<Integer> budgets = ConcurrentHashMap.newKeySet();
+
+        StubGemini(long baseMs, long perWeekMs, Set<Integer> malformedChunks) {
+            super(null, "stub", "stub");
+            this.baseMs = baseMs;
+            this.perWeekMs = perWeekMs;
+            this.malformedChunks = malformedChunks;
+        }
+
+        @Override
+        public GeminiResult generate(String prompt, GenerationConfig config) {
+            prompts.add(prompt);
+            assertEquals("application/json", config.responseMimeType());
+            budgets.add(config.maxOutputTokens());
+            int from = 1, to;
+            Matcher chunk = CHUNK.matcher(prompt);
+            if (chunk.find()) {
+                from = Integer.parseInt(chunk.group(1));
+                to = Integer.parseInt(chunk.group(2));
+            } else {
+                Matcher whole = WHOLE.matcher(prompt);
+                assertTrue(whole.find());
+                to = Integer.parseInt(whole.group(1));
+            }
+            try {
+                Thread.sleep(baseMs + perWeekMs * (to - from + 1));
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            if (malformedChunks.contains(from)) {
+                return new GeminiResult("{\"weeks\":[{\"weekNumber\":" + from + ",\"sessions\":[", 0, "MAX_TOKENS");
+            }
+            StringBuilder json = new StringBuilder("{\"weeks\":[");
+            for (int w = from; w <= to; w++) {
+                if (w > from) json.append(',');
+                json.append("{\"weekNumber\":").append(w).append(",\"sessions\":[")
+                        .append("{\"day\":\"Mon\",\"type\":\"Easy Run\",\"distance\":\"5 km\",\"notes\":\"stub\"},")
+                        .append("{\"day\":\"Tue\",\"type\":\"Rest\",\"distance\":\"-\",\"notes\":\"stub\"}]}");
+            }
+            return new GeminiResult(json.append("]}").toString(), 0, "STOP");
+        }
+    }
+}
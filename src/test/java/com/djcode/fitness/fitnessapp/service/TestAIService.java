@@ -0,0 +1,104 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.AIConfig.GeminiClient;
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.config.PayloadLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Builds the {@link AIService} the service tests run against: Gemini without an API key (answers
+ * come from {@link GeminiClient#withCannedResponse} or a stub), no catalog snapshot, the plan
+ * cache off and the property defaults for token budgets. Override only what a test is about.
+ */
+final class TestAIService {
+
+    private JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+    private MeterRegistry registry = new SimpleMeterRegistry();
+    private GeminiClient gemini = new GeminiClient(null, "CHANGE_ME", "test-model");
+    private FallbackPlanEngine engine;
+    private ThreadPoolTaskExecutor executor;
+    private PrecomputedPlanCatalog catalog;
+    private PlanResponseCache cache;
+    private PayloadLog payloadLog = new PayloadLog(20, 2000);
+    private int maxConcurrency = 4;
+    private int runningChunkWeeks;
+
+    static TestAIService builder() {
+        return new TestAIService();
+    }
+
+    TestAIService codecs(JsonCodecs codecs) {
+        this.codecs = codecs;
+        return this;
+    }
+
+    TestAIService registry(MeterRegistry registry) {
+        this.registry = registry;
+        return this;
+    }
+
+    TestAIService gemini(GeminiClient gemini) {
+        this.gemini = gemini;
+        return this;
+    }
+
+    TestAIService engine(FallbackPlanEngine engine) {
+        this.engine = engine;
+        return this;
+    }
+
+    TestAIService executor(ThreadPoolTaskExecutor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    TestAIService catalog(PrecomputedPlanCatalog catalog) {
+        this.catalog = catalog;
+        return this;
+    }
+
+    TestAIService cache(PlanResponseCache cache) {
+        this.cache = cache;
+        return this;
+    }
+
+    TestAIService payloadLog(PayloadLog payloadLog) {
+        this.payloadLog = payloadLog;
+        return this;
+    }
+
+    TestAIService maxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return this;
+    }
+
+    TestAIService runningChunkWeeks(int runningChunkWeeks) {
+        this.runningChunkWeeks = runningChunkWeeks;
+        return this;
+    }
+
+    AIService build() {
+        PlanContentPool pool = new PlanContentPool(registry);
+        try {
+            AIService service = new AIService(gemini,
+                    engine != null ? engine : new FallbackPlanEngine(codecs),
+                    new GeminiAdmissionController(maxConcurrency, 50, 1000, registry),
+                    executor != null ? executor : new ThreadPoolTaskExecutor(),
+                    catalog != null ? catalog : new PrecomputedPlanCatalog(false, 0, Path.of("target/no-catalog.snap"), pool, registry),
+                    cache != null ? cache : new PlanResponseCache(false, Path.of("target/no-cache.snap"), Duration.ZERO, 0, pool, registry),
+                    registry, new PlanResponseRepair(codecs, registry), payloadLog);
+            ReflectionTestUtils.setField(service, "runningChunkWeeks", runningChunkWeeks);
+            ReflectionTestUtils.setField(service, "runningMaxTokensPerWeek", 400);
+            return service;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.djcode.fitness.fitnessapp.service;
+
+import com.djcode.fitness.fitnessapp.config.JsonCodecs;
+import com.djcode.fitness.fitnessapp.dto.*;
+import com.djcode.fitness.fitnessapp.entity.PlanRecord;
+import com.djcode.fitness.fitnessapp.entity.WeeklyAnalytics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/** Weekly totals as computed by the rebuild from stored plan history. */
+class WeeklyAnalyticsServiceTest {
+
+    private static final Instant WEDNESDAY = Instant.parse("2026-10-14T18:00:00Z");
+    private static final LocalDate MONDAY = LocalDate.parse("2026-10-12");
+
+    private final JsonCodecs codecs = new JsonCodecs(new ObjectMapper());
+    private final WeeklyAnalyticsService service =
+            new WeeklyAnalyticsService(null, null, null, codecs, null, new SimpleMeterRegistry(), 500);
+
+    @Test
+    void sumsPlansOfTheSaveWeekAndSpreadsRunningWeeks() throws Exception {
+        WorkoutResponse chest = new WorkoutResponse(List.of(
+                new Exercise("Push-ups", "3", "10-12", ""),
+                new Exercise("Chest Fly", "4 sets", "12", "")));
+        WorkoutResponse legs = new WorkoutResponse(List.of(new Exercise("Squat", "5", "5", "")));
+        DietResponse diet = new DietResponse(List.of(
+                new Meal("Oats", "oats", "350-400 kcal", ""),
+                new Meal("Salad", "greens", "1,200", "")));
+        RunningPlanResponse running = new RunningPlanResponse(List.of(
+                new RunningWeek(1, List.of(new RunningSession("Mon", "Easy", "5 km", ""), new RunningSession("Tue", "Rest", "-", ""))),
+                new RunningWeek(2, List.of(new RunningSession("Sun", "Long Run", "800 m", "")))));
+
+        Map<String, WeeklyAnalytics> weeks = service.totals(List.of(
+                record("workout", " Chest ", chest),
+                record("workout", "legs", legs),
+                record("workout", "Upper chest.", chest),
+                record("diet", null, diet),
+                record("running", null, running)));
+
+        WeeklyAnalytics first = weeks.get(WeeklyAnalytics.id("u1", MONDAY));
+        assertEquals(Map.of("chest", 14L, "legs", 5L), first.getSetsByMuscle());
+        assertEquals(375 + 1200, first.getKcal());
+        assertEquals(5000, first.getRunningMeters());
+        assertEquals(5, first.getPlans());
+
+        WeeklyAnalytics second = weeks.get(WeeklyAnalytics.id("u1", MONDAY.plusWeeks(1)));
+        assertEquals(800, second.getRunningMeters());
+        assertEquals(0, second.getPlans());
+        assertEquals(2, weeks.size());
+    }
+
+    @Test
+    void skipsUnreadablePlans() throws Exception {
+        PlanRecord broken = PlanRecord.builder().id("x").userId("u1").type("diet").createdAt(WEDNESDAY).plan("{\"meals\":").build();
+        Map<String, WeeklyAnalytics> weeks = service.totals(List.of(broken, record("diet", null, new DietResponse(List.of()))));
+        assertEquals(1, weeks.get(WeeklyAnalytics.id("u1", MONDAY)).getPlans());
+    }
+
+    private PlanRecord record(String type, String muscle, Object plan) throws Exception {
+        return PlanRecord.builder()
+                .userId("u1")
+                .type(type)
+                .targetMuscle(muscle)
+                .createdAt(WEDNESDAY)
+                .plan(new String(codecs.write(plan), StandardCharsets.UTF_8))
+                .build();
+    }
+}